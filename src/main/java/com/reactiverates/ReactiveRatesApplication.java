@@ -1,7 +1,9 @@
 package com.reactiverates;
 
 import com.reactiverates.infrastructure.config.ExchangeRateApiConfig;
+import com.reactiverates.infrastructure.config.HedgingProperties;
 import com.reactiverates.infrastructure.config.MockProviderConfig;
+import com.reactiverates.infrastructure.config.ProviderHealthProperties;
 import com.reactiverates.infrastructure.config.UniRateApiConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -20,7 +22,9 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 @EnableConfigurationProperties({
     UniRateApiConfig.class, 
     ExchangeRateApiConfig.class,
-    MockProviderConfig.class
+    MockProviderConfig.class,
+    ProviderHealthProperties.class,
+    HedgingProperties.class
 })
 public class ReactiveRatesApplication {
 
@@ -1,23 +1,35 @@
 package com.reactiverates.api.rest.controller;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
 import com.reactiverates.domain.model.ConversionRequest;
 import com.reactiverates.domain.model.ConversionResult;
 import com.reactiverates.domain.model.ExchangeRate;
 import com.reactiverates.domain.service.CurrencyConversionService;
+import com.reactiverates.infrastructure.config.RateStreamProperties;
 
 import org.springframework.web.bind.annotation.RequestBody;
 import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ServerWebInputException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,11 +50,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @SecurityRequirement(name = "bearerAuth")
 public class CurrencyConversionController {
     private static final Logger log = LoggerFactory.getLogger(CurrencyConversionController.class);
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z]{3}");
     
     private final CurrencyConversionService service;
+    private final RateStreamProperties streamProperties;
 
-    public CurrencyConversionController(CurrencyConversionService service) {
+    public CurrencyConversionController(CurrencyConversionService service, RateStreamProperties streamProperties) {
         this.service = service;
+        this.streamProperties = streamProperties;
     }
 
     @PostMapping("/convert")
@@ -127,6 +142,83 @@ public class CurrencyConversionController {
                 fromCurrency, toCurrency, error.getMessage()));
     }
     
+    @GetMapping(value = "/rates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "📡 Поток курсов обмена",
+        description = "Server-Sent Events с курсами выбранных пар: сначала текущий курс каждой пары, "
+            + "затем только заметные изменения. Медленный клиент получает последний курс, промежуточные пропускаются. "
+            + "Для пары, которую не поддерживает ни один провайдер, приходит событие pair-error, и ее поток закрывается."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "✅ Подписка открыта",
+            content = @Content(
+                mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                schema = @Schema(implementation = ExchangeRate.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "❌ Неверный список пар"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "🔐 Не авторизован - требуется Bearer токен"
+        )
+    })
+    public Flux<ServerSentEvent<Object>> streamExchangeRates(
+        @Parameter(description = "Валютные пары через запятую", example = "USD-EUR,EUR-GBP", required = true)
+        @RequestParam("pairs") List<String> pairs
+    ) {
+        Set<String> requested = parsePairs(pairs);
+        log.info("Opening rate stream for {}", requested);
+
+        Flux<ServerSentEvent<Object>> rates = Flux.fromIterable(requested)
+            .flatMap(pair -> {
+                String[] currencies = pair.split("-");
+                return service.streamExchangeRate(currencies[0], currencies[1])
+                    .map(rate -> ServerSentEvent.<Object>builder(rate)
+                        .event("rate")
+                        .id(pair)
+                        .build())
+                    .onErrorResume(CurrencyNotFoundException.class, error -> Flux.just(ServerSentEvent.<Object>builder(
+                            Map.of("errorCode", "CURRENCY_001", "error", error.getMessage()))
+                        .event("pair-error")
+                        .id(pair)
+                        .build()));
+            }, requested.size());
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(streamProperties.heartbeatInterval())
+            .onBackpressureDrop()
+            .map(tick -> ServerSentEvent.<Object>builder().comment("heartbeat").build());
+
+        return Flux.merge(rates, heartbeats)
+            .doFinally(signal -> log.debug("Rate stream for {} closed: {}", requested, signal));
+    }
+
+    /**
+     * Пары принимаются в виде {@code USD-EUR} или {@code USD/EUR}; коды валют проверяются так же,
+     * как в RSocket API, а пара из одинаковых валют отклоняется
+     */
+    private Set<String> parsePairs(List<String> pairs) {
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String pair : pairs) {
+            String[] currencies = pair.trim().toUpperCase().split("[-/]");
+            if (currencies.length != 2 || !CURRENCY_CODE.matcher(currencies[0]).matches()
+                    || !CURRENCY_CODE.matcher(currencies[1]).matches()) {
+                throw new ServerWebInputException("Invalid currency pair: " + pair);
+            }
+            if (currencies[0].equals(currencies[1])) {
+                throw new ServerWebInputException("Currency pair must contain two different currencies: " + pair);
+            }
+            parsed.add(currencies[0] + "-" + currencies[1]);
+        }
+        if (parsed.isEmpty() || parsed.size() > streamProperties.maxPairs()) {
+            throw new ServerWebInputException("Expected from 1 to " + streamProperties.maxPairs() + " currency pairs");
+        }
+        return parsed;
+    }
+
     @GetMapping("/rates/support")
     @Operation(
         summary = "🔍 Проверка поддержки валютной пары",
@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
@@ -59,6 +60,26 @@ public class GlobalExceptionHandler {
         });
     }
     
+    /**
+     * Обработка некорректных параметров запроса
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public Mono<ResponseEntity<ProblemDetail>> handleInvalidInput(ServerWebInputException ex) {
+        log.warn("Invalid request input: {}", ex.getReason());
+
+        return Mono.fromCallable(() -> {
+            ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+            problemDetail.setTitle("Invalid Request");
+            problemDetail.setDetail(ex.getReason());
+            problemDetail.setType(URI.create("https://api.reactive-rates.com/errors/validation"));
+
+            problemDetail.setProperty("timestamp", Instant.now());
+            problemDetail.setProperty("errorCode", "VALIDATION_002");
+
+            return ResponseEntity.badRequest().body(problemDetail);
+        });
+    }
+    
     /**
      * Обработка ошибок "валюта не найдена" в реактивном стиле
      */
@@ -0,0 +1,195 @@
+package com.reactiverates.api.rsocket.controller;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.annotation.ConnectMapping;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
+import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.domain.model.ConversionRequest;
+import com.reactiverates.domain.model.ConversionResult;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.CurrencyConversionService;
+import com.reactiverates.infrastructure.security.JwtService;
+
+import io.rsocket.exceptions.RejectedSetupException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * RSocket API конвертации для пакетных клиентов.
+ * <p>
+ * JWT проверяется один раз при установке соединения: токен передается в setup-данных,
+ * с префиксом {@code Bearer } или без него. Соединение с неверным токеном отклоняется,
+ * поэтому запросы внутри принятого соединения повторно не проверяются.
+ * <ul>
+ *   <li>{@code rates.convert} — request-response, одна конвертация</li>
+ *   <li>{@code rates.get} — request-response, курс пары</li>
+ *   <li>{@code rates.stream} — request-stream, изменения курса пары; число одновременно открытых потоков
+ *       в одном соединении ограничено {@code max-streams-per-connection}</li>
+ *   <li>{@code rates.convert.batch} — request-channel: запросы конвертации в одну сторону,
+ *       результаты или ошибки отдельных запросов в том же порядке в другую; число одновременных конвертаций ограничено
+ *       {@code channel-concurrency}, а клиент получает запросы новых элементов по мере обработки</li>
+ * </ul>
+ */
+@Controller
+public class CurrencyConversionRSocketController {
+    private static final Logger log = LoggerFactory.getLogger(CurrencyConversionRSocketController.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final CurrencyConversionService service;
+    private final JwtService jwtService;
+    private final Validator validator;
+    private final int channelConcurrency;
+    private final int maxStreamsPerConnection;
+    private final Map<RSocketRequester, Integer> openStreams = new ConcurrentHashMap<>();
+
+    public CurrencyConversionRSocketController(
+            CurrencyConversionService service,
+            JwtService jwtService,
+            Validator validator,
+            @Value("${reactive-rates.rsocket.channel-concurrency:64}") int channelConcurrency,
+            @Value("${reactive-rates.rsocket.max-streams-per-connection:16}") int maxStreamsPerConnection) {
+        this.service = service;
+        this.jwtService = jwtService;
+        this.validator = validator;
+        this.channelConcurrency = channelConcurrency > 0 ? channelConcurrency : 64;
+        this.maxStreamsPerConnection = maxStreamsPerConnection > 0 ? maxStreamsPerConnection : 16;
+    }
+
+    @ConnectMapping
+    public Mono<Void> connect(@Payload(required = false) String token) {
+        return Mono.fromCallable(() -> {
+                String jwt = token != null && token.startsWith(BEARER_PREFIX) ? token.substring(BEARER_PREFIX.length()) : token;
+                if (!StringUtils.hasText(jwt) || !jwtService.validateToken(jwt)) {
+                    throw new RejectedSetupException("Invalid or missing JWT in setup payload");
+                }
+                return jwtService.extractUsername(jwt);
+            })
+            .doOnNext(username -> log.info("RSocket connection authenticated for {}", username))
+            .doOnError(error -> log.warn("RSocket connection rejected: {}", error.getMessage()))
+            .then();
+    }
+
+    @MessageMapping("rates.convert")
+    public Mono<ConversionResult> convert(ConversionRequest request) {
+        return validate(request).flatMap(service::convertCurrency);
+    }
+
+    @MessageMapping("rates.get")
+    public Mono<ExchangeRate> getExchangeRate(PairRequest pair) {
+        return validate(pair).flatMap(valid -> service.getExchangeRate(valid.from(), valid.to()));
+    }
+
+    /**
+     * Поток сверх лимита соединения сразу завершается ошибкой; место освобождается, когда клиент
+     * отменяет поток или поток завершается
+     */
+    @MessageMapping("rates.stream")
+    public Flux<ExchangeRate> streamExchangeRate(PairRequest pair, RSocketRequester requester) {
+        return validate(pair).flatMapMany(valid -> {
+            if (openStreams.merge(requester, 1, Integer::sum) > maxStreamsPerConnection) {
+                releaseStream(requester);
+                return Flux.error(new IllegalStateException(
+                    "Too many open rate streams on this connection, limit is " + maxStreamsPerConnection));
+            }
+            log.debug("Opening RSocket rate stream for {} -> {}", valid.from(), valid.to());
+            return service.streamExchangeRate(valid.from(), valid.to())
+                .doFinally(signal -> releaseStream(requester));
+        });
+    }
+
+    /**
+     * Ошибка одной конвертации не закрывает канал: на ее месте клиент получает элемент с кодом и
+     * описанием ошибки, а следующие запросы обрабатываются дальше
+     */
+    @MessageMapping("rates.convert.batch")
+    public Flux<BatchResult> convertBatch(Flux<ConversionRequest> requests) {
+        return requests.flatMapSequential(request -> validate(request)
+                .flatMap(service::convertCurrency)
+                .map(result -> BatchResult.success(request, result))
+                .onErrorResume(error -> {
+                    log.debug("Batch conversion of {} failed: {}", request, error.getMessage());
+                    return Mono.just(BatchResult.failure(request, error));
+                }),
+            channelConcurrency);
+    }
+
+    private <T> Mono<T> validate(T request) {
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return Mono.just(request);
+        }
+        String message = violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .collect(Collectors.joining(", "));
+        return Mono.error(new IllegalArgumentException("Invalid request: " + message));
+    }
+
+    private void releaseStream(RSocketRequester requester) {
+        openStreams.computeIfPresent(requester, (key, open) -> open > 1 ? open - 1 : null);
+    }
+
+    /**
+     * @param from Исходная валюта
+     * @param to   Целевая валюта
+     */
+    public record PairRequest(
+        @NotBlank(message = "Source currency code cannot be blank")
+        @Pattern(regexp = "[A-Z]{3}", message = "Currency code must be 3 uppercase letters")
+        String from,
+
+        @NotBlank(message = "Target currency code cannot be blank")
+        @Pattern(regexp = "[A-Z]{3}", message = "Currency code must be 3 uppercase letters")
+        String to
+    ) { }
+
+    /**
+     * Элемент ответа пакетного канала: результат конвертации или ошибка этого запроса
+     *
+     * @param request   Запрос, к которому относится элемент
+     * @param result    Результат конвертации; нет, если запрос завершился ошибкой
+     * @param errorCode Код ошибки, как в REST API
+     * @param error     Описание ошибки для клиента
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record BatchResult(ConversionRequest request, ConversionResult result, String errorCode, String error) {
+
+        static BatchResult success(ConversionRequest request, ConversionResult result) {
+            return new BatchResult(request, result, null, null);
+        }
+
+        /**
+         * Описание внутренних ошибок и ошибок провайдеров клиенту не передается
+         */
+        static BatchResult failure(ConversionRequest request, Throwable error) {
+            if (error instanceof IllegalArgumentException) {
+                return new BatchResult(request, null, "VALIDATION_001", error.getMessage());
+            }
+            if (error instanceof CurrencyNotFoundException) {
+                return new BatchResult(request, null, "CURRENCY_001", error.getMessage());
+            }
+            if (error instanceof ExternalApiException) {
+                return new BatchResult(request, null, "EXT_API_001",
+                    "Currency exchange service temporarily unavailable. Please try again later.");
+            }
+            return new BatchResult(request, null, "INTERNAL_001", "An unexpected error occurred.");
+        }
+    }
+}
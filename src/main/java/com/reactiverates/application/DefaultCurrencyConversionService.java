@@ -2,6 +2,8 @@ package com.reactiverates.application;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,9 +12,15 @@ import org.springframework.stereotype.Service;
 import com.reactiverates.domain.model.ConversionRequest;
 import com.reactiverates.domain.model.ConversionResult;
 import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.model.RateSnapshot;
 import com.reactiverates.domain.service.CurrencyConversionService;
+import com.reactiverates.domain.service.PairPopularity;
+import com.reactiverates.domain.service.RateMatrix;
 import com.reactiverates.domain.service.RateProvider;
+import com.reactiverates.domain.service.RateSnapshots;
+import com.reactiverates.domain.service.RateStream;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
@@ -20,12 +28,26 @@ import reactor.core.publisher.Mono;
 public class DefaultCurrencyConversionService implements CurrencyConversionService {
     private static final Logger log = LoggerFactory.getLogger(DefaultCurrencyConversionService.class);
     private final RateProvider rateProvider;
+    private final RateMatrix rateMatrix;
+    private final PairPopularity pairPopularity;
+    private final RateSnapshots rateSnapshots;
+    private final RateStream rateStream;
 
-    public DefaultCurrencyConversionService(RateProvider rateProvider) {
+    public DefaultCurrencyConversionService(RateProvider rateProvider, RateMatrix rateMatrix, PairPopularity pairPopularity,
+                                            RateSnapshots rateSnapshots, RateStream rateStream) {
         this.rateProvider = rateProvider;
+        this.rateMatrix = rateMatrix;
+        this.pairPopularity = pairPopularity;
+        this.rateSnapshots = rateSnapshots;
+        this.rateStream = rateStream;
         log.info("Initialized with exchange rate provider: {}", rateProvider.getProviderName());
     }
 
+    /**
+     * Если курс пары есть в текущем снимке курсов, конвертация выполняется по нему без обращения
+     * к кэшу и провайдерам, а результат содержит номер снимка. Спрос на пару учитывается
+     * в {@link PairPopularity} при подписке, а не при сборке цепочки
+     */
     @Override
     public Mono<ConversionResult> convertCurrency(ConversionRequest request) {
         log.debug("Converting {} {} to {}", request.amount(), request.fromCurrency(), request.toCurrency());
@@ -34,26 +56,86 @@ public class DefaultCurrencyConversionService implements CurrencyConversionServi
             return Mono.just(createSameCurrencyResult(request));
         }
 
-        return getExchangeRate(request.fromCurrency(), request.toCurrency())
-            .map(rate -> calculateConversion(request, rate))
-            .doOnSuccess(result -> log.debug("Conversion completed: {} {} = {} {}", 
-                request.amount(), request.fromCurrency(), result.convertedAmount(), request.toCurrency()))
-            .doOnError(error -> log.error("Conversion failed for {}: {}", request, error.getMessage()));
+        return Mono.defer(() -> {
+            pairPopularity.record(request.fromCurrency(), request.toCurrency());
+
+            RateSnapshot snapshot = rateSnapshots.current();
+            Optional<ExchangeRate> snapshotRate = findInSnapshot(snapshot, request.fromCurrency(), request.toCurrency());
+            if (snapshotRate.isPresent()) {
+                return Mono.just(calculateConversion(request, snapshotRate.get()).withSnapshotVersion(snapshot.version()));
+            }
+
+            return resolveExchangeRate(request.fromCurrency(), request.toCurrency())
+                .map(rate -> calculateConversion(request, rate))
+                .doOnSuccess(result -> log.debug("Conversion completed: {} {} = {} {}",
+                    request.amount(), request.fromCurrency(), result.convertedAmount(), request.toCurrency()))
+                .doOnError(error -> log.error("Conversion failed for {}: {}", request, error.getMessage()));
+        });
     }
 
+    /**
+     * Сначала ищет курс в текущем снимке курсов, затем в матрице курсов (обратный или
+     * кросс-курс из свежих данных), и только если его нельзя вывести — обращается к провайдеру.
+     * Каждый запрос пары учитывается в {@link PairPopularity}
+     */
     @Override
     public Mono<ExchangeRate> getExchangeRate(String fromCurrency, String toCurrency) {
-        log.debug("Getting exchange rate via {}: {} -> {}", rateProvider.getProviderName(), fromCurrency, toCurrency);
-        return rateProvider.getCurrentRate(fromCurrency, toCurrency);
+        return Mono.defer(() -> {
+            pairPopularity.record(fromCurrency, toCurrency);
+            return resolveExchangeRate(fromCurrency, toCurrency);
+        });
     }
 
+    /**
+     * Проверка поддержки не считается спросом на пару и в {@link PairPopularity} не учитывается
+     */
     @Override
     public Mono<Boolean> isCurrencyPairSupported(String fromCurrency, String toCurrency) {
-        return getExchangeRate(fromCurrency, toCurrency)
+        return Mono.defer(() -> resolveExchangeRate(fromCurrency, toCurrency))
             .map(rate -> true)
             .onErrorReturn(false);
     }
 
+    /**
+     * Все подписчики пары получают курс из одного общего потока, который обновляется независимо
+     * от числа подписчиков. Подписка учитывается в {@link PairPopularity} один раз, а фоновые
+     * обновления потока популярность пары не увеличивают
+     */
+    @Override
+    public Flux<ExchangeRate> streamExchangeRate(String fromCurrency, String toCurrency) {
+        return Flux.defer(() -> {
+            pairPopularity.record(fromCurrency, toCurrency);
+            return rateStream.subscribe(fromCurrency, toCurrency, () -> resolveExchangeRate(fromCurrency, toCurrency));
+        });
+    }
+
+    private Mono<ExchangeRate> resolveExchangeRate(String fromCurrency, String toCurrency) {
+        Optional<ExchangeRate> snapshotRate = findInSnapshot(rateSnapshots.current(), fromCurrency, toCurrency);
+        if (snapshotRate.isPresent()) {
+            return Mono.just(snapshotRate.get());
+        }
+        return rateMatrix.derive(fromCurrency, toCurrency)
+            .map(derived -> {
+                log.debug("Serving {} rate from matrix: {} -> {} = {}, sources: {}",
+                    derived.derivation(), fromCurrency, toCurrency, derived.rate().rate(), derived.sources());
+                return Mono.just(derived.rate());
+            })
+            .orElseGet(() -> {
+                log.debug("Getting exchange rate via {}: {} -> {}", rateProvider.getProviderName(), fromCurrency, toCurrency);
+                return rateProvider.getCurrentRate(fromCurrency, toCurrency);
+            });
+    }
+
+    /**
+     * Курсы старше допустимого возраста снимка пропускаются, и запрос идет в кэш или к провайдеру
+     */
+    private Optional<ExchangeRate> findInSnapshot(RateSnapshot snapshot, String fromCurrency, String toCurrency) {
+        if (snapshot.isEmpty()) {
+            return Optional.empty();
+        }
+        return snapshot.find(fromCurrency, toCurrency, LocalDateTime.now().minus(rateSnapshots.maxAge()));
+    }
+
     private ConversionResult createSameCurrencyResult(ConversionRequest request) {
         ExchangeRate sameCurrencyRate = ExchangeRate.of(request.fromCurrency(), request.toCurrency(), BigDecimal.ONE, "Internal");
         return ConversionResult.of(request, sameCurrencyRate, request.amount());
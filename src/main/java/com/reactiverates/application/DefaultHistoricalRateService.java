@@ -4,6 +4,14 @@ import com.reactiverates.domain.model.HistoricalExchangeRate;
 import com.reactiverates.domain.service.HistoricalRateProvider;
 import com.reactiverates.domain.service.HistoricalRateRepository;
 import com.reactiverates.domain.service.HistoricalRateService;
+import com.reactiverates.domain.service.PairPopularity;
+import com.reactiverates.infrastructure.metrics.Outcome;
+import com.reactiverates.infrastructure.metrics.OutcomeTimers;
+import com.reactiverates.infrastructure.metrics.PairClass;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,12 +33,29 @@ public class DefaultHistoricalRateService implements HistoricalRateService {
 
     private final HistoricalRateRepository repository;
     private final HistoricalRateProvider provider;
+    private final PairPopularity pairPopularity;
+    private final OutcomeTimers requests;
+    private final Counter storedDates;
+    private final Counter fetchedDates;
 
     public DefaultHistoricalRateService(
             HistoricalRateRepository repository,
-            HistoricalRateProvider provider) {
+            HistoricalRateProvider provider,
+            PairPopularity pairPopularity,
+            MeterRegistry meterRegistry) {
         this.repository = repository;
         this.provider = provider;
+        this.pairPopularity = pairPopularity;
+        this.requests = new OutcomeTimers("rates.historical.requests", "Historical rate requests",
+            Tags.empty(), meterRegistry);
+        this.storedDates = Counter.builder("rates.historical.dates")
+            .description("Historical rates served, by where they came from")
+            .tag("source", "repository")
+            .register(meterRegistry);
+        this.fetchedDates = Counter.builder("rates.historical.dates")
+            .description("Historical rates served, by where they came from")
+            .tag("source", "provider")
+            .register(meterRegistry);
         log.info("DefaultHistoricalRatesService initialized with repository: {} and {} historical provider",
                 repository.getClass().getSimpleName(), provider.getProviderName());
     }
@@ -52,28 +77,37 @@ public class DefaultHistoricalRateService implements HistoricalRateService {
         if (startDate.isAfter(LocalDate.now())) {
             return Flux.error(new IllegalArgumentException("Cannot request future dates"));
         }
-        
-        return repository.findByPeriod(fromCurrency, toCurrency, startDate, endDate)
-            .collectList()
-            .flatMapMany(dbRates -> {
-                Set<LocalDate> existingDates = dbRates.stream()
-                    .map(HistoricalExchangeRate::date).collect(Collectors.toSet());
-
-                Set<LocalDate> missingDates = findMissingBusinessDates(startDate, endDate, existingDates);
-
-                Flux<HistoricalExchangeRate> fetchedRates;
-                if (missingDates.isEmpty()) {
-                    log.info("All rates for {}->{} are already in cache.", fromCurrency, toCurrency);
-                    fetchedRates = Flux.empty();
-                }
-                else {
-                    log.info("Fetching {} missing rates for {}->{}", missingDates.size(), fromCurrency, toCurrency);
-                    fetchedRates = fetchAndSaveRates(fromCurrency, toCurrency, missingDates);
-                }
-
-                return Flux.fromIterable(dbRates)
-                    .concatWith(fetchedRates).sort(Comparator.comparing(HistoricalExchangeRate::date));
-            });
+
+        pairPopularity.record(fromCurrency, toCurrency);
+        PairClass pairClass = PairClass.of(fromCurrency, toCurrency);
+        return Flux.defer(() -> {
+            long startedAt = System.nanoTime();
+            return repository.findByPeriod(fromCurrency, toCurrency, startDate, endDate)
+                .collectList()
+                .flatMapMany(dbRates -> {
+                    storedDates.increment(dbRates.size());
+                    Set<LocalDate> existingDates = dbRates.stream()
+                        .map(HistoricalExchangeRate::date).collect(Collectors.toSet());
+
+                    Set<LocalDate> missingDates = findMissingBusinessDates(startDate, endDate, existingDates);
+
+                    Flux<HistoricalExchangeRate> fetchedRates;
+                    if (missingDates.isEmpty()) {
+                        log.info("All rates for {}->{} are already in cache.", fromCurrency, toCurrency);
+                        fetchedRates = Flux.empty();
+                    }
+                    else {
+                        log.info("Fetching {} missing rates for {}->{}", missingDates.size(), fromCurrency, toCurrency);
+                        fetchedRates = fetchAndSaveRates(fromCurrency, toCurrency, missingDates)
+                            .doOnNext(rate -> fetchedDates.increment());
+                    }
+
+                    return Flux.fromIterable(dbRates)
+                        .concatWith(fetchedRates).sort(Comparator.comparing(HistoricalExchangeRate::date));
+                })
+                .doOnComplete(() -> requests.record(pairClass, Outcome.SUCCESS, startedAt))
+                .doOnError(error -> requests.record(pairClass, Outcome.ERROR, startedAt));
+        });
     }
 
     private Flux<HistoricalExchangeRate> fetchAndSaveRates(String from, String to, Set<LocalDate> dates) {
@@ -1,6 +1,7 @@
 // src/main/java/com/reactiverates/domain/model/ConversionResult.java
 package com.reactiverates.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -39,7 +40,16 @@ public record ConversionResult(
         type = "string",
         format = "date-time"
     )
-    LocalDateTime timestamp
+    LocalDateTime timestamp,
+
+    @JsonProperty("snapshotVersion")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(
+        description = "Номер снимка курсов, по которому выполнена конвертация; нет, если курс получен по запросу",
+        example = "42",
+        nullable = true
+    )
+    Long snapshotVersion
 ) {
 
     public static ConversionResult of(
@@ -52,7 +62,15 @@ public record ConversionResult(
             rate.providerName(),
             rate,
             convertedAmount,
-            LocalDateTime.now()
+            LocalDateTime.now(),
+            null
         );
     }
+
+    /**
+     * @return тот же результат с номером снимка курсов, из которого взят курс
+     */
+    public ConversionResult withSnapshotVersion(long snapshotVersion) {
+        return new ConversionResult(request, provider, exchangeRate, convertedAmount, timestamp, snapshotVersion);
+    }
 }
\ No newline at end of file
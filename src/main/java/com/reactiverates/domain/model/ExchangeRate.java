@@ -2,6 +2,7 @@
 package com.reactiverates.domain.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -17,6 +18,7 @@ import java.util.Objects;
  * @param rate         Курс обмена
  * @param timestamp    Время получения курса
  * @param providerName Название провайдера данных
+ * @param validUntil   Когда провайдер опубликует следующий курс; {@code null}, если провайдер не сообщает
  */
 @Schema(description = "Информация о курсе обмена между двумя валютами")
 public record ExchangeRate(
@@ -48,7 +50,18 @@ public record ExchangeRate(
 
     @JsonProperty("provider")
     @Schema(description = "Источник данных о курсе", example = "UniRateAPI")
-    String providerName
+    String providerName,
+
+    @JsonProperty("validUntil")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(
+        description = "Время следующего обновления курса у провайдера",
+        example = "2024-01-16T00:00:00",
+        type = "string",
+        format = "date-time",
+        nullable = true
+    )
+    LocalDateTime validUntil
 ) {
     
     @JsonCreator
@@ -62,6 +75,11 @@ public record ExchangeRate(
             throw new IllegalArgumentException("Exchange rate must be positive");
         }
     }
+
+    public ExchangeRate(Currency fromCurrency, Currency toCurrency, BigDecimal rate, LocalDateTime timestamp,
+                        String providerName) {
+        this(fromCurrency, toCurrency, rate, timestamp, providerName, null);
+    }
     
     public static ExchangeRate of(Currency from, Currency to, BigDecimal rate, String providerName) {
         return new ExchangeRate(from, to, rate, LocalDateTime.now(), providerName);
@@ -0,0 +1,107 @@
+package com.reactiverates.domain.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Неизменяемый снимок курсов, собранный из полных таблиц нескольких базовых валют.
+ * <p>
+ * Снимок публикуется целиком и больше не меняется, поэтому читается из любого потока без
+ * блокировок. Курс пары берется из таблицы исходной валюты, выводится как обратный из таблицы
+ * целевой или как кросс-курс через базу, в таблице которой есть обе валюты.
+ *
+ * @param version   Номер снимка; растет с каждой публикацией, {@code 0} — снимка еще нет
+ * @param createdAt Время сборки снимка
+ * @param tables    Курсы по базовой валюте: база -> (целевая валюта -> курс)
+ */
+public record RateSnapshot(
+    long version,
+    LocalDateTime createdAt,
+    Map<String, Map<String, ExchangeRate>> tables
+) {
+    public static final RateSnapshot EMPTY = new RateSnapshot(0, LocalDateTime.MIN, Map.of());
+
+    private static final MathContext DERIVED_PRECISION = new MathContext(12, RoundingMode.HALF_EVEN);
+
+    public RateSnapshot {
+        Map<String, Map<String, ExchangeRate>> copy = new LinkedHashMap<>();
+        tables.forEach((base, table) -> copy.put(base, Map.copyOf(table)));
+        tables = Map.copyOf(copy);
+    }
+
+    public boolean isEmpty() {
+        return version == 0;
+    }
+
+    public int size() {
+        return tables.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * @return курс пары из снимка или пусто, если его нельзя получить из таблиц снимка
+     */
+    public Optional<ExchangeRate> find(String fromCurrency, String toCurrency) {
+        return find(fromCurrency, toCurrency, LocalDateTime.MIN);
+    }
+
+    /**
+     * @param fetchedAfter курсы, полученные раньше этого времени, не используются
+     * @return курс пары из достаточно свежих курсов снимка или пусто
+     */
+    public Optional<ExchangeRate> find(String fromCurrency, String toCurrency, LocalDateTime fetchedAfter) {
+        Map<String, ExchangeRate> fromTable = tables.get(fromCurrency);
+        if (fromTable != null) {
+            ExchangeRate direct = fresh(fromTable.get(toCurrency), fetchedAfter);
+            if (direct != null) {
+                return Optional.of(direct);
+            }
+        }
+
+        Map<String, ExchangeRate> toTable = tables.get(toCurrency);
+        if (toTable != null) {
+            ExchangeRate inverse = fresh(toTable.get(fromCurrency), fetchedAfter);
+            if (inverse != null) {
+                return Optional.of(new ExchangeRate(inverse.toCurrency(), inverse.fromCurrency(),
+                    BigDecimal.ONE.divide(inverse.rate(), DERIVED_PRECISION), inverse.timestamp(),
+                    inverse.providerName() + " (inverse)", inverse.validUntil()));
+            }
+        }
+
+        for (Map.Entry<String, Map<String, ExchangeRate>> table : tables.entrySet()) {
+            ExchangeRate firstLeg = fresh(table.getValue().get(fromCurrency), fetchedAfter);
+            ExchangeRate secondLeg = firstLeg == null ? null : fresh(table.getValue().get(toCurrency), fetchedAfter);
+            if (secondLeg == null) {
+                continue;
+            }
+            LocalDateTime timestamp = earlier(firstLeg.timestamp(), secondLeg.timestamp());
+            String providers = firstLeg.providerName().equals(secondLeg.providerName())
+                ? firstLeg.providerName()
+                : firstLeg.providerName() + " + " + secondLeg.providerName();
+            return Optional.of(new ExchangeRate(firstLeg.toCurrency(), secondLeg.toCurrency(),
+                secondLeg.rate().divide(firstLeg.rate(), DERIVED_PRECISION), timestamp,
+                providers + " (cross via " + table.getKey() + ")",
+                earlier(firstLeg.validUntil(), secondLeg.validUntil())));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Раннее из двух времен; {@code null} означает, что время неизвестно, и уступает известному
+     */
+    private static LocalDateTime earlier(LocalDateTime first, LocalDateTime second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static ExchangeRate fresh(ExchangeRate rate, LocalDateTime fetchedAfter) {
+        return rate != null && !rate.timestamp().isBefore(fetchedAfter) ? rate : null;
+    }
+}
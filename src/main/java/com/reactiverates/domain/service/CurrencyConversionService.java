@@ -4,6 +4,7 @@ import com.reactiverates.domain.model.ConversionRequest;
 import com.reactiverates.domain.model.ConversionResult;
 import com.reactiverates.domain.model.ExchangeRate;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
@@ -33,4 +34,13 @@ public interface CurrencyConversionService {
      * @return true если пара поддерживается
      */
     Mono<Boolean> isCurrencyPairSupported(String fromCurrency, String toCurrency);
+
+    /**
+     * Подписывается на изменения курса между двумя валютами
+     *
+     * @param fromCurrency исходная валюта
+     * @param toCurrency целевая валюта
+     * @return бесконечный поток курсов: текущий курс и далее каждое заметное изменение
+     */
+    Flux<ExchangeRate> streamExchangeRate(String fromCurrency, String toCurrency);
 }
@@ -16,6 +16,20 @@ public interface HistoricalRateProvider {
         LocalDate endDate
     );
     
+    /**
+     * Исторические курсы базовой валюты сразу к нескольким целевым валютам.
+     * Реализация по умолчанию запрашивает каждую целевую валюту отдельно.
+     */
+    default Flux<HistoricalExchangeRate> getHistoricalRatesForTargets(
+        String fromCurrency,
+        Set<String> toCurrencies,
+        LocalDate startDate,
+        LocalDate endDate
+    ) {
+        return Flux.fromIterable(toCurrencies)
+            .concatMap(toCurrency -> getHistoricalRates(fromCurrency, toCurrency, startDate, endDate));
+    }
+
     Flux<HistoricalExchangeRate> getHistoricalRatesForDates(
         String fromCurrency, 
         String toCurrency, 
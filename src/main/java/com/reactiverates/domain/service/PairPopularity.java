@@ -0,0 +1,41 @@
+package com.reactiverates.domain.service;
+
+import java.util.List;
+
+/**
+ * Частота запросов валютных пар.
+ * <p>
+ * Учитывает пары, которые реально запрашивают клиенты, и позволяет другим компонентам
+ * (прогрев, обновление кэша, подбор TTL) узнать самые востребованные из них.
+ * Оценки приблизительные и со временем затухают, поэтому отражают недавнюю нагрузку.
+ */
+public interface PairPopularity {
+    /**
+     * Учитывает один запрос пары; вызывается на пути запроса и не должен блокировать
+     */
+    void record(String fromCurrency, String toCurrency);
+
+    /**
+     * @return оценка числа недавних запросов пары; не меньше истинного значения
+     */
+    long estimate(String fromCurrency, String toCurrency);
+
+    /**
+     * @param limit максимальное число пар
+     * @return самые востребованные пары в порядке убывания частоты
+     */
+    List<PairFrequency> topPairs(int limit);
+
+    /**
+     * @param fromCurrency  Исходная валюта
+     * @param toCurrency    Целевая валюта
+     * @param count         Оценка числа недавних запросов
+     * @param ratePerSecond Оценка числа запросов в секунду
+     */
+    record PairFrequency(
+        String fromCurrency,
+        String toCurrency,
+        long count,
+        double ratePerSecond
+    ) { }
+}
@@ -1,21 +1,61 @@
 package com.reactiverates.domain.service;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
 import com.reactiverates.domain.model.ExchangeRate;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface RateCache {
     Mono<ExchangeRate> getRate(String fromCurrency, String toCurrency);
     Mono<Void> putRate(ExchangeRate rate);
+
+    /**
+     * Курсы базовой валюты к нескольким целевым валютам; отсутствующие в кэше пары пропускаются.
+     * Реализация по умолчанию читает каждую пару отдельно.
+     */
+    default Flux<ExchangeRate> getRates(String baseCurrency, Set<String> targetCurrencies) {
+        return Flux.fromIterable(targetCurrencies)
+            .flatMap(target -> getRate(baseCurrency, target));
+    }
+
+    /**
+     * Сохраняет сразу несколько курсов, например всю таблицу одной базовой валюты
+     */
+    default Mono<Void> putRates(Collection<ExchangeRate> rates) {
+        return Flux.fromIterable(rates)
+            .flatMap(this::putRate)
+            .then();
+    }
+
+    /**
+     * Заменяет таблицу базовой валюты целиком, полученную от провайдера одним запросом.
+     * Реализация по умолчанию сохраняет курсы так же, как {@link #putRates(Collection)}.
+     */
+    default Mono<Void> putTable(String baseCurrency, Collection<ExchangeRate> table) {
+        return putRates(table);
+    }
+
     Mono<Void> clearAll();
     Mono<Void> evict(String fromCurrency, String toCurrency);
     Mono<CacheStats> getStats();
 
+    /**
+     * @param tiers статистика отдельных уровней многоуровневого кэша; пуста для одноуровневых кэшей
+     */
     record CacheStats(
         long hitCount,
         long missCount,
         long evictionCount,
         long estimatedSize,
-        double hitRate
-    ) { }
+        double hitRate,
+        Map<String, CacheStats> tiers
+    ) {
+        public CacheStats(long hitCount, long missCount, long evictionCount, long estimatedSize, double hitRate) {
+            this(hitCount, missCount, evictionCount, estimatedSize, hitRate, Map.of());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.reactiverates.domain.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.reactiverates.domain.model.ExchangeRate;
+
+/**
+ * Матрица курсов в памяти.
+ * <p>
+ * Хранит курсы, полученные от провайдеров, и выводит из них обратные и кросс-курсы
+ * (A -> B = A -> USD × USD -> B) без обращения к сети.
+ */
+public interface RateMatrix {
+    /**
+     * Записывает курс, полученный от провайдера
+     */
+    void update(ExchangeRate rate);
+
+    default void updateAll(Collection<ExchangeRate> rates) {
+        rates.forEach(this::update);
+    }
+
+    /**
+     * Выводит обратный или кросс-курс, если все исходные курсы еще свежие. Пару, курс которой
+     * провайдер уже отдавал напрямую, не выводит: такой курс нужно брать из кэша
+     *
+     * @param fromCurrency исходная валюта
+     * @param toCurrency   целевая валюта
+     * @return курс и курсы провайдеров, из которых он получен
+     */
+    Optional<DerivedRate> derive(String fromCurrency, String toCurrency);
+
+    enum Derivation {
+        INVERSE, CROSS
+    }
+
+    /**
+     * @param rate       Итоговый курс
+     * @param derivation Способ получения
+     * @param sources    Курсы провайдеров, из которых получен итоговый курс
+     */
+    record DerivedRate(
+        ExchangeRate rate,
+        Derivation derivation,
+        List<ExchangeRate> sources
+    ) { }
+}
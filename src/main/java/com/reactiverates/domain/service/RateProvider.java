@@ -1,7 +1,10 @@
 package com.reactiverates.domain.service;
 
+import java.util.Set;
+
 import com.reactiverates.domain.model.ExchangeRate;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface RateProvider {
@@ -14,6 +17,24 @@ public interface RateProvider {
      */
     Mono<ExchangeRate> getCurrentRate(String fromCurrency, String toCurrency);
 
+    /**
+     * Получает курсы от одной базовой валюты сразу к нескольким целевым.
+     * <p>
+     * Провайдеры, которые получают всю таблицу курсов одним запросом, переопределяют
+     * этот метод. Реализация по умолчанию запрашивает каждую пару отдельно и не умеет
+     * перечислять валюты, поэтому для пустого множества возвращает пустой поток.
+     *
+     * @param baseCurrency     Базовая валюта
+     * @param targetCurrencies Целевые валюты; пустое множество означает все валюты, известные провайдеру
+     * @return Flux с курсами; пары, которые не удалось получить, пропускаются
+     */
+    default Flux<ExchangeRate> getCurrentRates(String baseCurrency, Set<String> targetCurrencies) {
+        return Flux.fromIterable(targetCurrencies)
+            .filter(target -> !target.equals(baseCurrency))
+            .flatMap(target -> getCurrentRate(baseCurrency, target)
+                .onErrorResume(err -> Mono.empty()));
+    }
+
     /**
      * Проверяет доступность провайдера
      * 
@@ -0,0 +1,25 @@
+package com.reactiverates.domain.service;
+
+import java.time.Duration;
+
+import com.reactiverates.domain.model.RateSnapshot;
+
+/**
+ * Источник опубликованных снимков курсов.
+ * <p>
+ * Снимки обновляются в фоне по расписанию, а запросы читают последний опубликованный,
+ * поэтому время ответа не зависит от времени ответа провайдеров.
+ */
+public interface RateSnapshots {
+    /**
+     * Возвращает последний опубликованный снимок; не блокирует
+     *
+     * @return снимок или {@link RateSnapshot#EMPTY}, если режим снимков выключен или снимок еще не собран
+     */
+    RateSnapshot current();
+
+    /**
+     * Курсы снимка, полученные раньше этого срока, не отдаются, даже если новый снимок еще не собран
+     */
+    Duration maxAge();
+}
@@ -0,0 +1,27 @@
+package com.reactiverates.domain.service;
+
+import java.util.function.Supplier;
+
+import com.reactiverates.domain.model.ExchangeRate;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Поток изменений курсов валютных пар.
+ * <p>
+ * Все подписчики одной пары получают курсы из одного общего источника: сколько бы клиентов
+ * ни следило за парой, курс обновляется одним запросом за интервал.
+ */
+public interface RateStream {
+    /**
+     * Подписывается на изменения курса пары. Новый подписчик сразу получает последний известный курс.
+     * Медленный подписчик получает только последний курс, промежуточные пропускаются.
+     *
+     * @param fromCurrency исходная валюта
+     * @param toCurrency   целевая валюта
+     * @param refresh      запрос текущего курса; выполняется по расписанию, пока у пары есть подписчики
+     * @return бесконечный поток курсов, отличающихся от предыдущего больше чем на допуск
+     */
+    Flux<ExchangeRate> subscribe(String fromCurrency, String toCurrency, Supplier<Mono<ExchangeRate>> refresh);
+}
@@ -0,0 +1,165 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reactiverates.domain.model.ExchangeRate;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * TTL, подстраиваемый под волатильность пары.
+ * <p>
+ * Для каждой пары ведется экспоненциальное среднее относительного изменения курса в секунду
+ * между соседними получениями от провайдера. TTL — время, за которое курс при такой скорости
+ * изменится на {@code tolerance}, в пределах {@code [minTtl, maxTtl]}: стабильные и привязанные
+ * пары хранятся дольше, волатильные — меньше. Пока изменений наблюдалось меньше {@code minSamples},
+ * используется TTL по умолчанию. Для отдельных пар TTL можно задать явно.
+ */
+public class AdaptiveTtlPolicy implements RateTtlPolicy {
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveTtlPolicy.class);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final long MAX_TRACKED_PAIRS = 10_000;
+
+    private final Duration defaultTtl;
+    private final Duration minTtl;
+    private final Duration maxTtl;
+    private final double tolerance;
+    private final double alpha;
+    private final int minSamples;
+    private final Map<String, Duration> overrides;
+    private final Duration longestTtl;
+    private final Cache<String, Volatility> history;
+    private final DistributionSummary effectiveTtl;
+
+    /**
+     * @param overrides TTL отдельных пар; ключи вида {@code USD-EUR}, {@code USD->EUR} или {@code USDEUR}
+     */
+    public AdaptiveTtlPolicy(Duration defaultTtl, Duration minTtl, Duration maxTtl, double tolerance, double alpha,
+                             int minSamples, Map<String, Duration> overrides, MeterRegistry meterRegistry) {
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+        this.defaultTtl = clamp(defaultTtl);
+        this.tolerance = tolerance;
+        this.alpha = alpha;
+        this.minSamples = minSamples;
+        this.overrides = normalize(overrides);
+        this.longestTtl = this.overrides.values().stream().reduce(maxTtl, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        this.history = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_PAIRS)
+            .expireAfterAccess(Duration.ofDays(1))
+            .build();
+        this.effectiveTtl = DistributionSummary.builder("rates.cache.ttl.effective")
+            .description("TTL assigned to freshly fetched rates")
+            .baseUnit("seconds")
+            .publishPercentileHistogram()
+            .minimumExpectedValue((double) minTtl.toSeconds())
+            .maximumExpectedValue((double) longestTtl.toSeconds())
+            .register(meterRegistry);
+
+        log.info("Initialized AdaptiveTtlPolicy with default TTL: {}, bounds: [{}, {}], tolerance: {}, overrides: {}",
+            this.defaultTtl, minTtl, maxTtl, tolerance, this.overrides);
+    }
+
+    @Override
+    public Duration ttl(ExchangeRate rate) {
+        String key = key(rate);
+        Duration override = overrides.get(key);
+        if (override != null) {
+            return override;
+        }
+
+        Volatility volatility = history.getIfPresent(key);
+        return volatility != null ? volatility.ttl() : defaultTtl;
+    }
+
+    @Override
+    public Duration maxTtl() {
+        return longestTtl;
+    }
+
+    /**
+     * Повторная запись того же курса, например в следующий уровень кэша, не считается новым замером
+     */
+    @Override
+    public void observe(ExchangeRate rate) {
+        long fetchedAt = rate.timestamp().atZone(ZONE).toInstant().toEpochMilli();
+        Volatility volatility = history.get(key(rate), key -> new Volatility());
+        if (volatility.observe(rate.rate().doubleValue(), fetchedAt)) {
+            effectiveTtl.record(ttl(rate).toMillis() / 1000.0);
+        }
+    }
+
+    private Duration clamp(Duration ttl) {
+        if (ttl.compareTo(minTtl) < 0) {
+            return minTtl;
+        }
+        return ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+    }
+
+    private static String key(ExchangeRate rate) {
+        return rate.fromCurrency().code() + "->" + rate.toCurrency().code();
+    }
+
+    private static Map<String, Duration> normalize(Map<String, Duration> overrides) {
+        Map<String, Duration> normalized = new HashMap<>();
+        overrides.forEach((pair, ttl) -> {
+            String letters = pair.toUpperCase(Locale.ROOT).replaceAll("[^A-Z]", "");
+            if (letters.length() == 6) {
+                normalized.put(letters.substring(0, 3) + "->" + letters.substring(3), ttl);
+            } else {
+                log.warn("Ignoring TTL override for malformed pair '{}'", pair);
+            }
+        });
+        return Map.copyOf(normalized);
+    }
+
+    /**
+     * История курса одной пары
+     */
+    private final class Volatility {
+        private double lastRate = Double.NaN;
+        private long lastFetchedAt;
+        private double changePerSecond;
+        private int samples;
+        private volatile Duration ttl = defaultTtl;
+
+        synchronized boolean observe(double rate, long fetchedAt) {
+            if (Double.isNaN(lastRate) || lastRate == 0.0) {
+                lastRate = rate;
+                lastFetchedAt = fetchedAt;
+                return true;
+            }
+            if (fetchedAt <= lastFetchedAt) {
+                return false;
+            }
+
+            double seconds = (fetchedAt - lastFetchedAt) / 1000.0;
+            double sample = Math.abs(rate - lastRate) / Math.abs(lastRate) / seconds;
+            changePerSecond = samples == 0 ? sample : changePerSecond + alpha * (sample - changePerSecond);
+            samples++;
+            lastRate = rate;
+            lastFetchedAt = fetchedAt;
+
+            if (samples >= minSamples) {
+                ttl = changePerSecond > 0
+                    ? clamp(Duration.ofMillis((long) Math.min(Long.MAX_VALUE / 2.0, tolerance / changePerSecond * 1000)))
+                    : maxTtl;
+            }
+            return true;
+        }
+
+        Duration ttl() {
+            return ttl;
+        }
+    }
+}
@@ -1,12 +1,27 @@
 package com.reactiverates.infrastructure.cache;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
 import com.reactiverates.domain.model.ExchangeRate;
 import com.reactiverates.domain.service.RateCache;
+import com.reactiverates.domain.service.RateMatrix;
 import com.reactiverates.domain.service.RateProvider;
+import com.reactiverates.infrastructure.metrics.Outcome;
+import com.reactiverates.infrastructure.metrics.OutcomeTimers;
+import com.reactiverates.infrastructure.metrics.PairClass;
+import com.reactiverates.infrastructure.stream.RateStreamHub;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CachedRateProvider implements RateProvider {
@@ -14,34 +29,198 @@ public class CachedRateProvider implements RateProvider {
 
     private final RateProvider delegate;
     private final RateCache cache;
+    private final RateMatrix rateMatrix;
+    private final RefreshAheadPolicy refreshAheadPolicy;
+    private final NegativeRateCache negativeCache;
+    private final RateStreamHub rateStream;
+    private final SingleFlight<String, ExchangeRate> rateFlights;
+    private final SingleFlight<String, List<ExchangeRate>> tableFlights;
+    private final OutcomeTimers rateLookups;
+    private final OutcomeTimers tableLookups;
+
+    public CachedRateProvider(RateProvider delegate, RateCache cache, RateMatrix rateMatrix,
+                              RefreshAheadPolicy refreshAheadPolicy, MeterRegistry meterRegistry) {
+        this(delegate, cache, rateMatrix, refreshAheadPolicy, NegativeRateCache.disabled(), meterRegistry);
+    }
 
-    public CachedRateProvider(RateProvider delegate, RateCache cache) {
+    public CachedRateProvider(RateProvider delegate, RateCache cache, RateMatrix rateMatrix,
+                              RefreshAheadPolicy refreshAheadPolicy, NegativeRateCache negativeCache,
+                              MeterRegistry meterRegistry) {
+        this(delegate, cache, rateMatrix, refreshAheadPolicy, negativeCache, RateStreamHub.disabled(), meterRegistry);
+    }
+
+    /**
+     * Курсы, загруженные от провайдера, передаются подписчикам {@code rateStream}
+     */
+    public CachedRateProvider(RateProvider delegate, RateCache cache, RateMatrix rateMatrix,
+                              RefreshAheadPolicy refreshAheadPolicy, NegativeRateCache negativeCache,
+                              RateStreamHub rateStream, MeterRegistry meterRegistry) {
         this.delegate = delegate;
         this.cache = cache;
+        this.rateMatrix = rateMatrix;
+        this.refreshAheadPolicy = refreshAheadPolicy;
+        this.negativeCache = negativeCache;
+        this.rateStream = rateStream;
+        this.rateFlights = new SingleFlight<>("rate", meterRegistry);
+        this.tableFlights = new SingleFlight<>("table", meterRegistry);
+        this.rateLookups = new OutcomeTimers("rates.cache.lookups", "Rate lookups through the cache",
+            Tags.of("operation", "rate"), meterRegistry);
+        this.tableLookups = new OutcomeTimers("rates.cache.lookups", "Rate lookups through the cache",
+            Tags.of("operation", "table"), meterRegistry);
     }
 
+    /**
+     * Время ответа учитывается в {@code rates.cache.lookups} с результатом hit, refresh, miss или error.
+     * Пара из кэша неудачных запросов сразу получает прежнюю ошибку без обращения к провайдерам.
+     */
     @Override
     public Mono<ExchangeRate> getCurrentRate(String fromCurrency, String toCurrency) {
         String cacheKey = createCacheKey(fromCurrency, toCurrency);
+        PairClass pairClass = PairClass.of(fromCurrency, toCurrency);
 
-        return cache.getRate(fromCurrency, toCurrency)
-            .doOnNext(cachedRate -> log.debug("Cache HIT for {}: {}", cacheKey, cachedRate.rate()))
-            .switchIfEmpty(
-                fetchAndCache(fromCurrency, toCurrency, cacheKey)
-            );
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return cache.getRate(fromCurrency, toCurrency)
+                .doOnNext(cachedRate -> log.debug("Cache HIT for {}: {}", cacheKey, cachedRate.rate()))
+                .doOnNext(rateMatrix::update)
+                .doOnNext(cachedRate -> {
+                    if (refreshAheadPolicy.shouldRefresh(cachedRate)) {
+                        refreshInBackground(cacheKey, fetchAndCache(fromCurrency, toCurrency, cacheKey));
+                        rateLookups.record(pairClass, Outcome.REFRESH, startedAt);
+                    } else {
+                        rateLookups.record(pairClass, Outcome.HIT, startedAt);
+                    }
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    RuntimeException knownFailure = negativeCache.lookup(fromCurrency, toCurrency, cacheKey);
+                    if (knownFailure != null) {
+                        return Mono.error(knownFailure);
+                    }
+                    return fetchAndCache(fromCurrency, toCurrency, cacheKey)
+                        .doOnNext(rate -> rateLookups.record(pairClass, Outcome.MISS, startedAt));
+                }))
+                .doOnError(error -> rateLookups.record(pairClass, Outcome.ERROR, startedAt));
+        });
     }
-    
+
+    @Override
+    public Flux<ExchangeRate> getCurrentRates(String baseCurrency, Set<String> targetCurrencies) {
+        if (targetCurrencies.isEmpty()) {
+            return fetchAndCacheTable(baseCurrency).flatMapIterable(rates -> rates);
+        }
+
+        return Flux.defer(() -> {
+            long startedAt = System.nanoTime();
+            return cache.getRates(baseCurrency, targetCurrencies)
+                .doOnNext(rateMatrix::update)
+                .collectList()
+                .flatMapMany(cachedRates -> {
+                    boolean refresh = cachedRates.stream().anyMatch(refreshAheadPolicy::shouldRefresh);
+                    if (refresh) {
+                        refreshInBackground(baseCurrency, fetchAndCacheTable(baseCurrency));
+                    }
+
+                    Set<String> missing = new HashSet<>(targetCurrencies);
+                    missing.remove(baseCurrency);
+                    cachedRates.forEach(rate -> missing.remove(rate.toCurrency().code()));
+                    if (missing.isEmpty()) {
+                        log.debug("Cache HIT for all {} targets of base {}", cachedRates.size(), baseCurrency);
+                        tableLookups.record(PairClass.TABLE, refresh ? Outcome.REFRESH : Outcome.HIT, startedAt);
+                        return Flux.fromIterable(cachedRates);
+                    }
+
+                    log.debug("Cache MISS for {} of {} targets of base {}", missing.size(), targetCurrencies.size(), baseCurrency);
+                    Flux<ExchangeRate> fetched = fetchAndCacheTable(baseCurrency)
+                        .flatMap(table -> fetchRemaining(baseCurrency, missing, table))
+                        .doOnSuccess(table -> tableLookups.record(PairClass.TABLE, Outcome.MISS, startedAt))
+                        .flatMapIterable(rates -> rates)
+                        .filter(rate -> missing.contains(rate.toCurrency().code()));
+                    return Flux.fromIterable(cachedRates).concatWith(fetched);
+                })
+                .doOnError(error -> tableLookups.record(PairClass.TABLE, Outcome.ERROR, startedAt));
+        });
+    }
+
     private String createCacheKey(String from, String to) {
         return from + "->" + to;
     }
 
+    /**
+     * При промахе сначала запрашивается вся таблица базовой валюты: один запрос к провайдеру
+     * заполняет кэш для всех пар с этой базой. Отдельно курс запрашивается, только если провайдер
+     * ответил, но нужной валюты в таблице нет; ошибка загрузки таблицы возвращается сразу,
+     * без второго запроса к провайдеру. Неизвестная провайдерам базовая валюта приходит как
+     * {@link CurrencyNotFoundException} и запоминается как неподдерживаемая пара.
+     * <p>
+     * Одновременные промахи по одной паре объединяются в один запрос к провайдеру.
+     */
     private Mono<ExchangeRate> fetchAndCache(String fromCurrency, String toCurrency, String cacheKey) {
+        return rateFlights.execute(cacheKey, () -> loadAndCache(fromCurrency, toCurrency, cacheKey)
+            .doOnNext(rate -> negativeCache.invalidate(cacheKey))
+            .doOnError(error -> negativeCache.record(cacheKey, error)));
+    }
+
+    private Mono<ExchangeRate> loadAndCache(String fromCurrency, String toCurrency, String cacheKey) {
         log.debug("Cache MISS for {}, fetching from provider: {}", cacheKey, delegate.getProviderName());
-        
-        return delegate.getCurrentRate(fromCurrency, toCurrency)
-            .flatMap(rate -> cache.putRate(rate)
-                .thenReturn(rate)
-                .doOnSuccess(r -> log.debug("Cached rate for {}: {}", cacheKey, r.rate())));
+        long startedAt = System.nanoTime();
+
+        return fetchAndCacheTable(fromCurrency)
+            .flatMap(table -> Mono.justOrEmpty(table.stream()
+                .filter(rate -> rate.toCurrency().code().equals(toCurrency))
+                .findFirst()))
+            .switchIfEmpty(Mono.defer(() -> delegate.getCurrentRate(fromCurrency, toCurrency)
+                .doOnNext(rateMatrix::update)
+                .doOnNext(rateStream::publish)
+                .flatMap(rate -> cache.putRate(rate)
+                    .thenReturn(rate)
+                    .doOnSuccess(r -> log.debug("Cached rate for {}: {}", cacheKey, r.rate())))))
+            .doOnNext(rate -> refreshAheadPolicy.recordFetchLatency(Duration.ofNanos(System.nanoTime() - startedAt)));
+    }
+
+    /**
+     * Запускает обновление устаревшего курса, не задерживая ответ из кэша.
+     * Повторные вызовы во время обновления присоединяются к уже идущему запросу.
+     */
+    private void refreshInBackground(String key, Mono<?> refresh) {
+        log.debug("Refreshing {} ahead of expiry", key);
+        refresh.subscribe(
+            result -> { },
+            throwable -> log.warn("Background refresh failed for {}: {}", key, throwable.getMessage()));
+    }
+
+    private Mono<List<ExchangeRate>> fetchAndCacheTable(String baseCurrency) {
+        return tableFlights.execute(baseCurrency, () -> loadAndCacheTable(baseCurrency));
+    }
+
+    private Mono<List<ExchangeRate>> loadAndCacheTable(String baseCurrency) {
+        return delegate.getCurrentRates(baseCurrency, Set.of())
+            .collectList()
+            .doOnNext(rateMatrix::updateAll)
+            .doOnNext(rateStream::publishAll)
+            .flatMap(table -> table.isEmpty()
+                ? Mono.just(table)
+                : cache.putTable(baseCurrency, table)
+                    .thenReturn(table)
+                    .doOnSuccess(t -> log.debug("Cached {} rates for base {}", t.size(), baseCurrency)));
+    }
+
+    private Mono<List<ExchangeRate>> fetchRemaining(String baseCurrency, Set<String> missing, List<ExchangeRate> table) {
+        Set<String> remaining = new HashSet<>(missing);
+        table.forEach(rate -> remaining.remove(rate.toCurrency().code()));
+        if (remaining.isEmpty()) {
+            return Mono.just(table);
+        }
+
+        return delegate.getCurrentRates(baseCurrency, remaining)
+            .collectList()
+            .doOnNext(rateMatrix::updateAll)
+            .doOnNext(rateStream::publishAll)
+            .flatMap(rates -> cache.putRates(rates).thenReturn(rates))
+            .map(rates -> {
+                List<ExchangeRate> combined = new ArrayList<>(table);
+                combined.addAll(rates);
+                return combined;
+            });
     }
 
     @Override
@@ -57,5 +236,5 @@ public class CachedRateProvider implements RateProvider {
     @Override
     public int getPriority() {
         return delegate.getPriority();
-    }    
+    }
 }
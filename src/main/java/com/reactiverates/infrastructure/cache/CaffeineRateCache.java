@@ -1,65 +1,119 @@
 package com.reactiverates.infrastructure.cache;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.reactiverates.domain.model.ExchangeRate;
 import com.reactiverates.domain.service.RateCache;
 
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
+/**
+ * Локальный кэш курсов на Caffeine.
+ * <p>
+ * Обращения к Caffeine неблокирующие, поэтому выполняются в потоке вызывающего без переключения
+ * на другой планировщик. Ключ — пара кодов валют, упакованная в int; значение хранит готовый
+ * {@code Mono} с курсом и момент, до которого курс можно отдавать. Попадание в кэш не выделяет
+ * память: для поиска используется переиспользуемый ключ потока, а курс не проверяется через
+ * {@code LocalDateTime.now()}.
+ * <p>
+ * {@link #getRate} обращается к кэшу при вызове, а не при подписке, и возвращает уже готовый результат.
+ * <p>
+ * Срок жизни каждой записи задает {@link RateTtlPolicy}, поэтому разные пары могут храниться по-разному.
+ * <p>
+ * Попадания и промахи считаются собственными счетчиками: статистика Caffeine засчитывает попадание
+ * и для записи, срок курса в которой уже истек, хотя {@link #getRate} ее не отдает.
+ */
 public class CaffeineRateCache implements RateCache {
     private static final Logger log = LoggerFactory.getLogger(CaffeineRateCache.class);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
 
-    private final Cache<String, ExchangeRate> cache;
-    private final Duration cacheTtl;
+    private static final ThreadLocal<PairKey> LOOKUP_KEY = ThreadLocal.withInitial(PairKey::new);
+
+    private final Cache<PairKey, Entry> cache;
+    private final RateTtlPolicy ttlPolicy;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
 
     public CaffeineRateCache(Duration cacheTtl, long maxSize) {
-        this.cacheTtl = cacheTtl;
+        this(cacheTtl, cacheTtl, maxSize);
+    }
+
+    /**
+     * @param cacheTtl         максимальный возраст курса, который может быть отдан из кэша
+     * @param expireAfterWrite сколько запись живет в кэше после записи; может быть короче {@code cacheTtl},
+     *                         когда кэш служит локальным уровнем перед общим хранилищем
+     */
+    public CaffeineRateCache(Duration cacheTtl, Duration expireAfterWrite, long maxSize) {
+        this(RateTtlPolicy.fixed(cacheTtl), expireAfterWrite, maxSize);
+    }
+
+    /**
+     * @param ttlPolicy        срок, в течение которого курс пары может быть отдан из кэша
+     * @param expireAfterWrite наибольшее время жизни записи независимо от {@code ttlPolicy}
+     */
+    public CaffeineRateCache(RateTtlPolicy ttlPolicy, Duration expireAfterWrite, long maxSize) {
+        this.ttlPolicy = ttlPolicy;
         this.cache = Caffeine.newBuilder()
             .maximumSize(maxSize)
-            .expireAfterWrite(cacheTtl)
+            .expireAfter(new EntryExpiry(expireAfterWrite.toNanos()))
             .recordStats()
             .build();
 
-        log.info("Initialized CaffeineRateCache with TTL: {}, max size: {}", cacheTtl, maxSize);
+        log.info("Initialized CaffeineRateCache with TTL: {}, expire after write: {}, max size: {}",
+            ttlPolicy, expireAfterWrite, maxSize);
     }
 
     @Override
     public Mono<ExchangeRate> getRate(String fromCurrency, String toCurrency) {
-        return Mono.fromCallable(() -> {
-            String key = createKey(fromCurrency, toCurrency);
-            ExchangeRate cachedRate = cache.getIfPresent(key);
-
-            if (cachedRate != null && isRateValid(cachedRate)) {
-                return cachedRate;
-            }
-
-            if (cachedRate != null) {
-                cache.invalidate(key);
-                log.debug("Evicted expired rate for {}", key);
-            }
-
-            return null;
-        })
-        .subscribeOn(Schedulers.boundedElastic())
-        .filter(rate -> rate != null);
+        PairKey key = LOOKUP_KEY.get().set(fromCurrency, toCurrency);
+        Entry entry = cache.getIfPresent(key);
+
+        if (entry == null) {
+            missCount.increment();
+            return Mono.empty();
+        }
+        if (System.currentTimeMillis() < entry.validUntil()) {
+            hitCount.increment();
+            return entry.mono();
+        }
+
+        missCount.increment();
+        cache.asMap().remove(key, entry);
+        log.debug("Evicted expired rate for {}->{}", fromCurrency, toCurrency);
+        return Mono.empty();
     }
 
     @Override
     public Mono<Void> putRate(ExchangeRate rate) {
         return Mono.fromRunnable(() -> {
-            String key = createKey(rate.fromCurrency().code(), rate.toCurrency().code());
-            cache.put(key, rate);
-        })
-        .subscribeOn(Schedulers.boundedElastic())
-        .then();
+            ttlPolicy.observe(rate);
+            cache.put(PairKey.of(rate), entry(rate));
+        });
+    }
+
+    @Override
+    public Mono<Void> putRates(Collection<ExchangeRate> rates) {
+        return Mono.fromRunnable(() -> {
+            Map<PairKey, Entry> entries = new HashMap<>(rates.size() * 2);
+            rates.forEach(rate -> {
+                ttlPolicy.observe(rate);
+                entries.put(PairKey.of(rate), entry(rate));
+            });
+            cache.putAll(entries);
+        });
     }
 
     @Override
@@ -67,41 +121,116 @@ public class CaffeineRateCache implements RateCache {
         return Mono.fromRunnable(() -> {
             cache.invalidateAll();
             log.info("Cache cleared");
-        })
-        .subscribeOn(Schedulers.boundedElastic())
-        .then();
+        });
     }
 
     @Override
     public Mono<Void> evict(String fromCurrency, String toCurrency) {
-        return Mono.fromRunnable(() -> {
-            String key = createKey(fromCurrency, toCurrency);
-            cache.invalidate(key);
-        })
-        .subscribeOn(Schedulers.boundedElastic())
-        .then();
+        return Mono.fromRunnable(() -> cache.invalidate(new PairKey().set(fromCurrency, toCurrency)));
     }
 
     @Override
     public Mono<CacheStats> getStats() {
         return Mono.fromCallable(() -> {
-            var stats = cache.stats();
+            long hits = hitCount.sum();
+            long misses = missCount.sum();
+            long totalRequests = hits + misses;
             return new CacheStats(
-                stats.hitCount(),
-                stats.missCount(),
-                stats.evictionCount(),
+                hits,
+                misses,
+                cache.stats().evictionCount(),
                 cache.estimatedSize(),
-                stats.hitRate()
+                totalRequests > 0 ? (double) hits / totalRequests : 0.0
             );
-        })
-        .subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+
+    /**
+     * Курсы, которые еще можно отдавать из кэша; используется для снимка кэша
+     */
+    public List<ExchangeRate> entries() {
+        long now = System.currentTimeMillis();
+        return cache.asMap().values().stream()
+            .filter(entry -> now < entry.validUntil())
+            .map(Entry::rate)
+            .toList();
+    }
+
+    /**
+     * Загружает курсы из снимка, пропуская те, что старше TTL. Курсы из снимка не считаются
+     * новыми замерами для {@link RateTtlPolicy}
+     *
+     * @return число загруженных курсов
+     */
+    public int restore(Collection<ExchangeRate> rates) {
+        long now = System.currentTimeMillis();
+        Map<PairKey, Entry> entries = new HashMap<>(rates.size() * 2);
+        for (ExchangeRate rate : rates) {
+            Entry entry = entry(rate);
+            if (now < entry.validUntil()) {
+                entries.put(PairKey.of(rate), entry);
+            }
+        }
+        cache.putAll(entries);
+        return entries.size();
+    }
+
+    private Entry entry(ExchangeRate rate) {
+        long validUntil = rate.timestamp().atZone(ZONE).toInstant().toEpochMilli() + ttlPolicy.ttl(rate).toMillis();
+        return new Entry(rate, Mono.just(rate), validUntil);
     }
 
-    private String createKey(String fromCurrency, String toCurrency) {
-        return fromCurrency + "->" + toCurrency;
+    private record Entry(ExchangeRate rate, Mono<ExchangeRate> mono, long validUntil) { }
+
+    /**
+     * Запись живет до своего {@code validUntil}, но не дольше {@code expireAfterWrite}
+     */
+    private record EntryExpiry(long maxNanos) implements Expiry<PairKey, Entry> {
+        @Override
+        public long expireAfterCreate(PairKey key, Entry entry, long currentTime) {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(entry.validUntil() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remaining, maxNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(PairKey key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(PairKey key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 
-    private boolean isRateValid(ExchangeRate rate) {
-        return rate.timestamp().isAfter(LocalDateTime.now().minus(cacheTtl));
+    /**
+     * Ключ пары валют. Хранимые ключи неизменяемы; изменяемый экземпляр используется
+     * только как ключ поиска своего потока и в кэш не попадает.
+     * Коды не из трех латинских букв хранятся строкой.
+     */
+    private static final class PairKey {
+        private int packed;
+        private String raw;
+
+        static PairKey of(ExchangeRate rate) {
+            return new PairKey().set(rate.fromCurrency().code(), rate.toCurrency().code());
+        }
+
+        PairKey set(String fromCurrency, String toCurrency) {
+            packed = CurrencyPairs.pack(fromCurrency, toCurrency);
+            raw = packed == CurrencyPairs.NOT_PACKABLE ? fromCurrency + "->" + toCurrency : null;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof PairKey key && key.packed == packed
+                && (raw == null ? key.raw == null : raw.equals(key.raw));
+        }
+
+        @Override
+        public int hashCode() {
+            return raw == null ? packed : raw.hashCode();
+        }
     }
 }
@@ -0,0 +1,57 @@
+package com.reactiverates.infrastructure.cache;
+
+/**
+ * Упаковка пары ISO-кодов валют в int: по 5 бит на букву, 15 бит на валюту.
+ * Упаковка не выделяет память, поэтому подходит для ключей на горячем пути.
+ */
+final class CurrencyPairs {
+    /**
+     * Результат упаковки, если хотя бы один код не состоит из трех латинских букв
+     */
+    static final int NOT_PACKABLE = -1;
+
+    private CurrencyPairs() {
+    }
+
+    static int pack(String fromCurrency, String toCurrency) {
+        int from = packCode(fromCurrency);
+        int to = packCode(toCurrency);
+        return from < 0 || to < 0 ? NOT_PACKABLE : from << 15 | to;
+    }
+
+    static String from(int pair) {
+        return unpackCode(pair >>> 15);
+    }
+
+    static String to(int pair) {
+        return unpackCode(pair);
+    }
+
+    private static int packCode(String code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            packed = packed << 5 | (c - 'A' + 1);
+        }
+        return packed;
+    }
+
+    private static String unpackCode(int packed) {
+        char[] chars = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            int letter = packed & 0x1F;
+            if (letter < 1 || letter > 26) {
+                throw new IllegalArgumentException("Invalid packed currency code");
+            }
+            chars[i] = (char) ('A' + letter - 1);
+            packed >>>= 5;
+        }
+        return new String(chars);
+    }
+}
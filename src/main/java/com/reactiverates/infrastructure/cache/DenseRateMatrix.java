@@ -0,0 +1,263 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateMatrix;
+
+/**
+ * Плотная матрица курсов: валюты индексируются целыми числами, курс пары (i, j)
+ * хранится в ячейке {@code i * capacity + j} примитивных массивов.
+ * <p>
+ * Поиск обратного или кросс-курса через опорные валюты выполняется за O(1)
+ * и не требует блокировок. Курсы хранятся как {@code double}, поэтому пару, которую провайдер
+ * уже отдавал напрямую, матрица не отдает: ее точный курс берется из кэша. Запись курса и его времени не атомарна как пара, поэтому
+ * читатель может на мгновение увидеть новый курс со старым временем — это безопасно,
+ * т.к. свежесть при этом только занижается.
+ */
+public class DenseRateMatrix implements RateMatrix {
+    private static final Logger log = LoggerFactory.getLogger(DenseRateMatrix.class);
+
+    private static final int NONE = -1;
+    private static final MathContext DERIVED_PRECISION = new MathContext(12, RoundingMode.HALF_EVEN);
+
+    private final int capacity;
+    private final long maxAgeMillis;
+    private final List<String> pivots;
+
+    private final Map<String, Integer> currencyIndex = new ConcurrentHashMap<>();
+    private final Map<String, Integer> providerIds = new ConcurrentHashMap<>();
+    private final List<String> providerNames = new CopyOnWriteArrayList<>();
+
+    private final AtomicLongArray rates;
+    private final AtomicLongArray timestamps;
+    private final AtomicIntegerArray providers;
+
+    public DenseRateMatrix(int capacity, Duration maxAge, List<String> pivots) {
+        this.capacity = capacity;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.pivots = List.copyOf(pivots);
+        this.rates = new AtomicLongArray(capacity * capacity);
+        this.timestamps = new AtomicLongArray(capacity * capacity);
+        this.providers = new AtomicIntegerArray(capacity * capacity);
+
+        log.info("Initialized DenseRateMatrix with capacity: {}, max age: {}, pivots: {}", capacity, maxAge, pivots);
+    }
+
+    @Override
+    public void update(ExchangeRate rate) {
+        String from = rate.fromCurrency().code();
+        String to = rate.toCurrency().code();
+        if (from.equals(to)) {
+            return;
+        }
+
+        int i = indexFor(from);
+        int j = indexFor(to);
+        if (i == NONE || j == NONE) {
+            return;
+        }
+
+        int cell = i * capacity + j;
+        long timestamp = toEpochMillis(rate.timestamp());
+        if (timestamp < timestamps.get(cell)) {
+            return;
+        }
+
+        rates.set(cell, Double.doubleToRawLongBits(rate.rate().doubleValue()));
+        providers.set(cell, providerIdFor(rate.providerName()));
+        timestamps.set(cell, timestamp);
+    }
+
+    @Override
+    public Optional<DerivedRate> derive(String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return Optional.empty();
+        }
+
+        int i = indexOf(fromCurrency);
+        int j = indexOf(toCurrency);
+        if (i == NONE || j == NONE) {
+            return Optional.empty();
+        }
+
+        if (timestamps.get(i * capacity + j) != 0) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+
+        int inverse = j * capacity + i;
+        if (isFresh(inverse, now)) {
+            ExchangeRate source = source(toCurrency, fromCurrency, inverse);
+            ExchangeRate derived = derived(fromCurrency, toCurrency, 1.0 / rateAt(inverse),
+                timestamps.get(inverse), providerAt(inverse) + " (inverse)");
+            return Optional.of(new DerivedRate(derived, Derivation.INVERSE, List.of(source)));
+        }
+
+        for (String pivot : pivots) {
+            int p = indexOf(pivot);
+            if (p == NONE || p == i || p == j) {
+                continue;
+            }
+
+            int firstLeg = freshLeg(i, p, now);
+            int secondLeg = firstLeg == NONE ? NONE : freshLeg(p, j, now);
+            if (secondLeg == NONE) {
+                continue;
+            }
+
+            double value = legValue(firstLeg) * legValue(secondLeg);
+            long timestamp = Math.min(timestamps.get(legCell(firstLeg)), timestamps.get(legCell(secondLeg)));
+            ExchangeRate firstSource = legSource(firstLeg, fromCurrency, pivot);
+            ExchangeRate secondSource = legSource(secondLeg, pivot, toCurrency);
+
+            Set<String> sourceProviders = new LinkedHashSet<>();
+            sourceProviders.add(firstSource.providerName());
+            sourceProviders.add(secondSource.providerName());
+            String providerName = String.join(" + ", sourceProviders) + " (cross via " + pivot + ")";
+
+            ExchangeRate derived = derived(fromCurrency, toCurrency, value, timestamp, providerName);
+            return Optional.of(new DerivedRate(derived, Derivation.CROSS, List.of(firstSource, secondSource)));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Ищет свежий курс a -> b: возвращает индекс ячейки для прямого курса,
+     * закодированный индекс {@code -cell - 2} для обратного или {@link #NONE}
+     */
+    private int freshLeg(int a, int b, long now) {
+        int direct = a * capacity + b;
+        if (isFresh(direct, now)) {
+            return direct;
+        }
+        int inverse = b * capacity + a;
+        if (isFresh(inverse, now)) {
+            return -inverse - 2;
+        }
+        return NONE;
+    }
+
+    private int legCell(int leg) {
+        return leg >= 0 ? leg : -leg - 2;
+    }
+
+    private double legValue(int leg) {
+        return leg >= 0 ? rateAt(leg) : 1.0 / rateAt(legCell(leg));
+    }
+
+    private ExchangeRate legSource(int leg, String from, String to) {
+        return leg >= 0 ? source(from, to, leg) : source(to, from, legCell(leg));
+    }
+
+    private boolean isFresh(int cell, long now) {
+        long timestamp = timestamps.get(cell);
+        return timestamp != 0 && now - timestamp <= maxAgeMillis;
+    }
+
+    private double rateAt(int cell) {
+        return Double.longBitsToDouble(rates.get(cell));
+    }
+
+    private String providerAt(int cell) {
+        return providerNames.get(providers.get(cell));
+    }
+
+    private ExchangeRate source(String from, String to, int cell) {
+        return new ExchangeRate(
+            Currency.of(from),
+            Currency.of(to),
+            BigDecimal.valueOf(rateAt(cell)),
+            toLocalDateTime(timestamps.get(cell)),
+            providerAt(cell)
+        );
+    }
+
+    private ExchangeRate derived(String from, String to, double value, long timestamp, String providerName) {
+        return new ExchangeRate(
+            Currency.of(from),
+            Currency.of(to),
+            toDecimal(value),
+            toLocalDateTime(timestamp),
+            providerName
+        );
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        BigDecimal decimal = new BigDecimal(value, DERIVED_PRECISION).stripTrailingZeros();
+        return decimal.scale() < 0 ? decimal.setScale(0) : decimal;
+    }
+
+    private int indexOf(String code) {
+        Integer index = currencyIndex.get(code);
+        return index != null ? index : NONE;
+    }
+
+    private int indexFor(String code) {
+        Integer index = currencyIndex.get(code);
+        if (index != null) {
+            return index;
+        }
+
+        synchronized (currencyIndex) {
+            index = currencyIndex.get(code);
+            if (index != null) {
+                return index;
+            }
+            if (currencyIndex.size() >= capacity) {
+                log.warn("Rate matrix is full ({} currencies), ignoring {}", capacity, code);
+                return NONE;
+            }
+            int next = currencyIndex.size();
+            currencyIndex.put(code, next);
+            return next;
+        }
+    }
+
+    private int providerIdFor(String providerName) {
+        String name = providerName != null ? providerName : "Unknown";
+        Integer id = providerIds.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (providerIds) {
+            id = providerIds.get(name);
+            if (id == null) {
+                providerNames.add(name);
+                id = providerNames.size() - 1;
+                providerIds.put(name, id);
+            }
+            return id;
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
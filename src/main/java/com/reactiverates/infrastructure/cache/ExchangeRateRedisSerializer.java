@@ -0,0 +1,212 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+
+/**
+ * Компактный бинарный формат курса для Redis вместо JSON.
+ * <p>
+ * Версия 1:
+ * <pre>
+ * byte    версия формата (1)
+ * int     идентификатор пары: по 5 бит на букву кода, 15 бит на валюту;
+ *         -1, если коды не из латинских букв, и далее оба кода строками
+ * varint  масштаб курса (zigzag)
+ * varint  длина немасштабированного курса и его байты (дополнительный код)
+ * varlong время получения, миллисекунды эпохи
+ * byte    номер провайдера в словаре; 0 — провайдер не указан, 0xFF — далее имя строкой
+ * varlong необязательно: время следующего обновления у провайдера, миллисекунды эпохи
+ * </pre>
+ * Значение, начинающееся с {@code '{'}, записано прежним JSON-сериализатором и разбирается им.
+ * Словарь провайдеров можно только дополнять: номера уже записаны в Redis.
+ */
+public class ExchangeRateRedisSerializer implements RedisSerializer<ExchangeRate> {
+    static final byte VERSION = 1;
+
+    private static final int RAW_PAIR = CurrencyPairs.NOT_PACKABLE;
+    private static final int INLINE_PROVIDER = 0xFF;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final List<String> PROVIDERS = List.of(
+        "",
+        "ExchangeRate-API.com",
+        "UniRateAPI",
+        "Mock Provider",
+        "UniRateAPI Timeseries",
+        "Mock Historical Provider"
+    );
+
+    private final RedisSerializer<ExchangeRate> jsonFallback;
+
+    /**
+     * Сериализатор без разбора прежнего JSON-формата
+     */
+    public ExchangeRateRedisSerializer() {
+        this(null);
+    }
+
+    /**
+     * @param jsonFallback сериализатор для значений, записанных до перехода на бинарный формат
+     */
+    public ExchangeRateRedisSerializer(RedisSerializer<ExchangeRate> jsonFallback) {
+        this.jsonFallback = jsonFallback;
+    }
+
+    @Override
+    public byte[] serialize(ExchangeRate rate) throws SerializationException {
+        if (rate == null) {
+            return new byte[0];
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(24);
+        out.write(VERSION);
+
+        int pairId = CurrencyPairs.pack(rate.fromCurrency().code(), rate.toCurrency().code());
+        writeInt(out, pairId);
+        if (pairId == RAW_PAIR) {
+            writeString(out, rate.fromCurrency().code());
+            writeString(out, rate.toCurrency().code());
+        }
+
+        writeVarLong(out, zigzag(rate.rate().scale()));
+        byte[] unscaled = rate.rate().unscaledValue().toByteArray();
+        writeVarLong(out, unscaled.length);
+        out.writeBytes(unscaled);
+
+        writeVarLong(out, rate.timestamp().atZone(ZONE).toInstant().toEpochMilli());
+
+        String provider = rate.providerName() != null ? rate.providerName() : "";
+        int providerId = PROVIDERS.indexOf(provider);
+        if (providerId >= 0) {
+            out.write(providerId);
+        } else {
+            out.write(INLINE_PROVIDER);
+            writeString(out, provider);
+        }
+
+        if (rate.validUntil() != null) {
+            writeVarLong(out, rate.validUntil().atZone(ZONE).toInstant().toEpochMilli());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public ExchangeRate deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == '{' && jsonFallback != null) {
+            return jsonFallback.deserialize(bytes);
+        }
+        if (bytes[0] != VERSION) {
+            throw new SerializationException("Unsupported ExchangeRate format version: " + bytes[0]);
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+
+            int pairId = in.getInt();
+            String from;
+            String to;
+            if (pairId == RAW_PAIR) {
+                from = readString(in);
+                to = readString(in);
+            } else {
+                from = CurrencyPairs.from(pairId);
+                to = CurrencyPairs.to(pairId);
+            }
+
+            int scale = (int) unzigzag(readVarLong(in));
+            byte[] unscaled = readBytes(in);
+            BigDecimal rate = new BigDecimal(new BigInteger(unscaled), scale);
+
+            LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(readVarLong(in)), ZONE);
+
+            int providerId = in.get() & 0xFF;
+            String provider = providerId == INLINE_PROVIDER ? readString(in) : PROVIDERS.get(providerId);
+
+            LocalDateTime validUntil = in.hasRemaining()
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(readVarLong(in)), ZONE)
+                : null;
+
+            return new ExchangeRate(Currency.of(from), Currency.of(to), rate, timestamp,
+                provider.isEmpty() ? null : provider, validUntil);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new SerializationException("Malformed ExchangeRate value", e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return ExchangeRate.class;
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        long length = readVarLong(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("Length " + length + " exceeds remaining " + in.remaining() + " bytes");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
@@ -0,0 +1,143 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
+import com.reactiverates.domain.exception.ExternalApiException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Кэш неудачных запросов курса.
+ * <p>
+ * Пара, которую не поддерживает ни один провайдер, запоминается на {@code unsupportedTtl},
+ * пара, запрос которой не удался у всей цепочки по другой причине, — на короткий {@code failureTtl}.
+ * Пока запись жива, запрос пары сразу завершается той же ошибкой без обращения к провайдерам.
+ * Хиты и записи учитываются отдельно от основного кэша в {@code rates.cache.negative.*}.
+ */
+public class NegativeRateCache {
+    private static final Logger log = LoggerFactory.getLogger(NegativeRateCache.class);
+
+    public enum Reason {
+        UNSUPPORTED("unsupported"),
+        FAILED("failed");
+
+        private final String tag;
+
+        Reason(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final boolean enabled;
+    private final boolean cacheFailures;
+    private final Cache<String, Reason> cache;
+    private final Counter[] hits = new Counter[Reason.values().length];
+    private final Counter[] stores = new Counter[Reason.values().length];
+
+    public NegativeRateCache(boolean enabled, Duration unsupportedTtl, Duration failureTtl, long maxSize,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cacheFailures = !failureTtl.isZero();
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new ReasonExpiry(unsupportedTtl.toNanos(), failureTtl.toNanos()))
+            .build();
+
+        for (Reason reason : Reason.values()) {
+            hits[reason.ordinal()] = Counter.builder("rates.cache.negative.hits")
+                .description("Rate requests answered from the negative cache")
+                .tag("reason", reason.tag)
+                .register(meterRegistry);
+            stores[reason.ordinal()] = Counter.builder("rates.cache.negative.stores")
+                .description("Failed rate requests remembered in the negative cache")
+                .tag("reason", reason.tag)
+                .register(meterRegistry);
+        }
+        Gauge.builder("rates.cache.negative.size", cache, Cache::estimatedSize)
+            .description("Pairs currently remembered in the negative cache")
+            .register(meterRegistry);
+
+        if (enabled) {
+            log.info("Initialized NegativeRateCache with unsupported TTL: {}, failure TTL: {}, max size: {}",
+                unsupportedTtl, failureTtl, maxSize);
+        }
+    }
+
+    public static NegativeRateCache disabled() {
+        return new NegativeRateCache(false, Duration.ZERO, Duration.ZERO, 1, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @return ошибка для пары, если ее недавний запрос не удался, иначе {@code null}
+     */
+    public RuntimeException lookup(String fromCurrency, String toCurrency, String key) {
+        if (!enabled) {
+            return null;
+        }
+        Reason reason = cache.getIfPresent(key);
+        if (reason == null) {
+            return null;
+        }
+
+        hits[reason.ordinal()].increment();
+        log.debug("Negative cache HIT for {}: {}", key, reason.tag);
+        return reason == Reason.UNSUPPORTED
+            ? new CurrencyNotFoundException(fromCurrency, toCurrency)
+            : new ExternalApiException("Rate providers recently failed for " + fromCurrency + " -> " + toCurrency);
+    }
+
+    /**
+     * Запоминает пару, если ошибка означает неподдерживаемую пару или отказ всей цепочки
+     */
+    public void record(String key, Throwable error) {
+        if (!enabled) {
+            return;
+        }
+        Reason reason = error instanceof CurrencyNotFoundException ? Reason.UNSUPPORTED
+            : error instanceof ExternalApiException ? Reason.FAILED
+            : null;
+        if (reason == null || (reason == Reason.FAILED && !cacheFailures)) {
+            return;
+        }
+
+        cache.put(key, reason);
+        stores[reason.ordinal()].increment();
+        log.debug("Remembered {} pair {} in negative cache", reason.tag, key);
+    }
+
+    public void invalidate(String key) {
+        if (enabled) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Срок записи зависит от причины
+     */
+    private record ReasonExpiry(long unsupportedNanos, long failureNanos) implements Expiry<String, Reason> {
+        @Override
+        public long expireAfterCreate(String key, Reason reason, long currentTime) {
+            return reason == Reason.UNSUPPORTED ? unsupportedNanos : failureNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Reason reason, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, reason, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Reason reason, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.time.Duration;
+
+import com.reactiverates.domain.model.ExchangeRate;
+
+/**
+ * Срок хранения по расписанию обновлений провайдера.
+ * <p>
+ * Если провайдер сообщил, когда опубликует следующий курс ({@link ExchangeRate#validUntil()}),
+ * курс хранится ровно до этого момента: более ранний запрос вернул бы те же числа, а более поздний
+ * отдавал бы устаревший курс. Срок ограничен {@code maxValidity} на случай ошибочного расписания.
+ * Курсы без объявленного срока, а также курсы, полученные уже после него, хранятся по исходной политике.
+ */
+public class ProviderScheduleTtlPolicy implements RateTtlPolicy {
+    private final RateTtlPolicy fallback;
+    private final Duration maxValidity;
+    private final Duration longestTtl;
+
+    public ProviderScheduleTtlPolicy(RateTtlPolicy fallback, Duration maxValidity) {
+        this.fallback = fallback;
+        this.maxValidity = maxValidity;
+        this.longestTtl = maxValidity.compareTo(fallback.maxTtl()) > 0 ? maxValidity : fallback.maxTtl();
+    }
+
+    @Override
+    public Duration ttl(ExchangeRate rate) {
+        if (rate.validUntil() == null || !rate.validUntil().isAfter(rate.timestamp())) {
+            return fallback.ttl(rate);
+        }
+        Duration validity = Duration.between(rate.timestamp(), rate.validUntil());
+        return validity.compareTo(maxValidity) < 0 ? validity : maxValidity;
+    }
+
+    @Override
+    public Duration maxTtl() {
+        return longestTtl;
+    }
+
+    @Override
+    public void observe(ExchangeRate rate) {
+        fallback.observe(rate);
+    }
+
+    @Override
+    public String toString() {
+        return "provider schedule up to " + maxValidity + ", otherwise " + fallback;
+    }
+}
@@ -0,0 +1,127 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.reactiverates.domain.model.ExchangeRate;
+
+/**
+ * Файл снимка локального кэша курсов.
+ * <p>
+ * Формат: {@code int} сигнатура {@code RRS1}, {@code int} число записей, далее записи подряд —
+ * {@code short} длина и курс в формате {@link ExchangeRateRedisSerializer}. Файл читается
+ * последовательно через {@link FileChannel} в прямой буфер и пишется во временный файл,
+ * который затем атомарно заменяет прежний снимок.
+ */
+public final class RateCacheSnapshot {
+    private static final int MAGIC = 0x52525331;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ENTRY_SIZE = 4 * 1024;
+
+    private static final ExchangeRateRedisSerializer CODEC = new ExchangeRateRedisSerializer();
+
+    private RateCacheSnapshot() {
+    }
+
+    public static void write(Path path, Collection<ExchangeRate> rates) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(0);
+            int count = 0;
+            for (ExchangeRate rate : rates) {
+                byte[] bytes = CODEC.serialize(rate);
+                if (bytes.length > MAX_ENTRY_SIZE) {
+                    continue;
+                }
+                if (buffer.remaining() < Short.BYTES + bytes.length) {
+                    drain(channel, buffer);
+                }
+                buffer.putShort((short) bytes.length).put(bytes);
+                count++;
+            }
+            drain(channel, buffer);
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, count), Integer.BYTES);
+            channel.force(false);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return курсы из снимка или пустой список, если файла нет
+     * @throws IOException если файл поврежден или не читается
+     */
+    public static List<ExchangeRate> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return List.of();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).limit(0);
+            fill(channel, buffer, Integer.BYTES * 2);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a rate cache snapshot: " + path);
+            }
+
+            int count = buffer.getInt();
+            List<ExchangeRate> rates = new ArrayList<>(Math.max(0, Math.min(count, 100_000)));
+            for (int i = 0; i < count; i++) {
+                fill(channel, buffer, Short.BYTES);
+                int length = buffer.getShort() & 0xFFFF;
+                if (length > MAX_ENTRY_SIZE) {
+                    throw new IOException("Corrupted entry " + i + " in " + path + ": length " + length);
+                }
+                fill(channel, buffer, length);
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                try {
+                    rates.add(CODEC.deserialize(bytes));
+                } catch (SerializationException e) {
+                    throw new IOException("Corrupted entry " + i + " in " + path, e);
+                }
+            }
+            return rates;
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Дочитывает файл, пока в буфере не окажется {@code needed} непрочитанных байт
+     */
+    private static void fill(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Rate cache snapshot is truncated");
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,161 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateCache;
+import com.reactiverates.domain.service.RateProvider;
+import com.reactiverates.infrastructure.config.CacheWarmupProperties;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Прогрев кэша курсов при старте.
+ * <p>
+ * Сначала локальный кэш загружается из снимка, записанного при прошлой остановке, затем
+ * запрашиваются горячие пары: заданные в настройках и все пары из снимка, включая истекшие.
+ * Прогрев выполняется до публикации готовности приложения, поэтому сервис не принимает
+ * трафик с пустым кэшем; дольше {@code timeout} он готовность не задерживает.
+ */
+@Component
+@ConditionalOnProperty(name = "reactive-rates.cache.warmup.enabled", havingValue = "true")
+public class RateCacheWarmer implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(RateCacheWarmer.class);
+    private static final int WARMUP_CONCURRENCY = 4;
+
+    private final RateCache rateCache;
+    private final RateProvider rateProvider;
+    private final CacheWarmupProperties properties;
+
+    private volatile boolean warm;
+    private Disposable snapshots;
+
+    public RateCacheWarmer(RateCache rateCache, RateProvider rateProvider, CacheWarmupProperties properties) {
+        this.rateCache = rateCache;
+        this.rateProvider = rateProvider;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startedAt = System.nanoTime();
+        CaffeineRateCache localCache = localCache();
+
+        List<ExchangeRate> snapshot = List.of();
+        if (localCache != null && properties.snapshotPath() != null) {
+            snapshot = readSnapshot(properties.snapshotPath());
+            int restored = localCache.restore(snapshot);
+            log.info("Restored {} of {} cached rate(s) from snapshot {}", restored, snapshot.size(), properties.snapshotPath());
+        }
+
+        Map<String, Set<String>> hotPairs = hotPairs(snapshot);
+        long warmed = Flux.fromIterable(hotPairs.entrySet())
+            .flatMap(table -> rateProvider.getCurrentRates(table.getKey(), table.getValue())
+                .onErrorResume(error -> {
+                    log.warn("Failed to warm up rates for base {}: {}", table.getKey(), error.getMessage());
+                    return Flux.empty();
+                }), WARMUP_CONCURRENCY)
+            .count()
+            .timeout(properties.timeout(), Mono.fromSupplier(() -> {
+                log.warn("Cache warm-up did not finish within {}", properties.timeout());
+                return 0L;
+            }))
+            .blockOptional()
+            .orElse(0L);
+
+        warm = true;
+        log.info("Cache warm-up finished in {} ms: {} base(s), {} rate(s) loaded",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), hotPairs.size(), warmed);
+
+        if (localCache != null && properties.snapshotPath() != null) {
+            Duration interval = properties.snapshotInterval();
+            snapshots = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(() -> writeSnapshot(localCache)).subscribeOn(Schedulers.boundedElastic()))
+                .subscribe();
+        }
+    }
+
+    /**
+     * Последний снимок пишется при остановке приложения
+     */
+    @PreDestroy
+    public void stop() {
+        if (snapshots != null) {
+            snapshots.dispose();
+        }
+        CaffeineRateCache localCache = localCache();
+        if (localCache != null && properties.snapshotPath() != null && warm) {
+            writeSnapshot(localCache);
+        }
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    private CaffeineRateCache localCache() {
+        if (rateCache instanceof CaffeineRateCache caffeine) {
+            return caffeine;
+        }
+        if (rateCache instanceof TieredRateCache tiered) {
+            return tiered.local();
+        }
+        return null;
+    }
+
+    /**
+     * Пары группируются по базовой валюте, потому что провайдер отдает таблицу базы одним запросом
+     */
+    private Map<String, Set<String>> hotPairs(List<ExchangeRate> snapshot) {
+        Set<String> pairs = new LinkedHashSet<>();
+        properties.hotPairs().forEach(pair -> pairs.add(pair.trim().toUpperCase().replace("/", "->")));
+        snapshot.forEach(rate -> pairs.add(rate.fromCurrency().code() + "->" + rate.toCurrency().code()));
+
+        Map<String, Set<String>> byBase = new LinkedHashMap<>();
+        pairs.stream()
+            .limit(properties.maxPairs())
+            .map(pair -> pair.split("->", 2))
+            .filter(pair -> pair.length == 2 && !pair[0].isBlank() && !pair[1].isBlank())
+            .forEach(pair -> byBase.computeIfAbsent(pair[0], base -> new LinkedHashSet<>()).add(pair[1]));
+        return byBase;
+    }
+
+    private List<ExchangeRate> readSnapshot(Path path) {
+        try {
+            return RateCacheSnapshot.read(path);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cache snapshot {}: {}", path, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void writeSnapshot(CaffeineRateCache localCache) {
+        try {
+            List<ExchangeRate> entries = localCache.entries();
+            RateCacheSnapshot.write(properties.snapshotPath(), entries);
+            log.debug("Wrote {} cached rate(s) to snapshot {}", entries.size(), properties.snapshotPath());
+        } catch (IOException e) {
+            log.warn("Failed to write cache snapshot {}: {}", properties.snapshotPath(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.model.RateSnapshot;
+import com.reactiverates.domain.service.RateProvider;
+import com.reactiverates.domain.service.RateSnapshots;
+import com.reactiverates.infrastructure.config.RateSnapshotProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Сборка снимков курсов по расписанию.
+ * <p>
+ * Раз в {@code refresh-interval} запрашивает полные таблицы настроенных базовых валют, собирает
+ * из них новый {@link RateSnapshot} со следующим номером и публикует его одной заменой ссылки.
+ * Читатели видят либо прежний снимок, либо новый целиком. Если таблицу базы получить не удалось,
+ * в снимок переходит прежняя, пока она моложе {@code max-age}. Если не удалось получить ни одной
+ * таблицы, прежний снимок остается, пока в нем нет устаревших таблиц; иначе публикуется снимок без них.
+ */
+@Component
+public class RateSnapshotEngine implements RateSnapshots {
+    private static final Logger log = LoggerFactory.getLogger(RateSnapshotEngine.class);
+
+    private final RateProvider rateProvider;
+    private final RateSnapshotProperties properties;
+    private final AtomicReference<RateSnapshot> current = new AtomicReference<>(RateSnapshot.EMPTY);
+
+    private Disposable refreshes;
+
+    public RateSnapshotEngine(RateProvider rateProvider, RateSnapshotProperties properties, MeterRegistry meterRegistry) {
+        this.rateProvider = rateProvider;
+        this.properties = properties;
+
+        Gauge.builder("rates.snapshot.version", current, ref -> ref.get().version())
+            .description("Version of the published rate snapshot")
+            .register(meterRegistry);
+        Gauge.builder("rates.snapshot.size", current, ref -> ref.get().size())
+            .description("Rates in the published rate snapshot")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.enabled()) {
+            log.info("Scheduled rate snapshots are disabled");
+            return;
+        }
+
+        refreshes = Flux.interval(Duration.ZERO, properties.refreshInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> refresh().onErrorResume(error -> {
+                log.warn("Rate snapshot refresh failed: {}", error.getMessage());
+                return Mono.empty();
+            }))
+            .subscribe();
+        log.info("Started rate snapshots for bases {} with interval: {}",
+            properties.baseCurrencies(), properties.refreshInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshes != null) {
+            refreshes.dispose();
+        }
+    }
+
+    @Override
+    public RateSnapshot current() {
+        return current.get();
+    }
+
+    @Override
+    public Duration maxAge() {
+        return properties.maxAge();
+    }
+
+    /**
+     * Собирает и публикует следующий снимок; вызовы не должны пересекаться
+     *
+     * @return опубликованный снимок или прежний, если обновить не удалось ни одной таблицы, а устаревших нет
+     */
+    public Mono<RateSnapshot> refresh() {
+        long startedAt = System.nanoTime();
+        return Flux.fromIterable(properties.baseCurrencies())
+            .flatMap(base -> rateProvider.getCurrentRates(base, Set.of())
+                .collectMap(rate -> rate.toCurrency().code())
+                .filter(table -> !table.isEmpty())
+                .map(table -> Map.entry(base, table))
+                .onErrorResume(error -> {
+                    log.warn("Failed to refresh snapshot table for base {}: {}", base, error.getMessage());
+                    return Mono.empty();
+                }), properties.concurrency())
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new)
+            .map(fetched -> {
+                RateSnapshot previous = current.get();
+                LocalDateTime now = LocalDateTime.now();
+                Map<String, Map<String, ExchangeRate>> tables = new LinkedHashMap<>();
+                for (String base : properties.baseCurrencies()) {
+                    Map<String, ExchangeRate> table = fetched.get(base);
+                    if (table == null) {
+                        table = previous.tables().get(base);
+                        if (table == null || isExpired(table, now)) {
+                            continue;
+                        }
+                    }
+                    tables.put(base, table);
+                }
+
+                if (fetched.isEmpty() && tables.size() == previous.tables().size()) {
+                    log.warn("No snapshot tables refreshed, keeping snapshot v{}", previous.version());
+                    return previous;
+                }
+
+                RateSnapshot next = new RateSnapshot(previous.version() + 1, now, tables);
+                current.set(next);
+                log.debug("Published rate snapshot v{}: {} base(s), {} rate(s) in {} ms", next.version(),
+                    tables.size(), next.size(), Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+                return next;
+            });
+    }
+
+    private boolean isExpired(Map<String, ExchangeRate> table, LocalDateTime now) {
+        return table.values().stream()
+            .allMatch(rate -> rate.timestamp().isBefore(now.minus(properties.maxAge())));
+    }
+}
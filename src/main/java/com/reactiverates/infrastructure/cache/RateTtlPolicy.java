@@ -0,0 +1,49 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.time.Duration;
+
+import com.reactiverates.domain.model.ExchangeRate;
+
+/**
+ * Срок хранения курса в кэше.
+ * <p>
+ * Кэши вызывают {@link #observe} для каждого записываемого курса и хранят его {@link #ttl} от
+ * момента получения. Срок может быть разным для разных пар, но не превышает {@link #maxTtl()}.
+ */
+public interface RateTtlPolicy {
+    /**
+     * @return сколько курс можно отдавать из кэша, считая от {@link ExchangeRate#timestamp()}
+     */
+    Duration ttl(ExchangeRate rate);
+
+    /**
+     * Наибольший срок, который может вернуть {@link #ttl}; по нему хранятся общие ключи,
+     * например хэш таблицы базовой валюты
+     */
+    Duration maxTtl();
+
+    /**
+     * Учитывает свежий курс, полученный от провайдера
+     */
+    default void observe(ExchangeRate rate) {
+    }
+
+    static RateTtlPolicy fixed(Duration ttl) {
+        return new RateTtlPolicy() {
+            @Override
+            public Duration ttl(ExchangeRate rate) {
+                return ttl;
+            }
+
+            @Override
+            public Duration maxTtl() {
+                return ttl;
+            }
+
+            @Override
+            public String toString() {
+                return ttl.toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,345 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateCache;
+import com.reactiverates.infrastructure.config.RedisConfig.CacheProperties;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Кэш курсов в Redis, где таблица каждой базовой валюты хранится одним хэшем
+ * {@code <prefix>table:<BASE>}: поле — код целевой валюты, значение — курс.
+ * <p>
+ * Время получения, провайдер и время следующего обновления у провайдера общие для всей
+ * таблицы и лежат в служебных полях, поэтому таблица провайдера записывается одним {@code HSET}, а любое число пар
+ * одной базы читается одним {@code HMGET}. Служебные поля пишутся только вместе с заменой всей таблицы;
+ * курс, записанный отдельно от таблицы, хранит свое время и провайдера прямо в значении поля.
+ * <p>
+ * Живые хэши учитываются в индексе так же, как ключи в {@link RedisRateCache}.
+ */
+public class RedisHashRateCache implements RateCache {
+    private static final Logger log = LoggerFactory.getLogger(RedisHashRateCache.class);
+    private static final int CLEAR_BATCH_SIZE = 500;
+
+    private static final String TIMESTAMP_FIELD = "_ts";
+    private static final String PROVIDER_FIELD = "_provider";
+    private static final String VALID_UNTIL_FIELD = "_valid_until";
+    private static final char SEPARATOR = '|';
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /**
+     * Удаляет старую таблицу и пишет новую атомарно, чтобы поля старой таблицы без своих метаданных
+     * не получили время и провайдера новой; {@code ARGV[1]} — TTL в миллисекундах, дальше пары поле-значение
+     */
+    private static final RedisScript<Long> REPLACE_TABLE = RedisScript.of("""
+        redis.call('DEL', KEYS[1])
+        redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+        redis.call('PEXPIRE', KEYS[1], ARGV[1])
+        return 1
+        """, Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveHashOperations<String, String, String> hashes;
+    private final CacheProperties cacheProperties;
+    private final RateTtlPolicy ttlPolicy;
+    private final String indexKey;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    /**
+     * @param ttl время хранения таблиц; может превышать TTL кэша в режиме refresh-ahead
+     */
+    public RedisHashRateCache(ReactiveRedisTemplate<String, String> redisTemplate,
+                              CacheProperties cacheProperties, Duration ttl) {
+        this(redisTemplate, cacheProperties, RateTtlPolicy.fixed(ttl));
+    }
+
+    /**
+     * @param ttlPolicy срок, в течение которого курс пары можно отдавать; хэш таблицы хранится
+     *                  по наибольшему сроку политики, а свежесть каждого поля проверяется при чтении
+     */
+    public RedisHashRateCache(ReactiveRedisTemplate<String, String> redisTemplate,
+                              CacheProperties cacheProperties, RateTtlPolicy ttlPolicy) {
+        this.redisTemplate = redisTemplate;
+        this.hashes = redisTemplate.opsForHash();
+        this.cacheProperties = cacheProperties;
+        this.ttlPolicy = ttlPolicy;
+        this.indexKey = cacheProperties.keyPrefix() + "index";
+
+        log.info("Initialized RedisHashRateCache with TTL: {}, key prefix: {}", ttlPolicy, cacheProperties.keyPrefix());
+    }
+
+    @Override
+    public Mono<ExchangeRate> getRate(String fromCurrency, String toCurrency) {
+        return getRates(fromCurrency, Set.of(toCurrency)).next();
+    }
+
+    /**
+     * Запрошенные поля и служебные поля таблицы читаются одним {@code HMGET}
+     */
+    @Override
+    public Flux<ExchangeRate> getRates(String baseCurrency, Set<String> targetCurrencies) {
+        if (targetCurrencies.isEmpty()) {
+            return Flux.empty();
+        }
+
+        String key = tableKey(baseCurrency);
+        List<String> targets = new ArrayList<>(targetCurrencies);
+        List<String> fields = new ArrayList<>(targets.size() + 3);
+        fields.add(TIMESTAMP_FIELD);
+        fields.add(PROVIDER_FIELD);
+        fields.add(VALID_UNTIL_FIELD);
+        fields.addAll(targets);
+
+        return hashes.multiGet(key, fields)
+            .flatMapIterable(values -> {
+                List<ExchangeRate> rates = new ArrayList<>(targets.size());
+                for (int i = 0; i < targets.size(); i++) {
+                    ExchangeRate rate = decode(baseCurrency, targets.get(i), values.get(i + 3),
+                        values.get(0), values.get(1), values.get(2));
+                    if (rate != null && isRateValid(rate)) {
+                        rates.add(rate);
+                    }
+                }
+                hitCount.addAndGet(rates.size());
+                missCount.addAndGet(targets.size() - rates.size());
+                log.debug("Redis HMGET {}: {} of {} field(s) hit", key, rates.size(), targets.size());
+                return rates;
+            })
+            .onErrorResume(throwable -> {
+                log.warn("Redis HMGET failed for key: {}, error: {}", key, throwable.getMessage());
+                missCount.addAndGet(targets.size());
+                return Flux.empty();
+            });
+    }
+
+    @Override
+    public Mono<Void> putRate(ExchangeRate rate) {
+        String key = tableKey(rate.fromCurrency().code());
+        ttlPolicy.observe(rate);
+        Map<String, String> fields = Map.of(rate.toCurrency().code(), encode(rate, null));
+        return write(key, hashes.putAll(key, fields), 1);
+    }
+
+    /**
+     * Курсы группируются по базовой валюте и пишутся одним {@code HSET} на базу. Служебные поля
+     * таблицы не меняются, поэтому каждый курс хранит свои время, провайдера и срок действия в значении
+     */
+    @Override
+    public Mono<Void> putRates(Collection<ExchangeRate> rates) {
+        Map<String, List<ExchangeRate>> tables = rates.stream()
+            .collect(Collectors.groupingBy(rate -> rate.fromCurrency().code()));
+
+        return Flux.fromIterable(tables.entrySet())
+            .flatMap(table -> {
+                String key = tableKey(table.getKey());
+                Map<String, String> fields = new HashMap<>(table.getValue().size() * 2);
+                table.getValue().forEach(rate -> {
+                    ttlPolicy.observe(rate);
+                    fields.put(rate.toCurrency().code(), encode(rate, null));
+                });
+                return write(key, hashes.putAll(key, fields), fields.size());
+            })
+            .then();
+    }
+
+    /**
+     * Хэш базы заменяется целиком: старые поля удаляются, а новые пишутся вместе с общими временем
+     * получения, провайдером и временем следующего обновления в одном скрипте
+     */
+    @Override
+    public Mono<Void> putTable(String baseCurrency, Collection<ExchangeRate> table) {
+        if (table.isEmpty()) {
+            return Mono.empty();
+        }
+
+        String key = tableKey(baseCurrency);
+        ExchangeRate first = table.iterator().next();
+        List<String> args = new ArrayList<>(table.size() * 2 + 7);
+        args.add(Long.toString(ttlPolicy.maxTtl().toMillis()));
+        args.add(TIMESTAMP_FIELD);
+        args.add(Long.toString(toEpochMillis(first.timestamp())));
+        args.add(PROVIDER_FIELD);
+        args.add(first.providerName() != null ? first.providerName() : "");
+        args.add(VALID_UNTIL_FIELD);
+        args.add(first.validUntil() != null ? Long.toString(toEpochMillis(first.validUntil())) : "");
+        table.forEach(rate -> {
+            ttlPolicy.observe(rate);
+            args.add(rate.toCurrency().code());
+            args.add(encode(rate, first));
+        });
+        return write(key, redisTemplate.execute(REPLACE_TABLE, List.of(key), args).then(), table.size());
+    }
+
+    @Override
+    public Mono<Void> clearAll() {
+        return Mono.defer(this::clearBatch)
+            .repeat()
+            .takeUntil(deleted -> deleted == 0)
+            .reduce(0L, Long::sum)
+            .flatMap(deleted -> redisTemplate.unlink(indexKey).thenReturn(deleted))
+            .doOnNext(deleted -> log.info("Cache cleared, unlinked {} table(s) from index {}", deleted, indexKey))
+            .then()
+            .onErrorResume(throwable -> {
+                log.error("Failed to clear cache, error: {}", throwable.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    @Override
+    public Mono<Void> evict(String fromCurrency, String toCurrency) {
+        String key = tableKey(fromCurrency);
+
+        return hashes.remove(key, toCurrency)
+            .doOnNext(removed -> {
+                if (removed > 0) {
+                    evictionCount.incrementAndGet();
+                    log.debug("Evicted field {} from {}", toCurrency, key);
+                }
+            })
+            .onErrorResume(throwable -> {
+                log.warn("Failed to evict field {} from {}, error: {}", toCurrency, key, throwable.getMessage());
+                return Mono.just(0L);
+            })
+            .then();
+    }
+
+    /**
+     * Размер — число живых таблиц базовых валют по индексу, а не число пар
+     */
+    @Override
+    public Mono<CacheStats> getStats() {
+        return redisTemplate.opsForZSet()
+            .count(indexKey, Range.rightUnbounded(Range.Bound.inclusive((double) System.currentTimeMillis())))
+            .map(estimatedSize -> {
+                long totalRequests = hitCount.get() + missCount.get();
+                double hitRate = totalRequests > 0 ? (double) hitCount.get() / totalRequests : 0.0;
+                return new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), estimatedSize, hitRate);
+            })
+            .onErrorReturn(new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), 0L, 0.0));
+    }
+
+    /**
+     * Запись полей, продление TTL хэша и запись в индекс отправляются одновременно,
+     * поэтому Lettuce конвейеризует их в одном соединении
+     */
+    private Mono<Void> write(String key, Mono<?> store, int rateCount) {
+        long now = System.currentTimeMillis();
+        Duration ttl = ttlPolicy.maxTtl();
+        return Mono.when(
+                store,
+                redisTemplate.expire(key, ttl),
+                redisTemplate.opsForZSet().add(indexKey, key, now + ttl.toMillis()),
+                redisTemplate.opsForZSet().removeRangeByScore(indexKey, Range.leftUnbounded(Range.Bound.exclusive((double) now))))
+            .doOnSuccess(v -> log.debug("Redis HSET {}: {} rate(s), TTL={}", key, rateCount, ttl))
+            .onErrorResume(throwable -> {
+                log.error("Failed to put rates to Redis for key: {}, error: {}", key, throwable.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Long> clearBatch() {
+        return redisTemplate.opsForZSet().range(indexKey, Range.closed(0L, CLEAR_BATCH_SIZE - 1L))
+            .collectList()
+            .flatMap(keys -> {
+                if (keys.isEmpty()) {
+                    return Mono.just(0L);
+                }
+                return redisTemplate.unlink(keys.toArray(String[]::new))
+                    .doOnNext(evictionCount::addAndGet)
+                    .then(redisTemplate.opsForZSet().remove(indexKey, keys.toArray()));
+            });
+    }
+
+    /**
+     * Значение поля, совпадающее с таблицей по времени, провайдеру и сроку действия, хранит только курс;
+     * иначе — {@code курс|время|провайдер}, и через разделитель срок действия, если он известен
+     */
+    private static String encode(ExchangeRate rate, ExchangeRate table) {
+        if (table != null && rate.timestamp().equals(table.timestamp()) && Objects.equals(rate.providerName(), table.providerName())
+                && Objects.equals(rate.validUntil(), table.validUntil())) {
+            return rate.rate().toPlainString();
+        }
+        String value = rate.rate().toPlainString() + SEPARATOR + toEpochMillis(rate.timestamp())
+            + SEPARATOR + (rate.providerName() != null ? rate.providerName() : "");
+        return rate.validUntil() != null ? value + SEPARATOR + toEpochMillis(rate.validUntil()) : value;
+    }
+
+    private static ExchangeRate decode(String base, String target, String value, String tableTimestamp, String tableProvider,
+                                       String tableValidUntil) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            int rateEnd = value.indexOf(SEPARATOR);
+            if (rateEnd < 0) {
+                if (tableTimestamp == null) {
+                    return null;
+                }
+                return new ExchangeRate(Currency.of(base), Currency.of(target), new BigDecimal(value),
+                    fromEpochMillis(Long.parseLong(tableTimestamp)), emptyToNull(tableProvider), parseValidUntil(tableValidUntil));
+            }
+
+            int timestampEnd = value.indexOf(SEPARATOR, rateEnd + 1);
+            int providerEnd = value.indexOf(SEPARATOR, timestampEnd + 1);
+            return new ExchangeRate(Currency.of(base), Currency.of(target), new BigDecimal(value.substring(0, rateEnd)),
+                fromEpochMillis(Long.parseLong(value.substring(rateEnd + 1, timestampEnd))),
+                emptyToNull(providerEnd < 0 ? value.substring(timestampEnd + 1) : value.substring(timestampEnd + 1, providerEnd)),
+                providerEnd < 0 ? null : parseValidUntil(value.substring(providerEnd + 1)));
+        } catch (RuntimeException e) {
+            log.warn("Skipping malformed cached rate {} -> {}: {}", base, target, e.getMessage());
+            return null;
+        }
+    }
+
+    private String tableKey(String baseCurrency) {
+        return cacheProperties.keyPrefix() + "table:" + baseCurrency;
+    }
+
+    private boolean isRateValid(ExchangeRate rate) {
+        return rate.timestamp().isAfter(LocalDateTime.now().minus(ttlPolicy.ttl(rate)));
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE);
+    }
+
+    private static LocalDateTime parseValidUntil(String epochMillis) {
+        return epochMillis == null || epochMillis.isEmpty() ? null : fromEpochMillis(Long.parseLong(epochMillis));
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
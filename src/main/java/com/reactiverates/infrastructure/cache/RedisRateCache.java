@@ -1,10 +1,12 @@
 package com.reactiverates.infrastructure.cache;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Range;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 
 import com.reactiverates.domain.model.ExchangeRate;
@@ -15,22 +17,43 @@ import reactor.core.publisher.Mono;
 
 public class RedisRateCache implements RateCache {
     private static final Logger log = LoggerFactory.getLogger(RedisRateCache.class);
+    private static final int CLEAR_BATCH_SIZE = 500;
 
     private final ReactiveRedisTemplate<String, ExchangeRate> redisTemplate;
     private final CacheProperties cacheProperties;
+    private final RateTtlPolicy ttlPolicy;
+    private final ReactiveRedisTemplate<String, String> indexTemplate;
+    private final String indexKey;
     
     // Простая статистика
     private final AtomicLong hitCount = new AtomicLong(0);
     private final AtomicLong missCount = new AtomicLong(0);
     private final AtomicLong evictionCount = new AtomicLong(0);
 
-    public RedisRateCache(ReactiveRedisTemplate<String, ExchangeRate> redisTemplate, 
-                         CacheProperties cacheProperties) {
+    /**
+     * @param indexTemplate шаблон для индекса ключей; значения индекса — строки
+     * @param ttl           время хранения записей; может превышать TTL кэша в режиме refresh-ahead
+     */
+    public RedisRateCache(ReactiveRedisTemplate<String, ExchangeRate> redisTemplate,
+                         ReactiveRedisTemplate<String, String> indexTemplate,
+                         CacheProperties cacheProperties, Duration ttl) {
+        this(redisTemplate, indexTemplate, cacheProperties, RateTtlPolicy.fixed(ttl));
+    }
+
+    /**
+     * @param ttlPolicy срок хранения каждого ключа; ключ живет ровно столько, сколько курс можно отдавать
+     */
+    public RedisRateCache(ReactiveRedisTemplate<String, ExchangeRate> redisTemplate,
+                         ReactiveRedisTemplate<String, String> indexTemplate,
+                         CacheProperties cacheProperties, RateTtlPolicy ttlPolicy) {
         this.redisTemplate = redisTemplate;
+        this.indexTemplate = indexTemplate;
         this.cacheProperties = cacheProperties;
+        this.ttlPolicy = ttlPolicy;
+        this.indexKey = cacheProperties.keyPrefix() + "index";
         
-        log.info("Initialized RedisRateCache with TTL: {}, key prefix: {}", 
-                cacheProperties.ttl(), cacheProperties.keyPrefix());
+        log.info("Initialized RedisRateCache with TTL: {}, key prefix: {}, index: {}", 
+                ttlPolicy, cacheProperties.keyPrefix(), indexKey);
     }
 
     @Override
@@ -58,12 +81,15 @@ public class RedisRateCache implements RateCache {
     @Override
     public Mono<Void> putRate(ExchangeRate rate) {
         String key = createKey(rate.fromCurrency().code(), rate.toCurrency().code());
+        ttlPolicy.observe(rate);
+        Duration ttl = ttlPolicy.ttl(rate);
         
         return redisTemplate.opsForValue()
-            .set(key, rate, cacheProperties.ttl())
+            .set(key, rate, ttl)
+            .flatMap(success -> success ? index(key, ttl).thenReturn(true) : Mono.just(false))
             .doOnSuccess(success -> {
                 if (success) {
-                    log.info("✅ REDIS CACHE PUT: key={}, rate={}, TTL={}", key, rate.rate(), cacheProperties.ttl());
+                    log.info("✅ REDIS CACHE PUT: key={}, rate={}, TTL={}", key, rate.rate(), ttl);
                 } else {
                     log.warn("❌ REDIS CACHE PUT FAILED: key={}", key);
                 }
@@ -75,26 +101,44 @@ public class RedisRateCache implements RateCache {
             .then();
     }
 
+    /**
+     * Ключи удаляются пачками по индексу через {@code UNLINK}, чтобы не блокировать
+     * общий с другими сервисами Redis командой {@code KEYS}
+     */
     @Override
     public Mono<Void> clearAll() {
-        String pattern = cacheProperties.keyPrefix() + "*";
-        
-        return redisTemplate.keys(pattern)
-            .flatMap(redisTemplate::delete)
-            .doOnNext(deletedCount -> evictionCount.addAndGet(deletedCount))
+        return Mono.defer(this::clearBatch)
+            .repeat()
+            .takeUntil(deleted -> deleted == 0)
+            .reduce(0L, Long::sum)
+            .flatMap(deleted -> indexTemplate.unlink(indexKey).thenReturn(deleted))
+            .doOnNext(deleted -> log.info("Cache cleared, unlinked {} key(s) from index {}", deleted, indexKey))
             .then()
-            .doOnSuccess(v -> log.info("Cache cleared, pattern: {}", pattern))
             .onErrorResume(throwable -> {
                 log.error("Failed to clear cache, error: {}", throwable.getMessage());
                 return Mono.empty();
             });
     }
 
+    private Mono<Long> clearBatch() {
+        return indexTemplate.opsForZSet().range(indexKey, Range.closed(0L, CLEAR_BATCH_SIZE - 1L))
+            .collectList()
+            .flatMap(keys -> {
+                if (keys.isEmpty()) {
+                    return Mono.just(0L);
+                }
+                return redisTemplate.unlink(keys.toArray(String[]::new))
+                    .doOnNext(evictionCount::addAndGet)
+                    .then(indexTemplate.opsForZSet().remove(indexKey, keys.toArray()));
+            });
+    }
+
     @Override
     public Mono<Void> evict(String fromCurrency, String toCurrency) {
         String key = createKey(fromCurrency, toCurrency);
         
-        return redisTemplate.delete(key)
+        return redisTemplate.unlink(key)
+            .flatMap(deletedCount -> indexTemplate.opsForZSet().remove(indexKey, key).thenReturn(deletedCount))
             .doOnNext(deletedCount -> {
                 if (deletedCount > 0) {
                     evictionCount.incrementAndGet();
@@ -108,10 +152,13 @@ public class RedisRateCache implements RateCache {
             .then();
     }
 
+    /**
+     * Размер считается по индексу: {@code ZCOUNT} по неистекшим записям, без обхода ключей
+     */
     @Override
     public Mono<CacheStats> getStats() {
-        return redisTemplate.keys(cacheProperties.keyPrefix() + "*")
-            .count()
+        return indexTemplate.opsForZSet()
+            .count(indexKey, Range.rightUnbounded(Range.Bound.inclusive((double) System.currentTimeMillis())))
             .map(estimatedSize -> {
                 long totalRequests = hitCount.get() + missCount.get();
                 double hitRate = totalRequests > 0 ? (double) hitCount.get() / totalRequests : 0.0;
@@ -127,6 +174,22 @@ public class RedisRateCache implements RateCache {
             .onErrorReturn(new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), 0L, 0.0));
     }
 
+    /**
+     * Индекс хранит ключ с временем истечения в качестве score. Повторная запись ключа
+     * только обновляет score, а истекшие элементы вычищаются здесь же, поэтому индекс
+     * не растет больше числа живых пар
+     */
+    private Mono<Void> index(String key, Duration ttl) {
+        long now = System.currentTimeMillis();
+        return Mono.when(
+                indexTemplate.opsForZSet().add(indexKey, key, now + ttl.toMillis()),
+                indexTemplate.opsForZSet().removeRangeByScore(indexKey, Range.leftUnbounded(Range.Bound.exclusive((double) now))))
+            .onErrorResume(throwable -> {
+                log.warn("Failed to index key: {}, error: {}", key, throwable.getMessage());
+                return Mono.empty();
+            });
+    }
+
     private String createKey(String fromCurrency, String toCurrency) {
         return cacheProperties.keyPrefix() + fromCurrency + "->" + toCurrency;
     }
@@ -135,6 +198,6 @@ public class RedisRateCache implements RateCache {
         if (rate == null || rate.timestamp() == null) {
             return false;
         }
-        return rate.timestamp().isAfter(LocalDateTime.now().minus(cacheProperties.ttl()));
+        return rate.timestamp().isAfter(LocalDateTime.now().minus(ttlPolicy.ttl(rate)));
     }
 }
@@ -0,0 +1,115 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.reactiverates.domain.model.ExchangeRate;
+
+/**
+ * Политика refresh-ahead для кэшированных курсов.
+ * <p>
+ * Кэш хранит курс столько, сколько разрешает {@link RateTtlPolicy} для его пары, но не дольше hard TTL.
+ * Soft TTL — та же доля срока хранения записи, что и {@code softTtl / hardTtl}: пара с коротким
+ * адаптивным TTL обновляется раньше, со стабильной — позже. Курс старше soft TTL отдается сразу, но
+ * запускает фоновое обновление. Чтобы обновления популярных пар не совпадали по времени, курс может быть
+ * обновлен и раньше soft TTL: вероятность растет по мере приближения к нему и с ростом
+ * времени запроса к провайдеру (алгоритм XFetch). Курс, для которого провайдер еще
+ * не опубликовал обновление, не обновляется.
+ */
+public class RefreshAheadPolicy {
+    private static final Logger log = LoggerFactory.getLogger(RefreshAheadPolicy.class);
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final boolean enabled;
+    private final Duration hardTtl;
+    private final double beta;
+    private final RateTtlPolicy ttlPolicy;
+    private final double softFraction;
+    private final DoubleSupplier random;
+
+    private final AtomicLong fetchLatencyNanos = new AtomicLong();
+
+    public RefreshAheadPolicy(boolean enabled, Duration softTtl, Duration hardTtl, double beta) {
+        this(enabled, softTtl, hardTtl, beta, null, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param ttlPolicy срок хранения каждой записи; soft TTL записи отсчитывается от него
+     */
+    public RefreshAheadPolicy(boolean enabled, Duration softTtl, Duration hardTtl, double beta, RateTtlPolicy ttlPolicy) {
+        this(enabled, softTtl, hardTtl, beta, ttlPolicy, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RefreshAheadPolicy(boolean enabled, Duration softTtl, Duration hardTtl, double beta, DoubleSupplier random) {
+        this(enabled, softTtl, hardTtl, beta, null, random);
+    }
+
+    RefreshAheadPolicy(boolean enabled, Duration softTtl, Duration hardTtl, double beta, RateTtlPolicy ttlPolicy,
+                       DoubleSupplier random) {
+        this.enabled = enabled;
+        this.hardTtl = enabled && hardTtl.compareTo(softTtl) > 0 ? hardTtl : softTtl;
+        this.beta = beta;
+        this.ttlPolicy = ttlPolicy != null ? ttlPolicy : RateTtlPolicy.fixed(this.hardTtl);
+        this.softFraction = (double) softTtl.toNanos() / this.hardTtl.toNanos();
+        this.random = random;
+
+        if (enabled) {
+            log.info("Refresh-ahead enabled with soft TTL: {}, hard TTL: {}, beta: {}, entry TTL: {}",
+                softTtl, this.hardTtl, beta, this.ttlPolicy);
+        }
+    }
+
+    public static RefreshAheadPolicy disabled(Duration ttl) {
+        return new RefreshAheadPolicy(false, ttl, ttl, 0.0);
+    }
+
+    /**
+     * Время хранения записи в кэше
+     */
+    public Duration retention() {
+        return hardTtl;
+    }
+
+    /**
+     * Нужно ли обновить в фоне курс, отданный из кэша
+     */
+    public boolean shouldRefresh(ExchangeRate rate) {
+        if (!enabled) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (rate.validUntil() != null && rate.validUntil().isAfter(now)) {
+            return false;
+        }
+
+        long ageNanos = Duration.between(rate.timestamp(), now).toNanos();
+        long softTtlNanos = (long) (ttlPolicy.ttl(rate).toNanos() * softFraction);
+        if (ageNanos >= softTtlNanos) {
+            return true;
+        }
+        if (beta == 0.0) {
+            return false;
+        }
+
+        double gap = fetchLatencyNanos.get() * beta * -Math.log(1.0 - random.getAsDouble());
+        return ageNanos + gap >= softTtlNanos;
+    }
+
+    public void recordFetchLatency(Duration latency) {
+        long sample = latency.toNanos();
+        fetchLatencyNanos.accumulateAndGet(sample, (current, next) -> current == 0
+            ? next
+            : (long) (current + LATENCY_SMOOTHING * (next - current)));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,64 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Объединение одновременных запросов по ключу.
+ * <p>
+ * Первый вызов для ключа запускает загрузку, остальные вызовы до ее завершения
+ * подписываются на тот же {@link Mono} и получают тот же результат или ту же ошибку.
+ * После завершения загрузки ключ освобождается, и следующий вызов запускает новую.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип результата
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    /**
+     * @param operation имя операции для тега метрик
+     */
+    public SingleFlight(String operation, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("rates.cache.upstream.requests")
+            .description("Cache misses that started an upstream request")
+            .tag("operation", operation)
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("rates.cache.coalesced.requests")
+            .description("Cache misses that joined an in-flight upstream request")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<V>> created = new AtomicReference<>();
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                Mono<V> mono = Mono.defer(loader)
+                    .doFinally(signal -> inFlight.remove(k, created.get()))
+                    .cache();
+                created.set(mono);
+                return mono;
+            });
+
+            if (shared == created.get()) {
+                leaders.increment();
+            } else {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
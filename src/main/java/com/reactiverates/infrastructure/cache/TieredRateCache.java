@@ -0,0 +1,211 @@
+package com.reactiverates.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateCache;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Двухуровневый кэш: локальный Caffeine (L1) перед общим Redis (L2).
+ * <p>
+ * Чтение сначала идет в L1, при промахе — в L2, и найденный курс копируется в L1.
+ * Запись и удаление выполняются в обоих уровнях, после чего в канал Redis pub/sub
+ * публикуется сообщение, по которому остальные экземпляры удаляют ключи из своих L1.
+ * Сообщения доставляются не более одного раза, поэтому расхождение L1 дополнительно
+ * ограничено его временем жизни, а после переподключения к каналу L1 очищается целиком.
+ */
+public class TieredRateCache implements RateCache, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TieredRateCache.class);
+
+    private static final String EVICT = "EVICT";
+    private static final String CLEAR = "CLEAR";
+
+    private final CaffeineRateCache local;
+    private final RateCache remote;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile Disposable subscription;
+
+    public TieredRateCache(CaffeineRateCache local, RateCache remote,
+                           ReactiveStringRedisTemplate redisTemplate, String channel) {
+        this.local = local;
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+
+        log.info("Initialized TieredRateCache, invalidation channel: {}, instance: {}", channel, instanceId);
+    }
+
+    /**
+     * Подписывается на канал инвалидации
+     */
+    public TieredRateCache start() {
+        subscription = redisTemplate.listenToChannel(channel)
+            .doOnError(error -> {
+                log.warn("Invalidation channel {} failed, clearing local cache: {}", channel, error.getMessage());
+                local.clearAll().subscribe();
+            })
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+            .concatMap(message -> onInvalidation(message.getMessage()))
+            .subscribe();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * Локальный уровень кэша
+     */
+    public CaffeineRateCache local() {
+        return local;
+    }
+
+    @Override
+    public Mono<ExchangeRate> getRate(String fromCurrency, String toCurrency) {
+        return local.getRate(fromCurrency, toCurrency)
+            .switchIfEmpty(Mono.defer(() -> remote.getRate(fromCurrency, toCurrency)
+                .flatMap(rate -> local.putRate(rate).thenReturn(rate))));
+    }
+
+    @Override
+    public Flux<ExchangeRate> getRates(String baseCurrency, Set<String> targetCurrencies) {
+        return local.getRates(baseCurrency, targetCurrencies)
+            .collectList()
+            .flatMapMany(cached -> {
+                Set<String> missing = new HashSet<>(targetCurrencies);
+                cached.forEach(rate -> missing.remove(rate.toCurrency().code()));
+                if (missing.isEmpty()) {
+                    return Flux.fromIterable(cached);
+                }
+                Flux<ExchangeRate> loaded = remote.getRates(baseCurrency, missing)
+                    .collectList()
+                    .flatMapMany(rates -> local.putRates(rates).thenMany(Flux.fromIterable(rates)));
+                return Flux.fromIterable(cached).concatWith(loaded);
+            });
+    }
+
+    @Override
+    public Mono<Void> putRate(ExchangeRate rate) {
+        return local.putRate(rate)
+            .then(remote.putRate(rate))
+            .then(publish(EVICT, key(rate)));
+    }
+
+    @Override
+    public Mono<Void> putRates(Collection<ExchangeRate> rates) {
+        if (rates.isEmpty()) {
+            return Mono.empty();
+        }
+        String keys = rates.stream().map(TieredRateCache::key).collect(Collectors.joining(","));
+        return local.putRates(rates)
+            .then(remote.putRates(rates))
+            .then(publish(EVICT, keys));
+    }
+
+    @Override
+    public Mono<Void> putTable(String baseCurrency, Collection<ExchangeRate> table) {
+        if (table.isEmpty()) {
+            return Mono.empty();
+        }
+        String keys = table.stream().map(TieredRateCache::key).collect(Collectors.joining(","));
+        return local.putTable(baseCurrency, table)
+            .then(remote.putTable(baseCurrency, table))
+            .then(publish(EVICT, keys));
+    }
+
+    @Override
+    public Mono<Void> clearAll() {
+        return local.clearAll()
+            .then(remote.clearAll())
+            .then(publish(CLEAR, ""));
+    }
+
+    @Override
+    public Mono<Void> evict(String fromCurrency, String toCurrency) {
+        return local.evict(fromCurrency, toCurrency)
+            .then(remote.evict(fromCurrency, toCurrency))
+            .then(publish(EVICT, fromCurrency + "->" + toCurrency));
+    }
+
+    /**
+     * Попадания L2 — это промахи L1, поэтому общее число попаданий складывается из попаданий
+     * обоих уровней, а промахом считается только промах L2
+     */
+    @Override
+    public Mono<CacheStats> getStats() {
+        return Mono.zip(local.getStats(), remote.getStats())
+            .map(stats -> {
+                CacheStats l1 = stats.getT1();
+                CacheStats l2 = stats.getT2();
+                long hits = l1.hitCount() + l2.hitCount();
+                long misses = l2.missCount();
+                long total = hits + misses;
+
+                Map<String, CacheStats> tiers = new LinkedHashMap<>();
+                tiers.put("l1", l1);
+                tiers.put("l2", l2);
+                return new CacheStats(hits, misses, l1.evictionCount() + l2.evictionCount(), l2.estimatedSize(),
+                    total > 0 ? (double) hits / total : 0.0, tiers);
+            });
+    }
+
+    private Mono<Void> publish(String operation, String keys) {
+        return redisTemplate.convertAndSend(channel, instanceId + "|" + operation + "|" + keys)
+            .doOnNext(receivers -> log.debug("Published {} {} to {} subscriber(s)", operation, keys, receivers))
+            .onErrorResume(error -> {
+                log.warn("Failed to publish cache invalidation {} {}: {}", operation, keys, error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private Mono<Void> onInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || parts[0].equals(instanceId)) {
+            return Mono.empty();
+        }
+
+        if (CLEAR.equals(parts[1])) {
+            log.debug("Clearing local cache on invalidation from {}", parts[0]);
+            return local.clearAll();
+        }
+
+        return Flux.fromArray(parts[2].split(","))
+            .map(key -> key.split("->", 2))
+            .filter(pair -> pair.length == 2)
+            .concatMap(pair -> local.evict(pair[0], pair[1]))
+            .then()
+            .onErrorResume(error -> {
+                log.warn("Failed to apply cache invalidation {}: {}", message, error.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private static String key(ExchangeRate rate) {
+        return rate.fromCurrency().code() + "->" + rate.toCurrency().code();
+    }
+}
@@ -4,6 +4,8 @@ import com.reactiverates.domain.exception.ExternalApiException;
 import com.reactiverates.domain.model.HistoricalExchangeRate;
 import com.reactiverates.domain.service.HistoricalRateProvider;
 import com.reactiverates.infrastructure.config.BaseHistoricalRateProvider;
+import com.reactiverates.infrastructure.health.ProviderHealthRegistry;
+import com.reactiverates.infrastructure.ratelimit.UpstreamBudgetRegistry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,10 +14,13 @@ import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Primary
@@ -23,76 +28,134 @@ import java.util.stream.Collectors;
 public class ChainedHistoricalRateProvider implements HistoricalRateProvider {
     private static final Logger log = LoggerFactory.getLogger(ChainedHistoricalRateProvider.class);
     private final List<HistoricalRateProvider> providers;
+    private final ProviderHealthRegistry healthRegistry;
+    private final UpstreamBudgetRegistry budgets;
 
-    public ChainedHistoricalRateProvider(@BaseHistoricalRateProvider List<HistoricalRateProvider> providers) {
+    public ChainedHistoricalRateProvider(
+            @BaseHistoricalRateProvider List<HistoricalRateProvider> providers,
+            ProviderHealthRegistry healthRegistry,
+            UpstreamBudgetRegistry budgets) {
         this.providers = providers.stream()
             .sorted(Comparator.comparingInt(HistoricalRateProvider::getMaxHistoryDays).reversed())
             .collect(Collectors.toList());
+        this.healthRegistry = healthRegistry;
+        this.budgets = budgets;
+        this.providers.forEach(provider -> healthRegistry.register(provider.getProviderName()));
     }
 
     @Override
     public Flux<HistoricalExchangeRate> getHistoricalRates(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate) {
-        return Flux.fromIterable(providers)
-            .concatMap(provider -> provider.isAvailable()
-                .filter(Boolean::booleanValue)
-                .doOnNext(available -> log.debug("Provider {} is available, attempting to fetch historical rates.", provider.getProviderName()))
-                .flatMapMany(available -> provider.getHistoricalRates(fromCurrency, toCurrency, startDate, endDate)
-                    .doOnNext(rate -> log.info("Successfully got historical rate from {}", provider.getProviderName()))
-                    .doOnError(err -> log.warn("Provider {} failed to get historical rates for {}->{}. Reason: {}",
-                        provider.getProviderName(), fromCurrency, toCurrency, err.getMessage()))
-                )
-                .onErrorResume(err -> {
-                    log.warn("Switching to next provider due to error in {}: {}", provider.getProviderName(), err.getMessage());
-                    return Flux.empty();
-                })
-            )
-            .switchIfEmpty(Flux.error(new ExternalApiException("All historical rate providers are unavailable or failed to provide rates.")));
+        return firstNonEmpty(
+            provider -> provider.getHistoricalRates(fromCurrency, toCurrency, startDate, endDate),
+            fromCurrency + "->" + toCurrency,
+            "All historical rate providers are unavailable or failed to provide rates.");
+    }
+
+    @Override
+    public Flux<HistoricalExchangeRate> getHistoricalRatesForTargets(String fromCurrency, Set<String> toCurrencies,
+                                                                    LocalDate startDate, LocalDate endDate) {
+        return firstNonEmpty(
+            provider -> provider.getHistoricalRatesForTargets(fromCurrency, toCurrencies, startDate, endDate),
+            fromCurrency + "->" + toCurrencies,
+            "All historical rate providers are unavailable or failed to provide rates.");
     }
 
     @Override
     public Flux<HistoricalExchangeRate> getHistoricalRatesForDates(String fromCurrency, String toCurrency, Set<LocalDate> dates) {
-        return Flux.fromIterable(providers)
-            .concatMap(provider -> provider.isAvailable()
-                .filter(Boolean::booleanValue)
-                .doOnNext(available -> log.debug("Provider {} is available, attempting to fetch historical rates for dates.", provider.getProviderName()))
-                .flatMapMany(available -> provider.getHistoricalRatesForDates(fromCurrency, toCurrency, dates)
-                    .doOnNext(rate -> log.info("Successfully got historical rate from {}", provider.getProviderName()))
-                    .doOnError(err -> log.warn("Provider {} failed to get historical rates for dates for {}->{}. Reason: {}",
-                        provider.getProviderName(), fromCurrency, toCurrency, err.getMessage()))
-                )
-                .onErrorResume(err -> {
-                    log.warn("Switching to next provider due to error in {}: {}", provider.getProviderName(), err.getMessage());
-                    return Flux.empty();
-                })
-            )
-            .switchIfEmpty(Flux.error(new ExternalApiException("All historical rate providers are unavailable or failed to provide rates for dates.")));
+        return firstNonEmpty(
+            provider -> provider.getHistoricalRatesForDates(fromCurrency, toCurrency, dates),
+            fromCurrency + "->" + toCurrency,
+            "All historical rate providers are unavailable or failed to provide rates for dates.");
+    }
+
+    /**
+     * Возвращает курсы первого провайдера, ответившего непустым результатом. Ответ провайдера
+     * собирается целиком, чтобы ошибка на середине потока не смешивала его курсы с курсами следующего.
+     */
+    private Flux<HistoricalExchangeRate> firstNonEmpty(Function<HistoricalRateProvider, Flux<HistoricalExchangeRate>> request,
+                                                       String pair, String errorMessage) {
+        return Mono.defer(() -> {
+                List<HistoricalRateProvider> chain = usableProviders();
+                return Flux.fromIterable(chain)
+                    .concatMap(provider -> timed(provider, chain == providers, () -> request.apply(provider))
+                        .doOnSubscribe(subscription -> log.debug("Attempting to fetch historical rates from {}.", provider.getProviderName()))
+                        .collectList()
+                        .doOnNext(rates -> {
+                            if (!rates.isEmpty()) {
+                                log.info("Successfully got {} historical rates from {}", rates.size(), provider.getProviderName());
+                            }
+                        })
+                        .doOnError(err -> {
+                            healthRegistry.recordFailure(provider.getProviderName(), err);
+                            log.warn("Provider {} failed to get historical rates for {}. Reason: {}",
+                                provider.getProviderName(), pair, err.getMessage());
+                        })
+                        .onErrorResume(err -> {
+                            log.warn("Switching to next provider due to error in {}: {}", provider.getProviderName(), err.getMessage());
+                            return Mono.empty();
+                        })
+                        .filter(rates -> !rates.isEmpty())
+                    )
+                    .next();
+            })
+            .flatMapIterable(rates -> rates)
+            .switchIfEmpty(Flux.error(new ExternalApiException(errorMessage)));
     }
 
     @Override
     public Mono<HistoricalExchangeRate> getHistoricalRate(String fromCurrency, String toCurrency, LocalDate date) {
-        return Flux.fromIterable(providers)
-            .concatMap(provider -> provider.isAvailable()
-                .filter(Boolean::booleanValue)
-                .doOnNext(available -> log.debug("Provider {} is available, attempting to fetch historical rate.", provider.getProviderName()))
-                .flatMap(available -> provider.getHistoricalRate(fromCurrency, toCurrency, date)
-                    .doOnSuccess(rate -> log.info("Successfully got historical rate from {}", provider.getProviderName()))
-                    .doOnError(err -> log.warn("Provider {} failed to get historical rate for {}->{}. Reason: {}",
-                        provider.getProviderName(), fromCurrency, toCurrency, err.getMessage()))
-                )
-                .onErrorResume(err -> {
-                    log.warn("Switching to next provider due to error in {}: {}", provider.getProviderName(), err.getMessage());
-                    return Mono.empty();
-                })
-            )
-            .next()
+        return Mono.defer(() -> {
+                List<HistoricalRateProvider> chain = usableProviders();
+                return Flux.fromIterable(chain)
+                    .concatMap(provider -> timed(provider, chain == providers, () -> provider.getHistoricalRate(fromCurrency, toCurrency, date).flux())
+                        .next()
+                        .doOnSubscribe(subscription -> log.debug("Attempting to fetch historical rate from {}.", provider.getProviderName()))
+                        .doOnNext(rate -> {
+                            log.info("Successfully got historical rate from {}", provider.getProviderName());
+                        })
+                        .doOnError(err -> {
+                            healthRegistry.recordFailure(provider.getProviderName(), err);
+                            log.warn("Provider {} failed to get historical rate for {}->{}. Reason: {}",
+                                provider.getProviderName(), fromCurrency, toCurrency, err.getMessage());
+                        })
+                        .onErrorResume(err -> {
+                            log.warn("Switching to next provider due to error in {}: {}", provider.getProviderName(), err.getMessage());
+                            return Mono.empty();
+                        })
+                    )
+                    .next();
+            })
             .switchIfEmpty(Mono.error(new ExternalApiException("All historical rate providers are unavailable or failed to provide a rate.")));
     }
 
+    /**
+     * Выполняет запрос в пределах бюджета провайдера и отмечает его успешное завершение
+     * вместе с длительностью. Если бюджет исчерпан или автомат провайдера не пропускает запрос,
+     * возвращает пустой поток. Разрешение автомата занимается непосредственно перед запросом,
+     * чтобы пробный запрос HALF_OPEN доставался только опрашиваемому провайдеру; при переборе
+     * всей цепочки автоматы не проверяются.
+     */
+    private Flux<HistoricalExchangeRate> timed(HistoricalRateProvider provider, boolean fullChain,
+                                               Supplier<Flux<HistoricalExchangeRate>> request) {
+        if (!fullChain && !healthRegistry.allowRequest(provider.getProviderName())) {
+            log.debug("Circuit of {} does not allow a request right now, skipping it.", provider.getProviderName());
+            return Flux.empty();
+        }
+        return budgets.guardMany(provider.getProviderName(), () -> {
+            long startedAt = System.nanoTime();
+            return request.get()
+                .doOnComplete(() -> healthRegistry.recordSuccess(provider.getProviderName(),
+                    Duration.ofNanos(System.nanoTime() - startedAt)));
+        });
+    }
+
+    /**
+     * Возвращает доступность по данным {@link ProviderHealthRegistry}, без сетевых запросов
+     */
     @Override
     public Mono<Boolean> isAvailable() {
-        return Flux.fromIterable(providers)
-            .flatMap(HistoricalRateProvider::isAvailable)
-            .any(Boolean::booleanValue);
+        return Mono.fromSupplier(() -> providers.stream()
+            .anyMatch(provider -> healthRegistry.isUsable(provider.getProviderName())));
     }
 
     @Override
@@ -113,4 +176,20 @@ public class ChainedHistoricalRateProvider implements HistoricalRateProvider {
             )
             .hasElements();
     }
+
+    /**
+     * Провайдеры с замкнутым автоматом, упорядоченные по полосе приоритета и наблюдаемой стоимости.
+     * Приоритетом служит глубина истории: провайдеры с более длинной историей идут раньше.
+     * Если автоматы разомкнуты у всех, пробуем всю цепочку, чтобы ложное срабатывание
+     * не превращалось в полный отказ.
+     */
+    private List<HistoricalRateProvider> usableProviders() {
+        List<HistoricalRateProvider> usable = healthRegistry.rank(providers,
+            HistoricalRateProvider::getProviderName, provider -> -provider.getMaxHistoryDays());
+        if (usable.isEmpty()) {
+            log.warn("All historical rate providers are marked as unavailable, trying the full chain.");
+            return providers;
+        }
+        return usable;
+    }
 } 
\ No newline at end of file
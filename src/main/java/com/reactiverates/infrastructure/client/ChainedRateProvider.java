@@ -1,19 +1,35 @@
 package com.reactiverates.infrastructure.client;
 
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
 import com.reactiverates.domain.exception.ExternalApiException;
 import com.reactiverates.domain.model.ExchangeRate;
 import com.reactiverates.domain.service.RateProvider;
 import com.reactiverates.infrastructure.config.BaseRateProvider;
+import com.reactiverates.infrastructure.config.HedgingProperties;
+import com.reactiverates.infrastructure.health.ProviderHealthRegistry;
+import com.reactiverates.infrastructure.metrics.Outcome;
+import com.reactiverates.infrastructure.metrics.OutcomeTimers;
+import com.reactiverates.infrastructure.metrics.PairClass;
+import com.reactiverates.infrastructure.ratelimit.UpstreamBudgetRegistry;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Component
@@ -22,11 +38,49 @@ public class ChainedRateProvider implements RateProvider {
     private static final Logger log = LoggerFactory.getLogger(ChainedRateProvider.class);
 
     private final List<RateProvider> providers;
+    private final ProviderHealthRegistry healthRegistry;
+    private final HedgingProperties hedging;
+    private final UpstreamBudgetRegistry budgets;
 
-    public ChainedRateProvider(@BaseRateProvider List<RateProvider> providers) {
+    private final Counter requests;
+    private final Counter hedgedRequests;
+    private final Counter hedgeWins;
+    private final Map<String, OutcomeTimers> rateTimers;
+    private final Map<String, OutcomeTimers> tableTimers;
+
+    public ChainedRateProvider(@BaseRateProvider List<RateProvider> providers, ProviderHealthRegistry healthRegistry,
+                               HedgingProperties hedging, UpstreamBudgetRegistry budgets, MeterRegistry meterRegistry) {
         this.providers = providers.stream()
             .sorted(Comparator.comparingInt(RateProvider::getPriority))
             .collect(Collectors.toList());
+        this.healthRegistry = healthRegistry;
+        this.hedging = hedging;
+        this.budgets = budgets;
+        this.providers.forEach(provider -> healthRegistry.register(provider.getProviderName()));
+
+        this.requests = Counter.builder("rates.provider.requests")
+            .description("Rate requests served by the provider chain")
+            .register(meterRegistry);
+        this.hedgedRequests = Counter.builder("rates.provider.hedged.requests")
+            .description("Rate requests that started a hedge request to the next provider")
+            .register(meterRegistry);
+        this.hedgeWins = Counter.builder("rates.provider.hedge.wins")
+            .description("Hedged rate requests answered by the hedge first")
+            .register(meterRegistry);
+        this.rateTimers = providerTimers("rate", meterRegistry);
+        this.tableTimers = providerTimers("table", meterRegistry);
+    }
+
+    /**
+     * Таймеры создаются заранее для каждого провайдера цепочки, чтобы замер не строил теги
+     */
+    private Map<String, OutcomeTimers> providerTimers(String operation, MeterRegistry meterRegistry) {
+        return providers.stream()
+            .map(RateProvider::getProviderName)
+            .distinct()
+            .collect(Collectors.toUnmodifiableMap(name -> name, name -> new OutcomeTimers(
+                "rates.provider.latency", "Upstream rate provider calls",
+                Tags.of("provider", name, "operation", operation), meterRegistry)));
     }
 
     @PostConstruct
@@ -37,39 +91,228 @@ public class ChainedRateProvider implements RateProvider {
             String providerChain = providers.stream()
                 .map(p -> String.format("%s(priority=%d)", p.getProviderName(), p.getPriority()))
                 .collect(Collectors.joining(" -> "));
-            log.info("Initialized ChainedRateProvider with chain: {}", providerChain);
+            log.info("Initialized ChainedRateProvider with chain: {}, hedging: {}", providerChain, hedging.enabled());
         }
     }
 
+    /**
+     * Если все опрошенные провайдеры ответили, что не знают валюту пары, возвращает
+     * {@link CurrencyNotFoundException}, иначе — {@link ExternalApiException}
+     */
     @Override
     public Mono<ExchangeRate> getCurrentRate(String fromCurrency, String toCurrency) {
-        return Flux.fromIterable(providers)
-            .concatMap(provider -> provider.isAvailable()
-                .filter(Boolean::booleanValue)
-                .doOnNext(available -> log.debug("Provider {} is available, attempting to fetch rate.", provider.getProviderName()))
-                .flatMap(available -> provider.getCurrentRate(fromCurrency, toCurrency)
-                    .doOnSuccess(rate -> log.info("Successfully got rate from {}", provider.getProviderName()))
-                    .doOnError(err -> log.warn("Provider {} failed to get rate for {}->{}. Reason: {}",
-                        provider.getProviderName(), fromCurrency, toCurrency, err.getMessage()))
-                )
+        return Mono.defer(() -> {
+            List<RateProvider> chain = usableProviders();
+            Attempts attempts = new Attempts(chain == providers);
+            requests.increment();
+            Mono<ExchangeRate> result = hedging.enabled() && chain.size() > 1
+                ? hedged(chain, fromCurrency, toCurrency, attempts)
+                : sequential(chain, fromCurrency, toCurrency, attempts);
+            return result.switchIfEmpty(Mono.error(() -> attempts.allUnsupported()
+                ? new CurrencyNotFoundException(fromCurrency, toCurrency)
+                : new ExternalApiException("All rate providers are unavailable or failed to provide a rate.")));
+        });
+    }
+
+    private Mono<ExchangeRate> sequential(List<RateProvider> chain, String fromCurrency, String toCurrency, Attempts attempts) {
+        return Flux.fromIterable(chain)
+            .concatMap(provider -> attempt(provider, fromCurrency, toCurrency, attempts))
+            .next();
+    }
+
+    /**
+     * Запрашивает основного провайдера, а если он не ответил за порог задержки, параллельно
+     * запускает остаток цепочки. Побеждает первый полученный курс, проигравший запрос отменяется.
+     * Если основной провайдер завершился ошибкой раньше порога, остаток цепочки запускается сразу.
+     */
+    private Mono<ExchangeRate> hedged(List<RateProvider> chain, String fromCurrency, String toCurrency, Attempts attempts) {
+        RateProvider primary = chain.get(0);
+        List<RateProvider> rest = chain.subList(1, chain.size());
+        Duration delay = hedgeDelay(primary);
+
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        Mono<ExchangeRate> primaryAttempt = attempt(primary, fromCurrency, toCurrency, attempts)
+            .switchIfEmpty(Mono.fromRunnable(primaryFailed::tryEmitEmpty));
+
+        Mono<ExchangeRate> hedgeAttempt = Mono.firstWithSignal(
+                Mono.delay(delay).doOnNext(tick -> {
+                    hedgedRequests.increment();
+                    log.debug("Provider {} did not answer within {}, hedging to the rest of the chain.",
+                        primary.getProviderName(), delay);
+                }).then(),
+                primaryFailed.asMono())
+            .then(Mono.defer(() -> sequential(rest, fromCurrency, toCurrency, attempts)))
+            .doOnNext(rate -> hedgeWins.increment());
+
+        return Mono.firstWithValue(primaryAttempt, hedgeAttempt)
+            .onErrorResume(NoSuchElementException.class, err -> Mono.empty());
+    }
+
+    private Duration hedgeDelay(RateProvider primary) {
+        if (hedging.delay() != null) {
+            return hedging.delay();
+        }
+        return healthRegistry.latencyPercentile(primary.getProviderName(), hedging.percentile())
+            .map(latency -> latency.compareTo(hedging.minDelay()) < 0 ? hedging.minDelay() : latency)
+            .map(latency -> latency.compareTo(hedging.maxDelay()) > 0 ? hedging.maxDelay() : latency)
+            .orElse(hedging.maxDelay());
+    }
+
+    /**
+     * Ответ «валюта не поддерживается» не считается сбоем провайдера: он ответил, и автомат не размыкается
+     */
+    private Mono<ExchangeRate> attempt(RateProvider provider, String fromCurrency, String toCurrency, Attempts attempts) {
+        OutcomeTimers timers = rateTimers.get(provider.getProviderName());
+        PairClass pairClass = PairClass.of(fromCurrency, toCurrency);
+        return Mono.defer(() -> {
+            if (!admit(provider, attempts.fullChain)) {
+                return Mono.empty();
+            }
+            long startedAt = System.nanoTime();
+            attempts.started.incrementAndGet();
+            return budgets.guard(provider.getProviderName(), () -> provider.getCurrentRate(fromCurrency, toCurrency))
+                .doOnSubscribe(subscription -> log.debug("Attempting to fetch rate from {}.", provider.getProviderName()))
+                .doOnNext(rate -> {
+                    healthRegistry.recordSuccess(provider.getProviderName(), Duration.ofNanos(System.nanoTime() - startedAt));
+                    timers.record(pairClass, Outcome.SUCCESS, startedAt);
+                    log.info("Successfully got rate from {}", provider.getProviderName());
+                })
+                .doOnError(CurrencyNotFoundException.class, err -> {
+                    attempts.unsupported.incrementAndGet();
+                    healthRegistry.recordSuccess(provider.getProviderName(), Duration.ofNanos(System.nanoTime() - startedAt));
+                    timers.record(pairClass, Outcome.EMPTY, startedAt);
+                })
+                .doOnError(err -> !(err instanceof CurrencyNotFoundException), err -> {
+                    healthRegistry.recordFailure(provider.getProviderName(), err);
+                    timers.record(pairClass, Outcome.ERROR, startedAt);
+                    log.warn("Provider {} failed to get rate for {}->{}. Reason: {}",
+                        provider.getProviderName(), fromCurrency, toCurrency, err.getMessage());
+                })
                 .onErrorResume(err -> {
                     log.warn("Switching to next provider due to error in {}: {}", provider.getProviderName(), err.getMessage());
                     return Mono.empty();
-                })
-            )
-            .next()
-            .switchIfEmpty(Mono.error(new ExternalApiException("All rate providers are unavailable or failed to provide a rate.")));
+                });
+        });
+    }
+
+    /**
+     * Берет таблицу курсов у первого провайдера, вернувшего непустой результат.
+     * Пустой поток означает, что провайдеры ответили, но таблицы не дали, и вызывающий код может
+     * запросить пары по одной. Если все опрошенные провайдеры ответили, что не знают базовую валюту,
+     * возвращается {@link CurrencyNotFoundException}; такой ответ, как и в запросе пары, не считается
+     * сбоем провайдера. Если же опрошенные провайдеры завершились ошибкой, возвращается
+     * {@link ExternalApiException}, чтобы сбой не превращался в повторный запрос по паре.
+     */
+    @Override
+    public Flux<ExchangeRate> getCurrentRates(String baseCurrency, Set<String> targetCurrencies) {
+        return Flux.defer(() -> {
+            List<RateProvider> chain = usableProviders();
+            AtomicInteger started = new AtomicInteger();
+            AtomicInteger unsupported = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+            return Flux.fromIterable(chain)
+                .concatMap(provider -> Mono.defer(() -> {
+                    if (!admit(provider, chain == providers)) {
+                        return Mono.<List<ExchangeRate>>empty();
+                    }
+                    started.incrementAndGet();
+                    OutcomeTimers timers = tableTimers.get(provider.getProviderName());
+                    long startedAt = System.nanoTime();
+                    return budgets.guardMany(provider.getProviderName(),
+                            () -> provider.getCurrentRates(baseCurrency, targetCurrencies))
+                        .collectList()
+                        .doOnNext(rates -> {
+                            timers.record(PairClass.TABLE, rates.isEmpty() ? Outcome.EMPTY : Outcome.SUCCESS, startedAt);
+                            if (!rates.isEmpty()) {
+                                healthRegistry.recordSuccess(provider.getProviderName());
+                                log.info("Successfully got {} rates for base {} from {}", rates.size(), baseCurrency, provider.getProviderName());
+                            }
+                        })
+                        .doOnError(CurrencyNotFoundException.class, err -> {
+                            unsupported.incrementAndGet();
+                            healthRegistry.recordSuccess(provider.getProviderName());
+                            timers.record(PairClass.TABLE, Outcome.EMPTY, startedAt);
+                            log.debug("Provider {} does not support base {}", provider.getProviderName(), baseCurrency);
+                        })
+                        .doOnError(err -> !(err instanceof CurrencyNotFoundException), err -> {
+                            failures.incrementAndGet();
+                            timers.record(PairClass.TABLE, Outcome.ERROR, startedAt);
+                            healthRegistry.recordFailure(provider.getProviderName(), err);
+                            log.warn("Provider {} failed to get rates for base {}. Reason: {}",
+                                provider.getProviderName(), baseCurrency, err.getMessage());
+                        })
+                        .onErrorResume(err -> Mono.empty())
+                        .filter(rates -> !rates.isEmpty());
+                }))
+                .next()
+                .flatMapIterable(rates -> rates)
+                .switchIfEmpty(Flux.defer(() -> {
+                    if (unsupported.get() > 0 && unsupported.get() == started.get()) {
+                        return Flux.error(new CurrencyNotFoundException(baseCurrency));
+                    }
+                    return failures.get() > 0 && failures.get() + unsupported.get() == started.get()
+                        ? Flux.error(new ExternalApiException("All rate providers failed to provide rates for base " + baseCurrency + "."))
+                        : Flux.empty();
+                }));
+        });
     }
 
+    /**
+     * Возвращает доступность по данным {@link ProviderHealthRegistry}, без сетевых запросов
+     */
     @Override
     public Mono<Boolean> isAvailable() {
-        return Flux.fromIterable(providers)
-            .flatMap(RateProvider::isAvailable)
-            .any(Boolean::booleanValue);
+        return Mono.fromSupplier(() -> providers.stream()
+            .anyMatch(provider -> healthRegistry.isUsable(provider.getProviderName())));
+    }
+
+    /**
+     * Провайдеры с замкнутым автоматом, упорядоченные по полосе приоритета и наблюдаемой стоимости.
+     * Если автоматы разомкнуты у всех, пробуем всю цепочку, чтобы ложное срабатывание
+     * не превращалось в полный отказ.
+     */
+    private List<RateProvider> usableProviders() {
+        List<RateProvider> usable = healthRegistry.rank(providers, RateProvider::getProviderName, RateProvider::getPriority);
+        if (usable.isEmpty()) {
+            log.warn("All rate providers are marked as unavailable, trying the full chain.");
+            return providers;
+        }
+        return usable;
+    }
+
+    /**
+     * Занимает разрешение автомата непосредственно перед обращением к провайдеру, чтобы пробный
+     * запрос HALF_OPEN доставался только провайдеру, которого действительно опрашивают.
+     * При переборе всей цепочки автоматы не проверяются.
+     */
+    private boolean admit(RateProvider provider, boolean fullChain) {
+        if (fullChain || healthRegistry.allowRequest(provider.getProviderName())) {
+            return true;
+        }
+        log.debug("Circuit of {} does not allow a request right now, skipping it.", provider.getProviderName());
+        return false;
     }
 
     @Override
     public String getProviderName() {
         return "Chained Rate Provider";
     }
+
+    /**
+     * Учет попыток одного запроса по цепочке
+     */
+    private static final class Attempts {
+        private final boolean fullChain;
+        private final AtomicInteger started = new AtomicInteger();
+        private final AtomicInteger unsupported = new AtomicInteger();
+
+        Attempts(boolean fullChain) {
+            this.fullChain = fullChain;
+        }
+
+        boolean allUnsupported() {
+            int count = unsupported.get();
+            return count > 0 && count == started.get();
+        }
+    }
 } 
\ No newline at end of file
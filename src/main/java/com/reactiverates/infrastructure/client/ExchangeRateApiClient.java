@@ -1,20 +1,32 @@
 package com.reactiverates.infrastructure.client;
 
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
 import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.domain.model.Currency;
 import com.reactiverates.domain.model.ExchangeRate;
 import com.reactiverates.domain.service.RateProvider;
-import com.reactiverates.infrastructure.client.dto.ExchangeRateApiResponse;
 import com.reactiverates.infrastructure.config.BaseRateProvider;
 import com.reactiverates.infrastructure.config.ExchangeRateApiConfig;
+import com.reactiverates.infrastructure.ratelimit.UpstreamBudgetRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @Component
 @BaseRateProvider
@@ -27,37 +39,83 @@ public class ExchangeRateApiClient implements RateProvider {
     private final WebClient webClient;
     private final ExchangeRateApiConfig config;
 
-    public ExchangeRateApiClient(@Qualifier("exchangeRateWebClient") WebClient webClient, ExchangeRateApiConfig config) {
+    public ExchangeRateApiClient(@Qualifier("exchangeRateWebClient") WebClient webClient, ExchangeRateApiConfig config,
+                                 UpstreamBudgetRegistry budgets) {
         this.webClient = webClient;
         this.config = config;
+        budgets.register(PROVIDER_NAME, config.rateLimit());
     }
 
     @Override
     public Mono<ExchangeRate> getCurrentRate(String fromCurrency, String toCurrency) {
         log.debug("[{}] Fetching rate: {} -> {}", PROVIDER_NAME, fromCurrency, toCurrency);
 
-        return webClient.get()
-            .uri("/v6/{apiKey}/latest/{from}", config.apiKey(), fromCurrency)
-            .retrieve()
-            .bodyToMono(ExchangeRateApiResponse.class)
-            .flatMap(response -> {
-                if (!response.isSuccess()) {
-                    String errorMsg = String.format("[%s] API error: %s", PROVIDER_NAME, response.errorType());
-                    log.error(errorMsg);
-                    return Mono.error(new ExternalApiException(errorMsg));
+        return fetchRateTable(fromCurrency, Set.of(toCurrency))
+            .flatMap(table -> {
+                double rate = table.rate(toCurrency);
+                if (Double.isNaN(rate)) {
+                    log.warn("[{}] Currency '{}' not found in response for base '{}'", PROVIDER_NAME, toCurrency, fromCurrency);
+                    return Mono.error(new CurrencyNotFoundException(fromCurrency, toCurrency));
                 }
 
-                BigDecimal rate = response.conversionRates().get(toCurrency);
-                if (rate == null) {
-                    String errorMsg = String.format("[%s] Currency '%s' not found in response for base '%s'", PROVIDER_NAME, toCurrency, fromCurrency);
-                    log.error(errorMsg);
-                    return Mono.error(new ExternalApiException(errorMsg));
-                }
+                return Mono.just(new ExchangeRate(Currency.of(fromCurrency), Currency.of(toCurrency),
+                    BigDecimal.valueOf(rate), LocalDateTime.now(), PROVIDER_NAME, validUntil(table)));
+            });
+    }
+
+    /**
+     * Эндпоинт {@code /latest/{from}} всегда возвращает всю таблицу курсов базовой валюты,
+     * поэтому любое количество пар с одной базой получается одним запросом
+     */
+    @Override
+    public Flux<ExchangeRate> getCurrentRates(String baseCurrency, Set<String> targetCurrencies) {
+        log.debug("[{}] Fetching rate table for {} (targets: {})", PROVIDER_NAME, baseCurrency,
+            targetCurrencies.isEmpty() ? "all" : targetCurrencies);
 
-                return Mono.just(ExchangeRate.of(fromCurrency, toCurrency, rate, PROVIDER_NAME));
+        return fetchRateTable(baseCurrency, targetCurrencies)
+            .flatMapMany(table -> {
+                Currency base = Currency.of(baseCurrency);
+                LocalDateTime fetchedAt = LocalDateTime.now();
+                LocalDateTime validUntil = validUntil(table);
+                List<ExchangeRate> rates = new ArrayList<>(table.size());
+                table.forEach((currency, rate) -> {
+                    if (!currency.equals(baseCurrency)) {
+                        rates.add(new ExchangeRate(base, Currency.of(currency), rate, fetchedAt, PROVIDER_NAME, validUntil));
+                    }
+                });
+                return Flux.fromIterable(rates);
             });
     }
 
+    /**
+     * Тело ответа разбирается потоково прямо из буферов Netty: в таблицу попадают только
+     * запрошенные валюты, остальные числа пропускаются без создания {@link BigDecimal}
+     */
+    private Mono<ExchangeRateTableDecoder.RateTable> fetchRateTable(String baseCurrency, Set<String> targetCurrencies) {
+        return DataBufferUtils.join(webClient.get()
+                .uri("/v6/{apiKey}/latest/{from}", config.apiKey(), baseCurrency)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .onErrorMap(WebClientResponseException.NotFound.class, error -> new CurrencyNotFoundException(baseCurrency)))
+            .map(buffer -> {
+                try {
+                    return ExchangeRateTableDecoder.decode(buffer, targetCurrencies);
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+            })
+            .doOnError(ExternalApiException.class, error -> log.error("[{}] {}", PROVIDER_NAME, error.getMessage()));
+    }
+
+    /**
+     * API публикует новую таблицу раз в сутки и сообщает время следующей публикации;
+     * до него запрос вернет те же курсы
+     */
+    private static LocalDateTime validUntil(ExchangeRateTableDecoder.RateTable table) {
+        Instant nextUpdate = table.nextUpdate();
+        return nextUpdate != null ? LocalDateTime.ofInstant(nextUpdate, ZoneId.systemDefault()) : null;
+    }
+
     @Override
     public Mono<Boolean> isAvailable() {
         return getCurrentRate("USD", "EUR")
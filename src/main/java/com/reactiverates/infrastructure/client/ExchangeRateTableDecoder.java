@@ -0,0 +1,199 @@
+package com.reactiverates.infrastructure.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
+import com.reactiverates.domain.exception.ExternalApiException;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Потоковый разбор ответа ExchangeRate-API {@code /latest/{base}} через токены Jackson.
+ * <p>
+ * Читает тело прямо из {@link DataBuffer}, без промежуточного DTO и {@code Map<String, BigDecimal>}.
+ * Числа для невостребованных валют не разбираются, а курсы нужных валют складываются
+ * в примитивный массив {@link RateTable} вместе со временем следующего обновления таблицы.
+ */
+public final class ExchangeRateTableDecoder {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private ExchangeRateTableDecoder() {
+    }
+
+    /**
+     * @param buffer  тело ответа целиком
+     * @param targets валюты, курсы которых нужно извлечь; пустое множество означает все валюты
+     * @throws CurrencyNotFoundException если API не поддерживает базовую валюту
+     * @throws ExternalApiException      если API вернуло другую ошибку или ответ не удалось разобрать
+     */
+    public static RateTable decode(DataBuffer buffer, Set<String> targets) {
+        try (InputStream input = buffer.asInputStream()) {
+            return decode(input, targets);
+        } catch (IOException e) {
+            throw new ExternalApiException("Failed to parse ExchangeRate-API response: " + e.getMessage(), e);
+        }
+    }
+
+    static RateTable decode(InputStream input, Set<String> targets) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ExternalApiException("ExchangeRate-API response is not a JSON object");
+            }
+
+            String result = null;
+            String errorType = null;
+            String baseCode = null;
+            long nextUpdate = 0;
+            RateTable rates = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "result" -> result = parser.getValueAsString();
+                    case "error-type" -> errorType = parser.getValueAsString();
+                    case "base_code" -> baseCode = parser.getValueAsString();
+                    case "time_next_update_unix" -> nextUpdate = value.isNumeric() ? parser.getLongValue() : 0;
+                    case "conversion_rates" -> rates = value == JsonToken.START_OBJECT ? readRates(parser, targets) : null;
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if ("unsupported-code".equalsIgnoreCase(errorType)) {
+                throw new CurrencyNotFoundException(baseCode != null ? baseCode : "unknown");
+            }
+            if (!"success".equalsIgnoreCase(result)) {
+                throw new ExternalApiException("API error: " + errorType);
+            }
+            return rates != null
+                ? rates.withHeader(baseCode, nextUpdate)
+                : new RateTable(baseCode, new String[0], new double[0], 0, nextUpdate);
+        }
+    }
+
+    private static RateTable readRates(JsonParser parser, Set<String> targets) throws IOException {
+        boolean all = targets.isEmpty();
+        int capacity = all ? 192 : targets.size();
+        String[] codes = new String[capacity];
+        double[] values = new double[capacity];
+        int size = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String code = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!value.isNumeric() || (!all && !targets.contains(code))) {
+                parser.skipChildren();
+                continue;
+            }
+
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            codes[size] = code;
+            values[size] = readDouble(parser);
+            size++;
+        }
+        return new RateTable(null, codes, values, size, 0);
+    }
+
+    /**
+     * Курсы приходят как короткие десятичные дроби, поэтому число собирается прямо из буфера
+     * символов парсера: мантисса до 2^53, деленная на точную степень десяти, дает корректно
+     * округленный double без промежуточной строки. Остальные случаи разбирает Jackson.
+     */
+    private static double readDouble(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int end = offset + parser.getTextLength();
+
+        long mantissa = 0;
+        int scale = -1;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c >= '0' && c <= '9' && mantissa < MAX_EXACT_MANTISSA) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return parser.getDoubleValue();
+            }
+        }
+        if (scale >= POWERS_OF_TEN.length || mantissa > MAX_EXACT_MANTISSA) {
+            return parser.getDoubleValue();
+        }
+        return scale <= 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * Таблица курсов одной базовой валюты в примитивном массиве
+     */
+    public static final class RateTable {
+        private final String baseCode;
+        private final String[] codes;
+        private final double[] rates;
+        private final int size;
+        private final long nextUpdateEpochSecond;
+
+        RateTable(String baseCode, String[] codes, double[] rates, int size, long nextUpdateEpochSecond) {
+            this.baseCode = baseCode;
+            this.codes = codes;
+            this.rates = rates;
+            this.size = size;
+            this.nextUpdateEpochSecond = nextUpdateEpochSecond;
+        }
+
+        private RateTable withHeader(String baseCode, long nextUpdateEpochSecond) {
+            return new RateTable(baseCode, codes, rates, size, nextUpdateEpochSecond);
+        }
+
+        public String baseCode() {
+            return baseCode;
+        }
+
+        /**
+         * Время следующего обновления таблицы ({@code time_next_update_unix}) или {@code null}, если API его не прислало
+         */
+        public Instant nextUpdate() {
+            return nextUpdateEpochSecond > 0 ? Instant.ofEpochSecond(nextUpdateEpochSecond) : null;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Курс для валюты или {@code NaN}, если ее нет в таблице
+         */
+        public double rate(String code) {
+            for (int i = 0; i < size; i++) {
+                if (codes[i].equals(code)) {
+                    return rates[i];
+                }
+            }
+            return Double.NaN;
+        }
+
+        public void forEach(BiConsumer<String, BigDecimal> action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(codes[i], BigDecimal.valueOf(rates[i]));
+            }
+        }
+    }
+}
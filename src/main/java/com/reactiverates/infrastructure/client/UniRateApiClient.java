@@ -1,5 +1,6 @@
 package com.reactiverates.infrastructure.client;
 
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
 import com.reactiverates.domain.exception.ExternalApiException;
 import com.reactiverates.domain.model.Currency;
 import com.reactiverates.domain.model.ExchangeRate;
@@ -7,7 +8,12 @@ import com.reactiverates.domain.service.RateProvider;
 import com.reactiverates.infrastructure.client.dto.UniRateApiResponse;
 import com.reactiverates.infrastructure.config.BaseRateProvider;
 import com.reactiverates.infrastructure.config.UniRateApiConfig;
+import com.reactiverates.infrastructure.ratelimit.UpstreamBudgetRegistry;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -22,15 +28,20 @@ import reactor.util.retry.Retry;
 @BaseRateProvider
 @ConditionalOnProperty(name = "mock-provider.enabled", havingValue = "false", matchIfMissing = true)
 public class UniRateApiClient implements RateProvider {
-    private static final String PROVIDER_NAME = "UniRateAPI";
+    private static final String PROVIDER_NAME = UniRateApiConfig.BUDGET_NAME;
     private static final Logger log = LoggerFactory.getLogger(UniRateApiClient.class);
+    private static final Pattern UNKNOWN_CURRENCY_ERROR = Pattern.compile(
+        "(invalid|unknown|unsupported)[^\"]*currenc|currenc[^\"]*(not found|not supported|invalid|unknown)",
+        Pattern.CASE_INSENSITIVE);
 
     private final WebClient webClient;
     private final UniRateApiConfig config;
 
-    public UniRateApiClient(@Qualifier("uniRateWebClient") WebClient webClient, UniRateApiConfig config) {
+    public UniRateApiClient(@Qualifier("uniRateWebClient") WebClient webClient, UniRateApiConfig config,
+                            UpstreamBudgetRegistry budgets) {
         this.webClient = webClient;
         this.config = config;
+        budgets.register(PROVIDER_NAME, config.rateLimit());
     }
 
     @Override
@@ -88,9 +99,11 @@ public class UniRateApiClient implements RateProvider {
             })
             .timeout(config.timeout())
             .retryWhen(Retry.backoff(2, config.connectTimeout())
+                .filter(error -> !isUnsupportedPair(error))
                 .doBeforeRetry(signal -> log.warn("[{}] Retrying request: {}", 
                     PROVIDER_NAME, signal.failure().getMessage()))
             )
+            .onErrorMap(UniRateApiClient::isUnsupportedPair, ex -> new CurrencyNotFoundException(fromCurrency, toCurrency))
             .onErrorMap(WebClientResponseException.class, ex -> {
                 String detailedError = String.format("%s API error (status: %d): %s", 
                     PROVIDER_NAME, ex.getStatusCode().value(), ex.getResponseBodyAsString());
@@ -102,13 +115,39 @@ public class UniRateApiClient implements RateProvider {
                 PROVIDER_NAME, fromCurrency, toCurrency, error.getMessage()));
     }
 
+    /**
+     * API не знает валюту пары, если ответил 404 или 400 с ошибкой о неизвестной валюте; повтор это не исправит.
+     * Остальные ответы 400 (неверный ключ, параметры запроса) считаются сбоем провайдера.
+     */
+    static boolean isUnsupportedPair(Throwable error) {
+        if (!(error instanceof WebClientResponseException response)) {
+            return false;
+        }
+        int status = response.getStatusCode().value();
+        return status == 404 || (status == 400 && UNKNOWN_CURRENCY_ERROR.matcher(response.getResponseBodyAsString()).find());
+    }
+
     private ExchangeRate mapToExchangeRate(UniRateApiResponse response) {
         return new ExchangeRate(
             Currency.of(response.base()),
             Currency.of(response.to()),
             response.rate(),
             LocalDateTime.now(),
-            PROVIDER_NAME
+            PROVIDER_NAME,
+            nextUpdate(config.updateInterval())
         );
     }
+
+    /**
+     * API не сообщает время следующего обновления, но обновляет курсы по расписанию
+     * на границах интервала {@code update-interval}, отсчитанного от начала эпохи
+     */
+    static LocalDateTime nextUpdate(Duration updateInterval) {
+        if (updateInterval == null || updateInterval.isZero() || updateInterval.isNegative()) {
+            return null;
+        }
+        long interval = updateInterval.toMillis();
+        long next = (System.currentTimeMillis() / interval + 1) * interval;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(next), ZoneId.systemDefault());
+    }
 }
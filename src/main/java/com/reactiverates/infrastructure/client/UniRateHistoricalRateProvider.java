@@ -0,0 +1,204 @@
+package com.reactiverates.infrastructure.client;
+
+import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.domain.model.HistoricalExchangeRate;
+import com.reactiverates.domain.service.HistoricalRateProvider;
+import com.reactiverates.infrastructure.client.dto.UniRateHistoricalTimeseriesResponse;
+import com.reactiverates.infrastructure.config.BaseHistoricalRateProvider;
+import com.reactiverates.infrastructure.config.UniRateApiConfig;
+import com.reactiverates.infrastructure.ratelimit.UpstreamBudgetRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Исторические курсы UniRateAPI через {@code /api/historical/timeseries}.
+ * <p>
+ * Один запрос возвращает курсы за целое окно дат сразу для нескольких целевых валют.
+ * Окна длиннее {@code historicalWindowDays} делятся на части, которые загружаются параллельно.
+ */
+@Component
+@BaseHistoricalRateProvider
+@ConditionalOnProperty(name = "mock-provider.enabled", havingValue = "false", matchIfMissing = true)
+public class UniRateHistoricalRateProvider implements HistoricalRateProvider {
+    private static final String PROVIDER_NAME = "UniRateAPI Timeseries";
+    private static final Logger log = LoggerFactory.getLogger(UniRateHistoricalRateProvider.class);
+
+    private final WebClient webClient;
+    private final UniRateApiConfig config;
+
+    public UniRateHistoricalRateProvider(@Qualifier("uniRateWebClient") WebClient webClient, UniRateApiConfig config,
+                                         UpstreamBudgetRegistry budgets) {
+        this.webClient = webClient;
+        this.config = config;
+        budgets.share(PROVIDER_NAME, UniRateApiConfig.BUDGET_NAME, config.rateLimit());
+    }
+
+    @Override
+    public Flux<HistoricalExchangeRate> getHistoricalRates(String fromCurrency, String toCurrency, LocalDate startDate, LocalDate endDate) {
+        return getHistoricalRatesForTargets(fromCurrency, Set.of(toCurrency), startDate, endDate);
+    }
+
+    @Override
+    public Flux<HistoricalExchangeRate> getHistoricalRatesForTargets(String fromCurrency, Set<String> toCurrencies,
+                                                                    LocalDate startDate, LocalDate endDate) {
+        List<Window> windows = split(startDate, endDate);
+        log.debug("[{}] Fetching timeseries {} -> {}, {} - {} in {} request(s)",
+            PROVIDER_NAME, fromCurrency, toCurrencies, startDate, endDate, windows.size());
+
+        return Flux.fromIterable(windows)
+            .flatMapSequential(window -> fetchTimeseries(fromCurrency, toCurrencies, window), config.historicalConcurrency());
+    }
+
+    /**
+     * Даты группируются в окна не длиннее {@code historicalWindowDays}: каждое окно начинается
+     * с первой незакрытой даты, поэтому разреженные даты не тянут за собой лишние годы истории
+     */
+    @Override
+    public Flux<HistoricalExchangeRate> getHistoricalRatesForDates(String fromCurrency, String toCurrency, Set<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return Flux.empty();
+        }
+
+        List<Window> windows = new ArrayList<>();
+        LocalDate windowStart = null;
+        LocalDate windowEnd = null;
+        for (LocalDate date : new TreeSet<>(dates)) {
+            if (windowStart != null && ChronoUnit.DAYS.between(windowStart, date) < config.historicalWindowDays()) {
+                windowEnd = date;
+                continue;
+            }
+            if (windowStart != null) {
+                windows.add(new Window(windowStart, windowEnd));
+            }
+            windowStart = date;
+            windowEnd = date;
+        }
+        windows.add(new Window(windowStart, windowEnd));
+
+        log.debug("[{}] Fetching {} dates {} -> {} in {} request(s)", PROVIDER_NAME, dates.size(), fromCurrency, toCurrency, windows.size());
+
+        return Flux.fromIterable(windows)
+            .flatMapSequential(window -> fetchTimeseries(fromCurrency, Set.of(toCurrency), window), config.historicalConcurrency())
+            .filter(rate -> dates.contains(rate.date()));
+    }
+
+    @Override
+    public Mono<HistoricalExchangeRate> getHistoricalRate(String fromCurrency, String toCurrency, LocalDate date) {
+        return fetchTimeseries(fromCurrency, Set.of(toCurrency), new Window(date, date)).next();
+    }
+
+    @Override
+    public Mono<Boolean> isAvailable() {
+        LocalDate today = LocalDate.now();
+        return fetchTimeseries("USD", Set.of("EUR"), new Window(today.minusDays(7), today.minusDays(1)))
+            .hasElements()
+            .onErrorReturn(false)
+            .doOnNext(available -> log.debug("[{}] Availability check: {}", PROVIDER_NAME, available));
+    }
+
+    @Override
+    public String getProviderName() {
+        return PROVIDER_NAME;
+    }
+
+    @Override
+    public int getMaxHistoryDays() {
+        return config.historicalMaxDays();
+    }
+
+    @Override
+    public Mono<Boolean> supportsHistoricalData(String fromCurrency, String toCurrency) {
+        return Mono.just(true);
+    }
+
+    private List<Window> split(LocalDate startDate, LocalDate endDate) {
+        List<Window> windows = new ArrayList<>();
+        LocalDate windowStart = startDate;
+        while (!windowStart.isAfter(endDate)) {
+            LocalDate windowEnd = windowStart.plusDays(config.historicalWindowDays() - 1L);
+            if (windowEnd.isAfter(endDate)) {
+                windowEnd = endDate;
+            }
+            windows.add(new Window(windowStart, windowEnd));
+            windowStart = windowEnd.plusDays(1);
+        }
+        return windows;
+    }
+
+    private Flux<HistoricalExchangeRate> fetchTimeseries(String fromCurrency, Set<String> toCurrencies, Window window) {
+        return webClient
+            .get()
+            .uri(builder -> {
+                var uriBuilder = builder.path("/api/historical/timeseries")
+                    .queryParam("start_date", window.start())
+                    .queryParam("end_date", window.end())
+                    .queryParam("base", fromCurrency)
+                    .queryParam("currencies", String.join(",", new TreeSet<>(toCurrencies)));
+
+                if (config.apiKey() != null && !config.apiKey().isBlank()) {
+                    uriBuilder.queryParam("api_key", config.apiKey());
+                }
+
+                return uriBuilder.build();
+            })
+            .retrieve()
+            .bodyToMono(UniRateHistoricalTimeseriesResponse.class)
+            .timeout(config.timeout())
+            .retryWhen(Retry.backoff(2, config.connectTimeout())
+                .filter(error -> !(error instanceof WebClientResponseException.BadRequest))
+                .doBeforeRetry(signal -> log.warn("[{}] Retrying request: {}",
+                    PROVIDER_NAME, signal.failure().getMessage()))
+            )
+            .onErrorMap(WebClientResponseException.class, ex -> {
+                String detailedError = String.format("%s API error (status: %d): %s",
+                    PROVIDER_NAME, ex.getStatusCode().value(), ex.getResponseBodyAsString());
+                return new ExternalApiException(detailedError, ex);
+            })
+            .flatMapMany(response -> {
+                if (!response.isValid()) {
+                    return Flux.empty();
+                }
+                return Flux.fromIterable(toRates(response, toCurrencies));
+            })
+            .doOnError(error -> log.error("[{}] Failed to fetch timeseries {} -> {}, {} - {}: {}",
+                PROVIDER_NAME, fromCurrency, toCurrencies, window.start(), window.end(), error.getMessage()));
+    }
+
+    private List<HistoricalExchangeRate> toRates(UniRateHistoricalTimeseriesResponse response, Set<String> toCurrencies) {
+        List<HistoricalExchangeRate> rates = new ArrayList<>();
+        response.data().entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(day -> {
+                LocalDate date = LocalDate.parse(day.getKey());
+                day.getValue().forEach((currency, rate) -> {
+                    if (toCurrencies.contains(currency) && !currency.equals(response.base()) && isPositive(rate)) {
+                        rates.add(HistoricalExchangeRate.of(response.base(), currency, rate, date, PROVIDER_NAME));
+                    }
+                });
+            });
+        return rates;
+    }
+
+    private static boolean isPositive(BigDecimal rate) {
+        return rate != null && rate.signum() > 0;
+    }
+
+    private record Window(LocalDate start, LocalDate end) { }
+}
@@ -7,6 +7,8 @@ import java.util.Map;
 public record ExchangeRateApiResponse(
     String result,
     @JsonProperty("base_code") String baseCode,
+    @JsonProperty("time_last_update_unix") Long timeLastUpdateUnix,
+    @JsonProperty("time_next_update_unix") Long timeNextUpdateUnix,
     @JsonProperty("conversion_rates") Map<String, BigDecimal> conversionRates,
     @JsonProperty("error-type") String errorType
 ) {
@@ -0,0 +1,56 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Настройки TTL кэша, подстраиваемого под волатильность пары
+ *
+ * @param enabled    Включен ли адаптивный TTL; иначе все пары хранятся одинаково
+ * @param minTtl     Нижняя граница TTL
+ * @param maxTtl     Верхняя граница TTL
+ * @param tolerance  Допустимое относительное изменение курса за время хранения, например {@code 0.0005} — 5 б.п.
+ * @param alpha      Вес нового замера в экспоненциальном среднем скорости изменения курса
+ * @param minSamples Сколько изменений курса нужно наблюдать, прежде чем TTL пары начнет подстраиваться
+ * @param overrides  Фиксированный TTL для отдельных пар; ключ — пара в виде {@code USD-EUR}
+ */
+@ConfigurationProperties(prefix = "reactive-rates.cache.adaptive-ttl")
+public record AdaptiveTtlProperties(
+    Boolean enabled,
+    Duration minTtl,
+    Duration maxTtl,
+    Double tolerance,
+    Double alpha,
+    Integer minSamples,
+    Map<String, Duration> overrides
+) {
+    public Boolean enabled() {
+        return enabled != null ? enabled : Boolean.FALSE;
+    }
+
+    public Duration minTtl() {
+        return minTtl != null ? minTtl : Duration.ofSeconds(30);
+    }
+
+    public Duration maxTtl() {
+        return maxTtl != null && maxTtl.compareTo(minTtl()) >= 0 ? maxTtl : Duration.ofHours(1);
+    }
+
+    public Double tolerance() {
+        return tolerance != null && tolerance > 0 ? tolerance : 0.0005;
+    }
+
+    public Double alpha() {
+        return alpha != null && alpha > 0 && alpha <= 1 ? alpha : 0.3;
+    }
+
+    public Integer minSamples() {
+        return minSamples != null && minSamples > 0 ? minSamples : 3;
+    }
+
+    public Map<String, Duration> overrides() {
+        return overrides != null ? overrides : Map.of();
+    }
+}
@@ -2,6 +2,7 @@ package com.reactiverates.infrastructure.config;
 
 import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -9,10 +10,28 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.reactiverates.domain.service.RateCache;
+import com.reactiverates.domain.service.RateMatrix;
+import com.reactiverates.infrastructure.cache.AdaptiveTtlPolicy;
 import com.reactiverates.infrastructure.cache.CaffeineRateCache;
+import com.reactiverates.infrastructure.cache.DenseRateMatrix;
+import com.reactiverates.infrastructure.cache.NegativeRateCache;
+import com.reactiverates.infrastructure.cache.ProviderScheduleTtlPolicy;
+import com.reactiverates.infrastructure.cache.RateTtlPolicy;
+import com.reactiverates.infrastructure.cache.RefreshAheadPolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
-@EnableConfigurationProperties(CacheConfig.CacheProperties.class)
+@EnableConfigurationProperties({
+    CacheConfig.CacheProperties.class,
+    RateMatrixProperties.class,
+    RefreshAheadProperties.class,
+    CacheWarmupProperties.class,
+    NegativeCacheProperties.class,
+    AdaptiveTtlProperties.class,
+    RateSnapshotProperties.class,
+    RateStreamProperties.class
+})
 public class CacheConfig {
     
     /**
@@ -20,8 +39,78 @@ public class CacheConfig {
      */
     @Bean
     @ConditionalOnProperty(name = "reactive-rates.cache.use-redis", havingValue = "false", matchIfMissing = true)
-    public RateCache caffeineRateCache(CacheProperties properties) {
-        return new CaffeineRateCache(properties.ttl(), properties.maxSize());
+    public RateCache caffeineRateCache(CacheProperties properties, RateTtlPolicy rateTtlPolicy) {
+        return new CaffeineRateCache(rateTtlPolicy, rateTtlPolicy.maxTtl(), properties.maxSize());
+    }
+
+    /**
+     * В режиме refresh-ahead кэши хранят курсы до hard TTL, а TTL кэша служит soft TTL.
+     * Soft TTL каждой записи — та же доля ее срока из {@link RateTtlPolicy}
+     */
+    @Bean
+    public RefreshAheadPolicy refreshAheadPolicy(CacheProperties cacheProperties, RefreshAheadProperties refreshAhead,
+                                                 RateTtlPolicy rateTtlPolicy) {
+        if (!refreshAhead.enabled()) {
+            return RefreshAheadPolicy.disabled(cacheProperties.ttl());
+        }
+        return new RefreshAheadPolicy(true, softTtl(cacheProperties, refreshAhead), retention(cacheProperties, refreshAhead),
+            refreshAhead.beta(), rateTtlPolicy);
+    }
+
+    /**
+     * Без адаптивного TTL все пары хранятся {@link RefreshAheadPolicy#retention()}; с ним этот срок
+     * используется для пар, по которым еще мало замеров, а в режиме refresh-ahead он же ограничивает
+     * адаптивный TTL сверху. Курс с объявленным провайдером временем
+     * следующего обновления хранится до него, но не дольше {@code max-provider-validity}; нулевое
+     * значение отключает учет расписания провайдеров.
+     */
+    @Bean
+    public RateTtlPolicy rateTtlPolicy(CacheProperties cacheProperties, RefreshAheadProperties refreshAhead,
+                                       AdaptiveTtlProperties adaptiveTtl, MeterRegistry meterRegistry,
+                                       @Value("${reactive-rates.cache.max-provider-validity:PT24H}") Duration maxProviderValidity) {
+        Duration retention = retention(cacheProperties, refreshAhead);
+        RateTtlPolicy policy;
+        if (!adaptiveTtl.enabled()) {
+            policy = RateTtlPolicy.fixed(retention);
+        } else {
+            Duration maxTtl = refreshAhead.enabled() ? shorter(adaptiveTtl.maxTtl(), retention) : adaptiveTtl.maxTtl();
+            policy = new AdaptiveTtlPolicy(retention, shorter(adaptiveTtl.minTtl(), maxTtl), maxTtl,
+                adaptiveTtl.tolerance(), adaptiveTtl.alpha(), adaptiveTtl.minSamples(), adaptiveTtl.overrides(),
+                meterRegistry);
+        }
+        return maxProviderValidity.isZero() ? policy : new ProviderScheduleTtlPolicy(policy, maxProviderValidity);
+    }
+
+    @Bean
+    public NegativeRateCache negativeRateCache(NegativeCacheProperties properties, MeterRegistry meterRegistry) {
+        return new NegativeRateCache(properties.enabled(), properties.unsupportedTtl(), properties.failureTtl(),
+            properties.maxSize(), meterRegistry);
+    }
+
+    @Bean
+    public RateMatrix rateMatrix(CacheProperties cacheProperties, RateMatrixProperties matrixProperties) {
+        Duration maxAge = matrixProperties.maxAge() != null ? matrixProperties.maxAge() : cacheProperties.ttl();
+        return new DenseRateMatrix(matrixProperties.capacity(), maxAge, matrixProperties.pivots());
+    }
+
+    private static Duration softTtl(CacheProperties cacheProperties, RefreshAheadProperties refreshAhead) {
+        return refreshAhead.softTtl() != null ? refreshAhead.softTtl() : cacheProperties.ttl();
+    }
+
+    /**
+     * Hard TTL в режиме refresh-ahead, иначе TTL кэша
+     */
+    private static Duration retention(CacheProperties cacheProperties, RefreshAheadProperties refreshAhead) {
+        if (!refreshAhead.enabled()) {
+            return cacheProperties.ttl();
+        }
+        Duration softTtl = softTtl(cacheProperties, refreshAhead);
+        Duration hardTtl = refreshAhead.hardTtl() != null ? refreshAhead.hardTtl() : softTtl.multipliedBy(3);
+        return hardTtl.compareTo(softTtl) > 0 ? hardTtl : softTtl;
+    }
+
+    private static Duration shorter(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
     }
 
     @ConfigurationProperties(prefix = "reactive-rates.cache")
@@ -0,0 +1,47 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки прогрева кэша курсов при старте
+ *
+ * @param enabled          Включен ли прогрев
+ * @param snapshotPath     Файл снимка локального кэша; пустое значение отключает снимки
+ * @param snapshotInterval Интервал периодической записи снимка; снимок также пишется при остановке
+ * @param hotPairs         Пары, которые прогреваются всегда, в формате {@code USD->EUR}
+ * @param maxPairs         Сколько пар из снимка и списка прогревается не более
+ * @param timeout          Сколько прогрев может задерживать готовность сервиса
+ */
+@ConfigurationProperties(prefix = "reactive-rates.cache.warmup")
+public record CacheWarmupProperties(
+    Boolean enabled,
+    Path snapshotPath,
+    Duration snapshotInterval,
+    List<String> hotPairs,
+    Integer maxPairs,
+    Duration timeout
+) {
+    public Boolean enabled() {
+        return enabled != null ? enabled : Boolean.FALSE;
+    }
+
+    public Duration snapshotInterval() {
+        return snapshotInterval != null && !snapshotInterval.isZero() ? snapshotInterval : Duration.ofMinutes(1);
+    }
+
+    public List<String> hotPairs() {
+        return hotPairs != null ? hotPairs : List.of();
+    }
+
+    public Integer maxPairs() {
+        return maxPairs != null && maxPairs > 0 ? maxPairs : 200;
+    }
+
+    public Duration timeout() {
+        return timeout != null ? timeout : Duration.ofSeconds(30);
+    }
+}
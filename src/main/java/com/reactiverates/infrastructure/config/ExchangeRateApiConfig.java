@@ -13,7 +13,9 @@ public record ExchangeRateApiConfig(
     @NotEmpty String apiKey,
     int priority,
     Duration timeout,
-    Duration connectTimeout
+    Duration connectTimeout,
+    UpstreamRateLimit rateLimit,
+    HttpPoolProperties pool
 ) {
     public Duration timeout() {
         return timeout != null ? timeout : Duration.ofSeconds(10);
@@ -22,4 +24,8 @@ public record ExchangeRateApiConfig(
     public Duration connectTimeout() {
         return connectTimeout != null ? connectTimeout : Duration.ofSeconds(5);
     }
+
+    public HttpPoolProperties pool() {
+        return pool != null ? pool : HttpPoolProperties.DEFAULTS;
+    }
 } 
\ No newline at end of file
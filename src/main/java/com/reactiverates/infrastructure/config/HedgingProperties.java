@@ -0,0 +1,40 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки хеджирования запросов к провайдерам курсов
+ *
+ * @param enabled    Включено ли хеджирование
+ * @param delay      Фиксированная задержка перед запросом к следующему провайдеру;
+ *                   если не задана, используется наблюдаемый p95 основного провайдера
+ * @param percentile Перцентиль задержки основного провайдера для адаптивного порога
+ * @param minDelay   Нижняя граница адаптивной задержки
+ * @param maxDelay   Верхняя граница адаптивной задержки; используется, пока нет замеров
+ */
+@ConfigurationProperties(prefix = "reactive-rates.hedging")
+public record HedgingProperties(
+    Boolean enabled,
+    Duration delay,
+    Double percentile,
+    Duration minDelay,
+    Duration maxDelay
+) {
+    public Boolean enabled() {
+        return enabled != null ? enabled : Boolean.FALSE;
+    }
+
+    public Double percentile() {
+        return percentile != null && percentile > 0 && percentile <= 1 ? percentile : 0.95;
+    }
+
+    public Duration minDelay() {
+        return minDelay != null ? minDelay : Duration.ofMillis(50);
+    }
+
+    public Duration maxDelay() {
+        return maxDelay != null ? maxDelay : Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,66 @@
+package com.reactiverates.infrastructure.config;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула соединений и HTTP-клиента одного провайдера
+ *
+ * @param maxConnections         Максимальное количество соединений в пуле
+ * @param pendingAcquireMaxCount Максимальная очередь ожидания соединения; при переполнении запрос сразу завершается ошибкой
+ * @param pendingAcquireTimeout  Максимальное время ожидания свободного соединения
+ * @param maxIdleTime            Время простоя, после которого соединение закрывается
+ * @param maxLifeTime            Максимальное время жизни соединения
+ * @param evictInterval          Интервал фоновой очистки простаивающих и устаревших соединений
+ * @param compress               Запрашивать ли сжатые ответы
+ * @param http2                  Использовать ли HTTP/2 для HTTPS-адресов, если сервер его поддерживает
+ * @param warmupConnections      Сколько соединений открыть заранее при старте приложения; 0 отключает прогрев
+ */
+public record HttpPoolProperties(
+    int maxConnections,
+    int pendingAcquireMaxCount,
+    Duration pendingAcquireTimeout,
+    Duration maxIdleTime,
+    Duration maxLifeTime,
+    Duration evictInterval,
+    Boolean compress,
+    Boolean http2,
+    Integer warmupConnections
+) {
+    public static final HttpPoolProperties DEFAULTS = new HttpPoolProperties(0, 0, null, null, null, null, null, null, null);
+
+    public int maxConnections() {
+        return maxConnections > 0 ? maxConnections : 50;
+    }
+
+    public int pendingAcquireMaxCount() {
+        return pendingAcquireMaxCount > 0 ? pendingAcquireMaxCount : 100;
+    }
+
+    public Duration pendingAcquireTimeout() {
+        return pendingAcquireTimeout != null ? pendingAcquireTimeout : Duration.ofSeconds(2);
+    }
+
+    public Duration maxIdleTime() {
+        return maxIdleTime != null ? maxIdleTime : Duration.ofSeconds(30);
+    }
+
+    public Duration maxLifeTime() {
+        return maxLifeTime != null ? maxLifeTime : Duration.ofMinutes(5);
+    }
+
+    public Duration evictInterval() {
+        return evictInterval != null ? evictInterval : Duration.ofSeconds(30);
+    }
+
+    public Boolean compress() {
+        return compress != null ? compress : Boolean.TRUE;
+    }
+
+    public Boolean http2() {
+        return http2 != null ? http2 : Boolean.TRUE;
+    }
+
+    public Integer warmupConnections() {
+        return warmupConnections != null && warmupConnections >= 0 ? warmupConnections : 2;
+    }
+}
@@ -0,0 +1,38 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки локального кэша первого уровня перед Redis
+ *
+ * @param enabled Включен ли двухуровневый кэш; действует только при {@code use-redis: true}
+ * @param ttl     Сколько запись живет в локальном кэше; ограничивает расхождение между экземплярами,
+ *                если сообщение об инвалидации потерялось
+ * @param maxSize Максимальное число записей в локальном кэше
+ * @param channel Канал Redis pub/sub для сообщений об инвалидации
+ */
+@ConfigurationProperties(prefix = "reactive-rates.cache.near")
+public record NearCacheProperties(
+    Boolean enabled,
+    Duration ttl,
+    Long maxSize,
+    String channel
+) {
+    public Boolean enabled() {
+        return enabled != null ? enabled : Boolean.FALSE;
+    }
+
+    public Duration ttl() {
+        return ttl != null ? ttl : Duration.ofSeconds(30);
+    }
+
+    public Long maxSize() {
+        return maxSize != null && maxSize > 0 ? maxSize : 10_000L;
+    }
+
+    public String channel() {
+        return channel != null && !channel.isBlank() ? channel : "rates:invalidations";
+    }
+}
@@ -0,0 +1,38 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша неудачных запросов курса
+ *
+ * @param enabled        Включен ли кэш неудачных запросов
+ * @param unsupportedTtl Сколько помнить пару, которую не поддерживает ни один провайдер
+ * @param failureTtl     Сколько помнить пару, запрос которой не удался у всех провайдеров по другой причине;
+ *                       {@code 0} отключает кэширование таких ошибок
+ * @param maxSize        Максимальное число запоминаемых пар
+ */
+@ConfigurationProperties(prefix = "reactive-rates.cache.negative")
+public record NegativeCacheProperties(
+    Boolean enabled,
+    Duration unsupportedTtl,
+    Duration failureTtl,
+    Long maxSize
+) {
+    public Boolean enabled() {
+        return enabled != null ? enabled : Boolean.TRUE;
+    }
+
+    public Duration unsupportedTtl() {
+        return unsupportedTtl != null ? unsupportedTtl : Duration.ofMinutes(10);
+    }
+
+    public Duration failureTtl() {
+        return failureTtl != null && !failureTtl.isNegative() ? failureTtl : Duration.ofSeconds(5);
+    }
+
+    public Long maxSize() {
+        return maxSize != null && maxSize > 0 ? maxSize : 10_000L;
+    }
+}
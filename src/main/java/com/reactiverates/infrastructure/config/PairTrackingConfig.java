@@ -0,0 +1,20 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.reactiverates.infrastructure.metrics.HeavyHitterSketch;
+
+@Configuration
+@EnableConfigurationProperties(PairTrackingProperties.class)
+public class PairTrackingConfig {
+
+    /**
+     * Общий учет запросов пар для конвертации и исторических курсов
+     */
+    @Bean
+    public HeavyHitterSketch pairPopularity(PairTrackingProperties properties) {
+        return new HeavyHitterSketch(properties.width(), properties.depth(), properties.topK(), properties.window());
+    }
+}
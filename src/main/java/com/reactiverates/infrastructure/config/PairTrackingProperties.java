@@ -0,0 +1,44 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки учета частоты запросов валютных пар
+ *
+ * @param width           Ширина строки count-min sketch; округляется вверх до степени двойки
+ * @param depth           Число строк count-min sketch
+ * @param topK            Сколько самых частых пар отслеживается поименно
+ * @param window          Период затухания: раз в этот период все счетчики делятся пополам
+ * @param publishInterval Как часто частоты самых востребованных пар публикуются в Micrometer
+ */
+@ConfigurationProperties(prefix = "reactive-rates.pair-tracking")
+public record PairTrackingProperties(
+    int width,
+    int depth,
+    int topK,
+    Duration window,
+    Duration publishInterval
+) {
+    public int width() {
+        return width > 0 ? width : 2048;
+    }
+
+    public int depth() {
+        return depth > 0 ? depth : 4;
+    }
+
+    public int topK() {
+        return topK > 0 ? topK : 50;
+    }
+
+    public Duration window() {
+        return window != null && !window.isZero() && !window.isNegative() ? window : Duration.ofMinutes(1);
+    }
+
+    public Duration publishInterval() {
+        return publishInterval != null && !publishInterval.isZero() && !publishInterval.isNegative()
+            ? publishInterval : Duration.ofSeconds(15);
+    }
+}
@@ -0,0 +1,56 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки отслеживания состояния внешних провайдеров курсов
+ *
+ * @param probeEnabled     Включены ли фоновые проверки доступности
+ * @param probeInterval    Интервал между фоновыми проверками; проверяются только недоступные провайдеры
+ *                         и провайдеры, к которым дольше этого интервала не было запросов
+ * @param probeTimeout     Максимальное время одной проверки
+ * @param failureThreshold Количество ошибок подряд, после которого провайдер считается недоступным
+ * @param openDuration     Время, на которое недоступный провайдер исключается из цепочки перед пробным запросом
+ * @param priorityBandWidth Ширина полосы приоритетов: внутри полосы провайдеры упорядочиваются по наблюдаемой стоимости
+ * @param ewmaAlpha        Вес нового замера в экспоненциальном среднем задержки и доли ошибок
+ */
+@ConfigurationProperties(prefix = "reactive-rates.provider-health")
+public record ProviderHealthProperties(
+    Boolean probeEnabled,
+    Duration probeInterval,
+    Duration probeTimeout,
+    int failureThreshold,
+    Duration openDuration,
+    int priorityBandWidth,
+    Double ewmaAlpha
+) {
+    public Boolean probeEnabled() {
+        return probeEnabled != null ? probeEnabled : Boolean.TRUE;
+    }
+
+    public Duration probeInterval() {
+        return probeInterval != null ? probeInterval : Duration.ofMinutes(30);
+    }
+
+    public Duration probeTimeout() {
+        return probeTimeout != null ? probeTimeout : Duration.ofSeconds(30);
+    }
+
+    public int failureThreshold() {
+        return failureThreshold > 0 ? failureThreshold : 3;
+    }
+
+    public Duration openDuration() {
+        return openDuration != null ? openDuration : Duration.ofSeconds(30);
+    }
+
+    public int priorityBandWidth() {
+        return priorityBandWidth > 0 ? priorityBandWidth : 100;
+    }
+
+    public Double ewmaAlpha() {
+        return ewmaAlpha != null && ewmaAlpha > 0 && ewmaAlpha <= 1 ? ewmaAlpha : 0.2;
+    }
+}
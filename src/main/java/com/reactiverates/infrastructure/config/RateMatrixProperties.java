@@ -0,0 +1,28 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки матрицы курсов в памяти
+ *
+ * @param capacity Максимальное количество валют в матрице
+ * @param maxAge   Максимальный возраст исходных курсов; по умолчанию равен TTL кэша
+ * @param pivots   Опорные валюты для вычисления кросс-курсов, в порядке предпочтения
+ */
+@ConfigurationProperties(prefix = "reactive-rates.matrix")
+public record RateMatrixProperties(
+    int capacity,
+    Duration maxAge,
+    List<String> pivots
+) {
+    public int capacity() {
+        return capacity > 0 ? capacity : 256;
+    }
+
+    public List<String> pivots() {
+        return pivots != null && !pivots.isEmpty() ? pivots : List.of("USD", "EUR");
+    }
+}
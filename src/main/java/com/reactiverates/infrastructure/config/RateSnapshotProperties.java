@@ -0,0 +1,45 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки снимков курсов, обновляемых по расписанию
+ *
+ * @param enabled         Включен ли режим снимков; без него курсы запрашиваются по требованию
+ * @param baseCurrencies  Базовые валюты, полные таблицы которых входят в снимок
+ * @param refreshInterval Как часто собирается новый снимок
+ * @param maxAge          Сколько таблица базы остается в снимках, если ее не удается обновить
+ * @param concurrency     Сколько таблиц запрашивается одновременно
+ */
+@ConfigurationProperties(prefix = "reactive-rates.snapshot")
+public record RateSnapshotProperties(
+    Boolean enabled,
+    List<String> baseCurrencies,
+    Duration refreshInterval,
+    Duration maxAge,
+    Integer concurrency
+) {
+    public Boolean enabled() {
+        return enabled != null ? enabled : Boolean.FALSE;
+    }
+
+    public List<String> baseCurrencies() {
+        return baseCurrencies != null && !baseCurrencies.isEmpty() ? baseCurrencies : List.of("USD", "EUR");
+    }
+
+    public Duration refreshInterval() {
+        return refreshInterval != null && !refreshInterval.isZero() && !refreshInterval.isNegative()
+            ? refreshInterval : Duration.ofMinutes(1);
+    }
+
+    public Duration maxAge() {
+        return maxAge != null && !maxAge.isZero() && !maxAge.isNegative() ? maxAge : refreshInterval().multipliedBy(3);
+    }
+
+    public Integer concurrency() {
+        return concurrency != null && concurrency > 0 ? concurrency : 4;
+    }
+}
@@ -0,0 +1,39 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки потока курсов для подписчиков
+ *
+ * @param refreshInterval   Как часто запрашивается курс пары, пока у нее есть подписчики
+ * @param epsilon           Относительное изменение курса, меньше которого обновление не отправляется
+ * @param maxPairs          Сколько пар можно запросить в одной подписке
+ * @param heartbeatInterval Как часто в открытое соединение отправляется пустой комментарий
+ */
+@ConfigurationProperties(prefix = "reactive-rates.stream")
+public record RateStreamProperties(
+    Duration refreshInterval,
+    Double epsilon,
+    Integer maxPairs,
+    Duration heartbeatInterval
+) {
+    public Duration refreshInterval() {
+        return refreshInterval != null && !refreshInterval.isZero() && !refreshInterval.isNegative()
+            ? refreshInterval : Duration.ofSeconds(1);
+    }
+
+    public Double epsilon() {
+        return epsilon != null && epsilon >= 0 ? epsilon : 0.000001;
+    }
+
+    public Integer maxPairs() {
+        return maxPairs != null && maxPairs > 0 ? maxPairs : 50;
+    }
+
+    public Duration heartbeatInterval() {
+        return heartbeatInterval != null && !heartbeatInterval.isZero() && !heartbeatInterval.isNegative()
+            ? heartbeatInterval : Duration.ofSeconds(15);
+    }
+}
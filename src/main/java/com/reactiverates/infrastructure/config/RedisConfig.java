@@ -2,6 +2,7 @@ package com.reactiverates.infrastructure.config;
 
 import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -10,6 +11,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -18,14 +20,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.reactiverates.domain.model.ExchangeRate;
 import com.reactiverates.domain.service.RateCache;
+import com.reactiverates.domain.service.RateMatrix;
 import com.reactiverates.domain.service.RateProvider;
 import com.reactiverates.infrastructure.cache.CachedRateProvider;
+import com.reactiverates.infrastructure.cache.CaffeineRateCache;
+import com.reactiverates.infrastructure.cache.ExchangeRateRedisSerializer;
+import com.reactiverates.infrastructure.cache.NegativeRateCache;
+import com.reactiverates.infrastructure.cache.RateTtlPolicy;
+import com.reactiverates.infrastructure.cache.RedisHashRateCache;
 import com.reactiverates.infrastructure.cache.RedisRateCache;
+import com.reactiverates.infrastructure.cache.RefreshAheadPolicy;
+import com.reactiverates.infrastructure.cache.TieredRateCache;
 import com.reactiverates.infrastructure.client.ChainedRateProvider;
+import com.reactiverates.infrastructure.stream.RateStreamHub;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableConfigurationProperties({
-    RedisConfig.CacheProperties.class
+    RedisConfig.CacheProperties.class,
+    NearCacheProperties.class
 })
 public class RedisConfig {
 
@@ -41,26 +55,51 @@ public class RedisConfig {
         
         Jackson2JsonRedisSerializer<ExchangeRate> jsonSerializer = new Jackson2JsonRedisSerializer<>(objectMapper, ExchangeRate.class);
         
+        // Курсы пишутся в бинарном формате; JSON остается для чтения записей, сделанных до его появления
         RedisSerializationContext<String, ExchangeRate> serializationContext = 
             RedisSerializationContext.<String, ExchangeRate>newSerializationContext(StringRedisSerializer.UTF_8)
-                .value(jsonSerializer)
+                .value(new ExchangeRateRedisSerializer(jsonSerializer))
                 .build();
 
         return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
     }
 
+    /**
+     * Раскладка {@code hash} хранит таблицу каждой базовой валюты одним хэшем, {@code pair} — каждую пару
+     * отдельным ключом. При включенном near-кэше перед Redis ставится локальный Caffeine, согласованный
+     * через pub/sub.
+     */
     @Bean
     @ConditionalOnProperty(name = "reactive-rates.cache.use-redis", havingValue = "true")
     public RateCache redisRateCache(
             ReactiveRedisTemplate<String, ExchangeRate> redisTemplate,
-            CacheProperties cacheProperties) {
-        return new RedisRateCache(redisTemplate, cacheProperties);
+            ReactiveStringRedisTemplate stringRedisTemplate,
+            CacheProperties cacheProperties,
+            NearCacheProperties nearCacheProperties,
+            RateTtlPolicy rateTtlPolicy,
+            @Value("${reactive-rates.cache.redis-layout:pair}") String redisLayout) {
+        RateCache redisCache = "hash".equalsIgnoreCase(redisLayout)
+            ? new RedisHashRateCache(stringRedisTemplate, cacheProperties, rateTtlPolicy)
+            : new RedisRateCache(redisTemplate, stringRedisTemplate, cacheProperties, rateTtlPolicy);
+        if (!nearCacheProperties.enabled()) {
+            return redisCache;
+        }
+
+        Duration localTtl = nearCacheProperties.ttl().compareTo(rateTtlPolicy.maxTtl()) < 0
+            ? nearCacheProperties.ttl()
+            : rateTtlPolicy.maxTtl();
+        CaffeineRateCache localCache = new CaffeineRateCache(rateTtlPolicy, localTtl, nearCacheProperties.maxSize());
+        return new TieredRateCache(localCache, redisCache, stringRedisTemplate, nearCacheProperties.channel()).start();
     }
 
     @Bean
     @Primary
-    public RateProvider cachedChainedRateProvider(ChainedRateProvider chainedProvider, RateCache rateCache) {
-        return new CachedRateProvider(chainedProvider, rateCache);
+    public RateProvider cachedChainedRateProvider(ChainedRateProvider chainedProvider, RateCache rateCache,
+                                                  RateMatrix rateMatrix, RefreshAheadPolicy refreshAheadPolicy,
+                                                  NegativeRateCache negativeRateCache, RateStreamHub rateStreamHub,
+                                                  MeterRegistry meterRegistry) {
+        return new CachedRateProvider(chainedProvider, rateCache, rateMatrix, refreshAheadPolicy, negativeRateCache,
+            rateStreamHub, meterRegistry);
     }
 
     @ConfigurationProperties(prefix = "reactive-rates.cache")
@@ -0,0 +1,29 @@
+package com.reactiverates.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки режима refresh-ahead (stale-while-revalidate) для кэша курсов
+ *
+ * @param enabled Включен ли режим
+ * @param softTtl Возраст, после которого курс отдается из кэша, но обновляется в фоне; по умолчанию равен TTL кэша
+ * @param hardTtl Максимальный возраст курса, который может быть отдан из кэша; по умолчанию утроенный soft TTL
+ * @param beta    Коэффициент вероятностного раннего обновления; 0 отключает раннее обновление
+ */
+@ConfigurationProperties(prefix = "reactive-rates.cache.refresh-ahead")
+public record RefreshAheadProperties(
+    Boolean enabled,
+    Duration softTtl,
+    Duration hardTtl,
+    Double beta
+) {
+    public Boolean enabled() {
+        return enabled != null ? enabled : Boolean.FALSE;
+    }
+
+    public Double beta() {
+        return beta != null && beta >= 0 ? beta : 1.0;
+    }
+}
@@ -8,6 +8,11 @@ import java.time.Duration;
 
 /**
  * 🔧 Конфигурация для внешнего API обмена валют (unirateapi.com)
+ *
+ * @param historicalWindowDays  Максимальная длина окна одного запроса {@code /api/historical/timeseries}
+ * @param historicalMaxDays     Глубина доступной истории
+ * @param historicalConcurrency Количество одновременных запросов при загрузке нескольких окон
+ * @param updateInterval        Как часто API публикует новые курсы; не задан — срок действия курса неизвестен
  */
 @Validated
 @ConfigurationProperties(prefix = "unirate-api")
@@ -16,5 +21,32 @@ public record UniRateApiConfig(
     String apiKey,
     Duration timeout,
     Duration connectTimeout,
-    int priority
-) {} 
\ No newline at end of file
+    int priority,
+    UpstreamRateLimit rateLimit,
+    int historicalWindowDays,
+    int historicalMaxDays,
+    int historicalConcurrency,
+    HttpPoolProperties pool,
+    Duration updateInterval
+) {
+    /**
+     * Бюджет запросов общего ключа API; его расходуют и текущие, и исторические курсы
+     */
+    public static final String BUDGET_NAME = "UniRateAPI";
+
+    public int historicalWindowDays() {
+        return historicalWindowDays > 0 ? historicalWindowDays : 365;
+    }
+
+    public int historicalMaxDays() {
+        return historicalMaxDays > 0 ? historicalMaxDays : 3650;
+    }
+
+    public int historicalConcurrency() {
+        return historicalConcurrency > 0 ? historicalConcurrency : 4;
+    }
+
+    public HttpPoolProperties pool() {
+        return pool != null ? pool : HttpPoolProperties.DEFAULTS;
+    }
+} 
\ No newline at end of file
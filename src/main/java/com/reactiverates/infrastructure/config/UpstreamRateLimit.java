@@ -0,0 +1,26 @@
+package com.reactiverates.infrastructure.config;
+
+import java.time.Duration;
+
+/**
+ * Ограничения исходящих запросов к одному провайдеру
+ *
+ * @param capacity      Емкость корзины токенов: сколько запросов можно сделать подряд
+ * @param refillTokens  Сколько токенов добавляется за {@code refillPeriod}
+ * @param refillPeriod  Период пополнения корзины, например сутки для дневной квоты
+ * @param maxConcurrent Максимальное количество одновременных запросов; 0 снимает ограничение
+ */
+public record UpstreamRateLimit(
+    int capacity,
+    int refillTokens,
+    Duration refillPeriod,
+    int maxConcurrent
+) {
+    public int refillTokens() {
+        return refillTokens > 0 ? refillTokens : capacity;
+    }
+
+    public Duration refillPeriod() {
+        return refillPeriod != null ? refillPeriod : Duration.ofDays(1);
+    }
+}
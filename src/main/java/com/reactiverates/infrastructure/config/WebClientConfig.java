@@ -3,31 +3,41 @@ package com.reactiverates.infrastructure.config;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
     private static final Logger log = LoggerFactory.getLogger(WebClientConfig.class);
 
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+    private final List<Warmup> warmups = new CopyOnWriteArrayList<>();
+
     @Bean("uniRateWebClient")
     public WebClient uniRateWebClient(UniRateApiConfig config) {
         log.info("🚀 Configuring WebClient for UniRateAPI with base URL: {}", config.baseUrl());
 
-        HttpClient httpClient = HttpClient.create()
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.connectTimeout().toMillis())
-            .responseTimeout(config.timeout())
-            .doOnConnected(conn -> 
-                conn.addHandlerLast(new ReadTimeoutHandler((int) config.timeout().toSeconds(), TimeUnit.SECONDS))
-                    .addHandlerLast(new WriteTimeoutHandler((int) config.timeout().toSeconds(), TimeUnit.SECONDS)));
+        HttpClient httpClient = httpClient("unirate-api", config.baseUrl(), config.connectTimeout(), config.timeout(),
+            config.pool(), WebClientConfig::withoutQuery);
 
         return WebClient.builder()
             .baseUrl(config.baseUrl())
@@ -39,18 +49,81 @@ public class WebClientConfig {
     @Bean("exchangeRateWebClient")
     public WebClient exchangeRateWebClient(ExchangeRateApiConfig config) {
         log.info("🚀 Configuring WebClient for ExchangeRate-API.com with base URL: {}", config.baseUrl());
-        
-        HttpClient httpClient = HttpClient.create()
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.connectTimeout().toMillis())
-            .responseTimeout(config.timeout())
-            .doOnConnected(conn -> 
-                conn.addHandlerLast(new ReadTimeoutHandler((int) config.timeout().toSeconds(), TimeUnit.SECONDS))
-                    .addHandlerLast(new WriteTimeoutHandler((int) config.timeout().toSeconds(), TimeUnit.SECONDS)));
-        
+
+        // API-ключ передается в пути, поэтому в метриках путь заменяется шаблоном
+        HttpClient httpClient = httpClient("exchangerate-api", config.baseUrl(), config.connectTimeout(), config.timeout(),
+            config.pool(), uri -> uri.contains("/latest/") ? "/v6/{apiKey}/latest/{base}" : withoutQuery(uri));
+
         return WebClient.builder()
             .baseUrl(config.baseUrl())
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .clientConnector(new ReactorClientHttpConnector(httpClient))
             .build();
     }
+
+    /**
+     * Открывает соединения к провайдерам заранее, чтобы первые промахи кэша не платили
+     * за установку соединения и TLS-рукопожатие. Ошибки прогрева только логируются.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpConnections() {
+        warmups.forEach(warmup -> warmup.client().warmup()
+            .thenMany(Flux.range(0, warmup.connections())
+                .flatMap(i -> warmup.client().head().uri(warmup.baseUrl()).response()
+                    .onErrorResume(error -> {
+                        log.debug("Warm-up request to {} failed: {}", warmup.name(), error.getMessage());
+                        return Mono.empty();
+                    })))
+            .count()
+            .subscribe(opened -> log.info("Warmed up {} connection(s) to {}", opened, warmup.name())));
+    }
+
+    @PreDestroy
+    public void disposeConnectionProviders() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+
+    private HttpClient httpClient(String name, String baseUrl, Duration connectTimeout, Duration timeout,
+                                  HttpPoolProperties pool, Function<String, String> uriTagValue) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+            .maxConnections(pool.maxConnections())
+            .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+            .maxIdleTime(pool.maxIdleTime())
+            .maxLifeTime(pool.maxLifeTime())
+            .evictInBackground(pool.evictInterval())
+            .metrics(true)
+            .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .responseTimeout(timeout)
+            .compress(pool.compress())
+            .metrics(true, uriTagValue)
+            .doOnConnected(conn ->
+                conn.addHandlerLast(new ReadTimeoutHandler((int) timeout.toSeconds(), TimeUnit.SECONDS))
+                    .addHandlerLast(new WriteTimeoutHandler((int) timeout.toSeconds(), TimeUnit.SECONDS)));
+
+        // HTTP/2 согласуется через ALPN, поэтому включается только для HTTPS
+        if (pool.http2() && baseUrl.startsWith("https://")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
+        if (pool.warmupConnections() > 0) {
+            warmups.add(new Warmup(name, baseUrl, httpClient, pool.warmupConnections()));
+        }
+
+        log.info("Configured connection pool {}: max connections={}, pending acquire max={}, max idle={}, max life={}, compress={}",
+            name, pool.maxConnections(), pool.pendingAcquireMaxCount(), pool.maxIdleTime(), pool.maxLifeTime(), pool.compress());
+        return httpClient;
+    }
+
+    private static String withoutQuery(String uri) {
+        int query = uri.indexOf('?');
+        return query >= 0 ? uri.substring(0, query) : uri;
+    }
+
+    private record Warmup(String name, String baseUrl, HttpClient client, int connections) { }
 }
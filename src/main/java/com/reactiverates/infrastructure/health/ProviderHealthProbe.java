@@ -0,0 +1,108 @@
+package com.reactiverates.infrastructure.health;
+
+import com.reactiverates.domain.service.HistoricalRateProvider;
+import com.reactiverates.domain.service.RateProvider;
+import com.reactiverates.infrastructure.config.BaseHistoricalRateProvider;
+import com.reactiverates.infrastructure.config.BaseRateProvider;
+import com.reactiverates.infrastructure.config.ProviderHealthProperties;
+import com.reactiverates.infrastructure.ratelimit.UpstreamBudgetRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Фоновая проверка доступности провайдеров.
+ * <p>
+ * Раз в {@code probe-interval} вызывает {@code isAvailable()} тех базовых провайдеров, о состоянии
+ * которых реальные запросы ничего не сообщили: недоступных и простаивавших дольше интервала.
+ * Проверка расходует квоту провайдера, поэтому выполняется в пределах его бюджета
+ * ({@link UpstreamBudgetRegistry}); при исчерпанном бюджете проверка пропускается.
+ * Результат записывается в {@link ProviderHealthRegistry}.
+ */
+@Component
+public class ProviderHealthProbe {
+    private static final Logger log = LoggerFactory.getLogger(ProviderHealthProbe.class);
+
+    private final List<RateProvider> rateProviders;
+    private final List<HistoricalRateProvider> historicalProviders;
+    private final ProviderHealthRegistry registry;
+    private final ProviderHealthProperties properties;
+    private final UpstreamBudgetRegistry budgets;
+
+    private Disposable probes;
+
+    public ProviderHealthProbe(
+            @BaseRateProvider List<RateProvider> rateProviders,
+            @BaseHistoricalRateProvider List<HistoricalRateProvider> historicalProviders,
+            ProviderHealthRegistry registry,
+            ProviderHealthProperties properties,
+            UpstreamBudgetRegistry budgets) {
+        this.rateProviders = rateProviders;
+        this.historicalProviders = historicalProviders;
+        this.registry = registry;
+        this.properties = properties;
+        this.budgets = budgets;
+    }
+
+    @PostConstruct
+    public void start() {
+        rateProviders.forEach(provider -> registry.register(provider.getProviderName()));
+        historicalProviders.forEach(provider -> registry.register(provider.getProviderName()));
+
+        if (!properties.probeEnabled()) {
+            log.info("Background provider probes are disabled");
+            return;
+        }
+
+        probes = Flux.interval(properties.probeInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> probeAll())
+            .subscribe();
+        log.info("Started background provider probes with interval: {}", properties.probeInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (probes != null) {
+            probes.dispose();
+        }
+    }
+
+    private Mono<Void> probeAll() {
+        Flux<Void> rateProbes = Flux.fromIterable(rateProviders)
+            .filter(provider -> registry.needsProbe(provider.getProviderName(), properties.probeInterval()))
+            .flatMap(provider -> probe(provider.getProviderName(), provider::isAvailable));
+        Flux<Void> historicalProbes = Flux.fromIterable(historicalProviders)
+            .filter(provider -> registry.needsProbe(provider.getProviderName(), properties.probeInterval()))
+            .flatMap(provider -> probe(provider.getProviderName(), provider::isAvailable));
+        return Flux.merge(rateProbes, historicalProbes).then();
+    }
+
+    private Mono<Void> probe(String providerName, Supplier<Mono<Boolean>> availability) {
+        return budgets.guard(providerName, () -> availability.get()
+                .timeout(properties.probeTimeout())
+                .defaultIfEmpty(false)
+                .onErrorResume(err -> {
+                    log.debug("Probe of {} failed: {}", providerName, err.getMessage());
+                    return Mono.just(false);
+                }))
+            .doOnNext(available -> {
+                log.debug("Probe of {}: available={}", providerName, available);
+                if (available) {
+                    registry.recordSuccess(providerName);
+                } else {
+                    registry.recordFailure(providerName, "Availability probe failed");
+                }
+            })
+            .then();
+    }
+}
@@ -0,0 +1,303 @@
+package com.reactiverates.infrastructure.health;
+
+import com.reactiverates.infrastructure.config.ProviderHealthProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Реестр состояния внешних провайдеров курсов.
+ * <p>
+ * Состояние обновляется фоновыми проверками ({@link ProviderHealthProbe}) и результатами
+ * реальных запросов, поэтому цепочки провайдеров читают его без сетевых вызовов.
+ * <p>
+ * Для каждого провайдера ведется экспоненциальное среднее задержки и доли ошибок.
+ * После {@code failureThreshold} ошибок подряд размыкается автомат (статус DOWN): провайдер
+ * исключается из цепочек на {@code openDuration}, после чего пропускается один пробный
+ * запрос (HALF_OPEN). Успех замыкает автомат, ошибка снова размыкает.
+ */
+@Component
+public class ProviderHealthRegistry {
+    private static final Logger log = LoggerFactory.getLogger(ProviderHealthRegistry.class);
+
+    private final ConcurrentMap<String, ProviderHealth> providers = new ConcurrentHashMap<>();
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final int priorityBandWidth;
+    private final double alpha;
+
+    public ProviderHealthRegistry(ProviderHealthProperties properties) {
+        this.failureThreshold = properties.failureThreshold();
+        this.openDurationNanos = properties.openDuration().toNanos();
+        this.priorityBandWidth = properties.priorityBandWidth();
+        this.alpha = properties.ewmaAlpha();
+        log.info("Initialized ProviderHealthRegistry with failure threshold: {}, open duration: {}, priority band width: {}",
+            failureThreshold, properties.openDuration(), priorityBandWidth);
+    }
+
+    public void register(String providerName) {
+        health(providerName);
+    }
+
+    /**
+     * Провайдер пригоден для запросов, пока он не помечен как недоступный.
+     * Провайдеры без истории ({@link Status#UNKNOWN}) считаются пригодными.
+     */
+    public boolean isUsable(String providerName) {
+        ProviderHealth health = providers.get(providerName);
+        return health == null || health.status != Status.DOWN;
+    }
+
+    /**
+     * Пропустит ли автомат запрос к провайдеру, если отправить его сейчас. В отличие от
+     * {@link #allowRequest(String)}, состояние автомата не меняет и пробный запрос не занимает.
+     */
+    public boolean canRequest(String providerName) {
+        ProviderHealth health = providers.get(providerName);
+        if (health == null || (health.status != Status.DOWN && health.status != Status.HALF_OPEN)) {
+            return true;
+        }
+        return System.nanoTime() - health.retryAt >= 0;
+    }
+
+    /**
+     * Можно ли отправить провайдеру запрос. В отличие от {@link #isUsable(String)}, для
+     * разомкнутого автомата по истечении {@code openDuration} переводит провайдера в HALF_OPEN
+     * и разрешает один пробный запрос. Вызывается непосредственно перед обращением к провайдеру.
+     */
+    public boolean allowRequest(String providerName) {
+        ProviderHealth health = providers.get(providerName);
+        if (health == null || (health.status != Status.DOWN && health.status != Status.HALF_OPEN)) {
+            return true;
+        }
+
+        synchronized (health) {
+            long now = System.nanoTime();
+            if (now - health.retryAt < 0) {
+                return false;
+            }
+            health.retryAt = now + openDurationNanos;
+            if (health.status != Status.HALF_OPEN) {
+                log.info("Provider {} is HALF_OPEN, allowing a trial request", providerName);
+                health.status = Status.HALF_OPEN;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Нужна ли провайдеру фоновая проверка: он недоступен, ожидает пробного запроса
+     * или дольше {@code idle} не получал запросов, по которым можно судить о его состоянии
+     */
+    public boolean needsProbe(String providerName, Duration idle) {
+        ProviderHealth health = providers.get(providerName);
+        if (health == null || health.status != Status.UP) {
+            return true;
+        }
+        Instant lastActivity = health.lastFailure == null || (health.lastSuccess != null && health.lastSuccess.isAfter(health.lastFailure))
+            ? health.lastSuccess
+            : health.lastFailure;
+        return lastActivity == null || lastActivity.isBefore(Instant.now().minus(idle));
+    }
+
+    /**
+     * Упорядочивает провайдеров, которым можно отправить запрос: сначала по полосе приоритета,
+     * внутри полосы по наблюдаемой стоимости (см. {@link #cost(String)}), при равенстве в исходном порядке.
+     * Пробный запрос разомкнутого автомата не занимается: его занимает {@link #allowRequest(String)}
+     * перед обращением к провайдеру.
+     *
+     * @return пустой список, если запрос нельзя отправить ни одному провайдеру
+     */
+    public <P> List<P> rank(List<P> candidates, Function<P, String> nameOf, ToIntFunction<P> priorityOf) {
+        return candidates.stream()
+            .filter(provider -> canRequest(nameOf.apply(provider)))
+            .sorted(Comparator.<P>comparingInt(provider -> Math.floorDiv(priorityOf.applyAsInt(provider), priorityBandWidth))
+                .thenComparingDouble(provider -> cost(nameOf.apply(provider))))
+            .toList();
+    }
+
+    /**
+     * Ожидаемое время получения ответа: средняя задержка, деленная на долю успешных запросов.
+     * Провайдеры без замеров имеют нулевую стоимость, чтобы они получали трафик и замеры.
+     */
+    public double cost(String providerName) {
+        ProviderHealth health = providers.get(providerName);
+        if (health == null || health.ewmaLatencyNanos < 0) {
+            return 0.0;
+        }
+        return health.ewmaLatencyNanos / Math.max(0.05, 1.0 - health.ewmaErrorRate);
+    }
+
+    public void recordSuccess(String providerName) {
+        ProviderHealth health = health(providerName);
+        health.consecutiveFailures.set(0);
+        health.lastSuccess = Instant.now();
+        synchronized (health) {
+            health.ewmaErrorRate = health.ewmaErrorRate * (1 - alpha);
+            if (health.status != Status.UP) {
+                log.info("Provider {} is UP", providerName);
+                health.status = Status.UP;
+            }
+        }
+    }
+
+    /**
+     * Отмечает успешный запрос и запоминает его длительность для расчета перцентилей
+     */
+    public void recordSuccess(String providerName, Duration latency) {
+        recordSuccess(providerName);
+        ProviderHealth health = health(providerName);
+        long nanos = latency.toNanos();
+        health.latencies.record(nanos);
+        synchronized (health) {
+            health.ewmaLatencyNanos = health.ewmaLatencyNanos < 0
+                ? nanos
+                : health.ewmaLatencyNanos + alpha * (nanos - health.ewmaLatencyNanos);
+        }
+    }
+
+    /**
+     * Перцентиль длительности последних успешных запросов к провайдеру
+     *
+     * @param percentile значение от 0 до 1, например 0.95
+     * @return пусто, если успешных запросов с замером длительности еще не было
+     */
+    public Optional<Duration> latencyPercentile(String providerName, double percentile) {
+        ProviderHealth health = providers.get(providerName);
+        if (health == null) {
+            return Optional.empty();
+        }
+        long nanos = health.latencies.percentile(percentile);
+        return nanos < 0 ? Optional.empty() : Optional.of(Duration.ofNanos(nanos));
+    }
+
+    public void recordFailure(String providerName, String reason) {
+        ProviderHealth health = health(providerName);
+        health.lastFailure = Instant.now();
+        health.lastError = reason;
+        int failures = health.consecutiveFailures.incrementAndGet();
+        synchronized (health) {
+            health.ewmaErrorRate = health.ewmaErrorRate * (1 - alpha) + alpha;
+            if (health.status == Status.HALF_OPEN) {
+                log.warn("Provider {} failed its trial request and is DOWN again. Last error: {}", providerName, reason);
+                health.status = Status.DOWN;
+                health.retryAt = System.nanoTime() + openDurationNanos;
+            } else if (failures >= failureThreshold && health.status != Status.DOWN) {
+                log.warn("Provider {} is DOWN after {} consecutive failures. Last error: {}", providerName, failures, reason);
+                health.status = Status.DOWN;
+                health.retryAt = System.nanoTime() + openDurationNanos;
+            }
+        }
+    }
+
+    /**
+     * Запоминает только класс ошибки и HTTP-статус: текст исключений WebClient содержит URI запроса,
+     * а в нем у некоторых провайдеров ключ API, тогда как состояние реестра публикуется в health
+     */
+    public void recordFailure(String providerName, Throwable error) {
+        recordFailure(providerName, describe(error));
+    }
+
+    static String describe(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException response) {
+                return response.getClass().getSimpleName() + " (HTTP " + response.getStatusCode().value() + ")";
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return error.getClass().getSimpleName();
+    }
+
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        providers.forEach((name, health) -> result.put(name, new Snapshot(
+            health.status,
+            health.consecutiveFailures.get(),
+            health.lastSuccess,
+            health.lastFailure,
+            health.lastError,
+            latencyPercentile(name, 0.95).orElse(null),
+            health.ewmaLatencyNanos < 0 ? null : Duration.ofNanos((long) health.ewmaLatencyNanos),
+            health.ewmaErrorRate
+        )));
+        return result;
+    }
+
+    private ProviderHealth health(String providerName) {
+        return providers.computeIfAbsent(providerName, name -> new ProviderHealth());
+    }
+
+    public enum Status {
+        UNKNOWN, UP, HALF_OPEN, DOWN
+    }
+
+    public record Snapshot(
+        Status status,
+        int consecutiveFailures,
+        Instant lastSuccess,
+        Instant lastFailure,
+        String lastError,
+        Duration p95Latency,
+        Duration averageLatency,
+        double errorRate
+    ) { }
+
+    private static final class ProviderHealth {
+        private final LatencyWindow latencies = new LatencyWindow(128);
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile Status status = Status.UNKNOWN;
+        private volatile Instant lastSuccess;
+        private volatile Instant lastFailure;
+        private volatile String lastError;
+        private volatile double ewmaLatencyNanos = -1;
+        private volatile double ewmaErrorRate;
+        private volatile long retryAt;
+    }
+
+    /**
+     * Кольцевой буфер длительностей последних запросов
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        private synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        private synchronized long percentile(double percentile) {
+            if (size == 0) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            return sorted[Math.max(0, Math.min(index, size - 1))];
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.reactiverates.infrastructure.health;
+
+import com.reactiverates.infrastructure.cache.RateCacheWarmer;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Сообщает {@code OUT_OF_SERVICE}, пока идет прогрев кэша курсов, чтобы балансировщик
+ * не направлял трафик на экземпляр с пустым кэшем
+ */
+@Component
+@ConditionalOnProperty(name = "reactive-rates.cache.warmup.enabled", havingValue = "true")
+public class RateCacheWarmupHealthIndicator implements HealthIndicator {
+    private final RateCacheWarmer warmer;
+
+    public RateCacheWarmupHealthIndicator(RateCacheWarmer warmer) {
+        this.warmer = warmer;
+    }
+
+    @Override
+    public Health health() {
+        return warmer.isWarm()
+            ? Health.up().build()
+            : Health.outOfService().withDetail("reason", "Rate cache warm-up in progress").build();
+    }
+}
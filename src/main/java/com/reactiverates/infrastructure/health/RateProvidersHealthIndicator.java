@@ -0,0 +1,33 @@
+package com.reactiverates.infrastructure.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Публикует состояние провайдеров из {@link ProviderHealthRegistry} в {@code /actuator/health}.
+ * <p>
+ * Индикатор не выполняет сетевых запросов. Статус DOWN выставляется только если
+ * недоступны все зарегистрированные провайдеры.
+ */
+@Component
+public class RateProvidersHealthIndicator implements HealthIndicator {
+    private final ProviderHealthRegistry registry;
+
+    public RateProvidersHealthIndicator(ProviderHealthRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, ProviderHealthRegistry.Snapshot> snapshot = registry.snapshot();
+        boolean anyUsable = snapshot.isEmpty() || snapshot.values().stream()
+            .anyMatch(state -> state.status() != ProviderHealthRegistry.Status.DOWN);
+
+        Health.Builder builder = anyUsable ? Health.up() : Health.down();
+        snapshot.forEach(builder::withDetail);
+        return builder.build();
+    }
+}
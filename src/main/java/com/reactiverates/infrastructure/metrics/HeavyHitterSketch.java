@@ -0,0 +1,206 @@
+package com.reactiverates.infrastructure.metrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.reactiverates.domain.service.PairPopularity;
+
+/**
+ * Учет частоты запросов пар: count-min sketch и список самых частых пар.
+ * <p>
+ * Sketch — {@code depth} строк по {@code width} счетчиков в одном {@link AtomicLongArray};
+ * запрос увеличивает по одному счетчику в каждой строке, оценка пары — минимум из них.
+ * Объем памяти фиксирован и не зависит от числа различных пар, запись не блокирует
+ * и не выделяет память, пока оценка пары ниже порога входа в список частых.
+ * <p>
+ * Список частых пар хранит не больше {@code capacity} пар; новая пара вытесняет самую редкую,
+ * если ее оценка больше. Раз в окно {@link #decay()} делит все счетчики пополам, поэтому оценка
+ * отражает недавнюю нагрузку: при постоянной частоте {@code r} счетчик стремится к
+ * {@code r × (окно + время с последнего затухания)}, откуда и считается частота в секунду.
+ */
+public class HeavyHitterSketch implements PairPopularity {
+    private static final Logger log = LoggerFactory.getLogger(HeavyHitterSketch.class);
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+    private final int mask;
+    private final int capacity;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<Pair, Long> heavyHitters = new ConcurrentHashMap<>();
+    private volatile long admissionThreshold;
+
+    private final long startedAt;
+    private volatile long lastDecayAt;
+    private volatile boolean decayed;
+
+    public HeavyHitterSketch(int width, int depth, int capacity, Duration window) {
+        this(width, depth, capacity, window, System::nanoTime);
+    }
+
+    HeavyHitterSketch(int width, int depth, int capacity, Duration window, LongSupplier nanoClock) {
+        this.width = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.depth = depth;
+        this.mask = this.width - 1;
+        this.capacity = capacity;
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.counters = new AtomicLongArray(this.width * depth);
+        this.startedAt = nanoClock.getAsLong();
+        this.lastDecayAt = startedAt;
+
+        log.info("Initialized HeavyHitterSketch with width: {}, depth: {}, top-K: {}, window: {}",
+            this.width, depth, capacity, window);
+    }
+
+    @Override
+    public void record(String fromCurrency, String toCurrency) {
+        if (fromCurrency == null || toCurrency == null) {
+            return;
+        }
+
+        int hash = hash(fromCurrency, toCurrency);
+        int step = rehash(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash, step)));
+        }
+
+        if (estimate >= admissionThreshold) {
+            offer(new Pair(fromCurrency, toCurrency), estimate);
+        }
+    }
+
+    @Override
+    public long estimate(String fromCurrency, String toCurrency) {
+        int hash = hash(fromCurrency, toCurrency);
+        int step = rehash(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash, step)));
+        }
+        return estimate;
+    }
+
+    @Override
+    public List<PairFrequency> topPairs(int limit) {
+        double seconds = Math.max(1.0, effectiveWindowNanos() / 1e9);
+        List<PairFrequency> pairs = new ArrayList<>(heavyHitters.size());
+        for (Pair pair : heavyHitters.keySet()) {
+            long count = estimate(pair.from(), pair.to());
+            if (count > 0) {
+                pairs.add(new PairFrequency(pair.from(), pair.to(), count, count / seconds));
+            }
+        }
+        pairs.sort(Comparator.comparingLong(PairFrequency::count).reversed());
+        return pairs.size() > limit ? List.copyOf(pairs.subList(0, Math.max(0, limit))) : pairs;
+    }
+
+    /**
+     * Делит все счетчики пополам; вызывается раз в окно
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.updateAndGet(i, count -> count >>> 1);
+        }
+        synchronized (heavyHitters) {
+            heavyHitters.replaceAll((pair, count) -> count >>> 1);
+            heavyHitters.values().removeIf(count -> count == 0);
+            admissionThreshold = minimumCount();
+        }
+        lastDecayAt = nanoClock.getAsLong();
+        decayed = true;
+    }
+
+    /**
+     * @return нужно ли вызвать {@link #decay()}, потому что с прошлого затухания прошло окно
+     */
+    public boolean isDecayDue() {
+        return nanoClock.getAsLong() - lastDecayAt >= windowNanos;
+    }
+
+    public int trackedPairs() {
+        return heavyHitters.size();
+    }
+
+    private void offer(Pair pair, long estimate) {
+        if (heavyHitters.computeIfPresent(pair, (key, count) -> Math.max(count, estimate)) != null) {
+            return;
+        }
+
+        synchronized (heavyHitters) {
+            if (heavyHitters.size() >= capacity) {
+                Map.Entry<Pair, Long> rarest = null;
+                for (Map.Entry<Pair, Long> entry : heavyHitters.entrySet()) {
+                    if (rarest == null || entry.getValue() < rarest.getValue()) {
+                        rarest = entry;
+                    }
+                }
+                if (rarest == null || estimate <= rarest.getValue()) {
+                    admissionThreshold = rarest != null ? rarest.getValue() + 1 : 0;
+                    return;
+                }
+                heavyHitters.remove(rarest.getKey());
+            }
+            heavyHitters.put(pair, estimate);
+            admissionThreshold = minimumCount();
+        }
+    }
+
+    /**
+     * Порог входа в заполненный список частых пар; пока в списке есть место, порога нет
+     */
+    private long minimumCount() {
+        if (heavyHitters.size() < capacity) {
+            return 0;
+        }
+        long minimum = Long.MAX_VALUE;
+        for (long count : heavyHitters.values()) {
+            minimum = Math.min(minimum, count);
+        }
+        return minimum;
+    }
+
+    /**
+     * До первого затухания счетчики копились с момента старта, после — примерно окно
+     * плюс время с последнего затухания
+     */
+    private long effectiveWindowNanos() {
+        long now = nanoClock.getAsLong();
+        return decayed ? windowNanos + (now - lastDecayAt) : now - startedAt;
+    }
+
+    /**
+     * Строки используют двойное хэширование: индекс в строке {@code i} — {@code hash + i × step}
+     */
+    private int index(int row, int hash, int step) {
+        return row * width + ((hash + row * step) & mask);
+    }
+
+    private static int hash(String fromCurrency, String toCurrency) {
+        int h = fromCurrency.hashCode() * 31 + toCurrency.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ h >>> 16;
+    }
+
+    private static int rehash(int hash) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ h >>> 15) | 1;
+    }
+
+    private record Pair(String from, String to) { }
+}
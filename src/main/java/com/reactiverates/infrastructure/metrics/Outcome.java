@@ -0,0 +1,27 @@
+package com.reactiverates.infrastructure.metrics;
+
+/**
+ * Результат операции для тега {@code outcome}
+ */
+public enum Outcome {
+    /** Ответ из кэша */
+    HIT("hit"),
+    /** Ответ из кэша с запуском фонового обновления */
+    REFRESH("refresh"),
+    /** Промах кэша, ответ получен от провайдера */
+    MISS("miss"),
+    SUCCESS("success"),
+    /** Операция завершилась без результата */
+    EMPTY("empty"),
+    ERROR("error");
+
+    private final String tag;
+
+    Outcome(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,56 @@
+package com.reactiverates.infrastructure.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Таймеры одной операции в разрезе класса пары и результата.
+ * <p>
+ * Таймер каждого сочетания регистрируется при первом использовании и затем берется из массива,
+ * поэтому запись замера не строит теги и не обращается к реестру. Рядов не больше
+ * {@code PairClass × Outcome} на набор общих тегов.
+ */
+public final class OutcomeTimers {
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final String name;
+    private final String description;
+    private final Tags tags;
+    private final MeterRegistry meterRegistry;
+    private final Timer[] timers = new Timer[PairClass.values().length * OUTCOMES.length];
+
+    /**
+     * @param tags общие теги, например провайдер и операция
+     */
+    public OutcomeTimers(String name, String description, Tags tags, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.description = description;
+        this.tags = tags;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param startedAt момент начала операции по {@link System#nanoTime()}
+     */
+    public void record(PairClass pairClass, Outcome outcome, long startedAt) {
+        timer(pairClass, outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer timer(PairClass pairClass, Outcome outcome) {
+        int index = pairClass.ordinal() * OUTCOMES.length + outcome.ordinal();
+        Timer timer = timers[index];
+        if (timer == null) {
+            timer = Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .tag("pair_class", pairClass.tag())
+                .tag("outcome", outcome.tag())
+                .register(meterRegistry);
+            timers[index] = timer;
+        }
+        return timer;
+    }
+}
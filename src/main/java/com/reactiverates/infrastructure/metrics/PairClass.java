@@ -0,0 +1,47 @@
+package com.reactiverates.infrastructure.metrics;
+
+/**
+ * Класс валютной пары для тега метрик.
+ * <p>
+ * Вместо самой пары метрики помечаются ее классом, чтобы число рядов не зависело
+ * от числа запрашиваемых пар. Запросы таблиц курсов помечаются отдельным значением {@link #TABLE}.
+ */
+public enum PairClass {
+    /** Обе валюты из G10 */
+    MAJOR("major"),
+    /** Одна валюта из G10 */
+    CROSS("cross"),
+    /** Ни одной валюты из G10 */
+    EXOTIC("exotic"),
+    /** Таблица курсов базовой валюты, а не отдельная пара */
+    TABLE("table");
+
+    private final String tag;
+
+    PairClass(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    public static PairClass of(String fromCurrency, String toCurrency) {
+        boolean fromMajor = isMajor(fromCurrency);
+        boolean toMajor = isMajor(toCurrency);
+        if (fromMajor && toMajor) {
+            return MAJOR;
+        }
+        return fromMajor || toMajor ? CROSS : EXOTIC;
+    }
+
+    private static boolean isMajor(String currency) {
+        if (currency == null) {
+            return false;
+        }
+        return switch (currency) {
+            case "USD", "EUR", "JPY", "GBP", "CHF", "CAD", "AUD", "NZD", "SEK", "NOK" -> true;
+            default -> false;
+        };
+    }
+}
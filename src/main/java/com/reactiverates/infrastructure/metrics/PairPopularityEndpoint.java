@@ -0,0 +1,45 @@
+package com.reactiverates.infrastructure.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.reactiverates.domain.service.PairPopularity;
+import com.reactiverates.domain.service.PairPopularity.PairFrequency;
+
+/**
+ * Actuator endpoint {@code /actuator/pairs}: самые востребованные пары и оценка частоты
+ * запросов отдельной пары ({@code /actuator/pairs/USD/EUR})
+ */
+@Component
+@Endpoint(id = "pairs")
+public class PairPopularityEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final PairPopularity pairPopularity;
+
+    public PairPopularityEndpoint(PairPopularity pairPopularity) {
+        this.pairPopularity = pairPopularity;
+    }
+
+    @ReadOperation
+    public List<PairFrequency> topPairs(@Nullable Integer limit) {
+        return pairPopularity.topPairs(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+
+    @ReadOperation
+    public Map<String, Object> pair(@Selector String from, @Selector String to) {
+        String fromCurrency = from.toUpperCase();
+        String toCurrency = to.toUpperCase();
+        return Map.of(
+            "fromCurrency", fromCurrency,
+            "toCurrency", toCurrency,
+            "count", pairPopularity.estimate(fromCurrency, toCurrency)
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package com.reactiverates.infrastructure.metrics;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.reactiverates.infrastructure.config.PairTrackingProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Затухание счетчиков {@link HeavyHitterSketch} и публикация самых востребованных пар в Micrometer.
+ * <p>
+ * Частота публикуется только для пар из списка частых, поэтому число рядов метрики
+ * ограничено {@code top-k} и не растет с числом различных пар.
+ */
+@Component
+public class PairPopularityMetrics {
+    private static final Logger log = LoggerFactory.getLogger(PairPopularityMetrics.class);
+
+    private final HeavyHitterSketch sketch;
+    private final PairTrackingProperties properties;
+    private final MultiGauge requestRates;
+
+    private Disposable publisher;
+
+    public PairPopularityMetrics(HeavyHitterSketch sketch, PairTrackingProperties properties, MeterRegistry meterRegistry) {
+        this.sketch = sketch;
+        this.properties = properties;
+        this.requestRates = MultiGauge.builder("rates.pairs.requests.rate")
+            .description("Estimated requests per second for the most requested currency pairs")
+            .baseUnit("requests/s")
+            .register(meterRegistry);
+        Gauge.builder("rates.pairs.tracked", sketch, HeavyHitterSketch::trackedPairs)
+            .description("Currency pairs currently tracked as heavy hitters")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        publisher = Flux.interval(properties.publishInterval())
+            .onBackpressureDrop()
+            .subscribe(tick -> publish(), error -> log.error("Pair popularity publisher stopped: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (publisher != null) {
+            publisher.dispose();
+        }
+    }
+
+    void publish() {
+        if (sketch.isDecayDue()) {
+            sketch.decay();
+        }
+        List<MultiGauge.Row<?>> rows = sketch.topPairs(properties.topK()).stream()
+            .<MultiGauge.Row<?>>map(pair -> MultiGauge.Row.of(
+                Tags.of("from", pair.fromCurrency(), "to", pair.toCurrency()), pair.ratePerSecond()))
+            .toList();
+        requestRates.register(rows, true);
+    }
+}
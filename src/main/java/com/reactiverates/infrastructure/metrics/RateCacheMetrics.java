@@ -0,0 +1,122 @@
+package com.reactiverates.infrastructure.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.reactiverates.domain.service.RateCache;
+import com.reactiverates.domain.service.RateCache.CacheStats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Публикует {@link RateCache#getStats()} любого кэша курсов в Micrometer.
+ * <p>
+ * Статистика Redis читается по сети, поэтому метрики не вызывают {@code getStats()} при сборе,
+ * а читают последний снимок, который обновляется в фоне раз в {@code stats-interval}.
+ * Уровни многоуровневого кэша публикуются с тегом {@code tier}, общая статистика — с {@code tier=total}.
+ */
+@Component
+public class RateCacheMetrics implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(RateCacheMetrics.class);
+    private static final String TOTAL = "total";
+
+    private final RateCache rateCache;
+    private final Duration statsInterval;
+    private final String cacheName;
+    private final Map<String, AtomicReference<CacheStats>> tiers = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+    private Disposable refresher;
+
+    public RateCacheMetrics(RateCache rateCache,
+                            @Value("${reactive-rates.cache.stats-interval:PT15S}") Duration statsInterval) {
+        this.rateCache = rateCache;
+        this.statsInterval = statsInterval;
+        this.cacheName = rateCache.getClass().getSimpleName();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        tiers.forEach((tier, stats) -> register(tier, stats, registry));
+        tier(TOTAL);
+    }
+
+    @PostConstruct
+    public void start() {
+        refresher = Flux.interval(Duration.ZERO, statsInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> rateCache.getStats()
+                .doOnNext(this::update)
+                .onErrorResume(error -> {
+                    log.debug("Failed to read stats of {}: {}", cacheName, error.getMessage());
+                    return Mono.empty();
+                }))
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    void update(CacheStats stats) {
+        tier(TOTAL).set(stats);
+        stats.tiers().forEach((name, tierStats) -> tier(name).set(tierStats));
+    }
+
+    private AtomicReference<CacheStats> tier(String name) {
+        return tiers.computeIfAbsent(name, tier -> {
+            AtomicReference<CacheStats> stats = new AtomicReference<>(new CacheStats(0, 0, 0, 0, 0.0));
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                register(tier, stats, registry);
+            }
+            return stats;
+        });
+    }
+
+    private void register(String tier, AtomicReference<CacheStats> stats, MeterRegistry registry) {
+        Tags tags = Tags.of("cache", cacheName, "tier", tier);
+        counter("rates.cache.hits", "Cache lookups that found a rate", tags, stats, CacheStats::hitCount, registry);
+        counter("rates.cache.misses", "Cache lookups that found no rate", tags, stats, CacheStats::missCount, registry);
+        counter("rates.cache.evictions", "Rates removed from the cache", tags, stats, CacheStats::evictionCount, registry);
+        gauge("rates.cache.size", "Estimated number of cached entries", tags, stats, CacheStats::estimatedSize, registry);
+        gauge("rates.cache.hit.ratio", "Share of cache lookups that found a rate", tags, stats, CacheStats::hitRate, registry);
+    }
+
+    private static void counter(String name, String description, Tags tags, AtomicReference<CacheStats> stats,
+                                ToDoubleFunction<CacheStats> value, MeterRegistry registry) {
+        FunctionCounter.builder(name, stats, ref -> value.applyAsDouble(ref.get()))
+            .description(description)
+            .tags(tags)
+            .register(registry);
+    }
+
+    private static void gauge(String name, String description, Tags tags, AtomicReference<CacheStats> stats,
+                              ToDoubleFunction<CacheStats> value, MeterRegistry registry) {
+        Gauge.builder(name, stats, ref -> value.applyAsDouble(ref.get()))
+            .description(description)
+            .tags(tags)
+            .register(registry);
+    }
+}
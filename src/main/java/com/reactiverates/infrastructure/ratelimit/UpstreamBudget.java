@@ -0,0 +1,105 @@
+package com.reactiverates.infrastructure.ratelimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import com.reactiverates.infrastructure.config.UpstreamRateLimit;
+
+/**
+ * Бюджет запросов к одному провайдеру: корзина токенов для квоты и счетчик одновременных запросов.
+ * <p>
+ * Корзина пополняется непрерывно со скоростью {@code refillTokens / refillPeriod}
+ * и не может содержать больше {@code capacity} токенов.
+ */
+public class UpstreamBudget {
+    private final long capacity;
+    private final double tokensPerNano;
+    private final int maxConcurrent;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double tokens;
+    private long refilledAt;
+
+    public UpstreamBudget(UpstreamRateLimit limit) {
+        this(limit, System::nanoTime);
+    }
+
+    UpstreamBudget(UpstreamRateLimit limit, LongSupplier nanoClock) {
+        this.capacity = limit.capacity() > 0 ? limit.capacity() : Long.MAX_VALUE;
+        this.tokensPerNano = (double) limit.refillTokens() / limit.refillPeriod().toNanos();
+        this.maxConcurrent = limit.maxConcurrent() > 0 ? limit.maxConcurrent() : Integer.MAX_VALUE;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Пытается занять место для одного запроса, не ожидая освобождения бюджета
+     *
+     * @return разрешение, которое нужно освободить по завершении запроса, или {@code null}
+     */
+    Permit tryAcquire() {
+        if (!tryEnter()) {
+            return null;
+        }
+        if (!tryConsumeToken()) {
+            inFlight.decrementAndGet();
+            return null;
+        }
+        return new Permit();
+    }
+
+    public synchronized double remainingTokens() {
+        refill();
+        return tokens;
+    }
+
+    public int availableConcurrency() {
+        return maxConcurrent == Integer.MAX_VALUE ? -1 : maxConcurrent - inFlight.get();
+    }
+
+    private boolean tryEnter() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized boolean tryConsumeToken() {
+        if (capacity == Long.MAX_VALUE) {
+            return true;
+        }
+        refill();
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+
+    /**
+     * Разрешение на один запрос. Повторное освобождение игнорируется.
+     */
+    public final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
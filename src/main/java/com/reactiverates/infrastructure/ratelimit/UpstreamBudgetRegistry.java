@@ -0,0 +1,126 @@
+package com.reactiverates.infrastructure.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.reactiverates.infrastructure.config.UpstreamRateLimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Бюджеты исходящих запросов по провайдерам.
+ * <p>
+ * Провайдеры регистрируют свои ограничения при создании. Цепочки провайдеров оборачивают
+ * запросы в {@link #guard(String, Supplier)}: если бюджет исчерпан, запрос не ставится
+ * в очередь, а сразу завершается пустым результатом, и цепочка переходит к следующему провайдеру.
+ * Провайдеры без зарегистрированного бюджета не ограничиваются. Несколько провайдеров с одним
+ * ключом API расходуют общий бюджет ({@link #share(String, String, UpstreamRateLimit)}).
+ */
+@Component
+public class UpstreamBudgetRegistry {
+    private static final Logger log = LoggerFactory.getLogger(UpstreamBudgetRegistry.class);
+
+    private final Map<String, UpstreamBudget> budgets = new ConcurrentHashMap<>();
+    private final Map<String, String> sharedBudgets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamBudgetRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void register(String providerName, UpstreamRateLimit limit) {
+        if (limit == null) {
+            return;
+        }
+
+        UpstreamBudget budget = new UpstreamBudget(limit);
+        if (budgets.putIfAbsent(providerName, budget) != null) {
+            return;
+        }
+
+        Gauge.builder("rates.provider.budget.tokens", budget, UpstreamBudget::remainingTokens)
+            .description("Remaining upstream request quota")
+            .tag("provider", providerName)
+            .register(meterRegistry);
+        Gauge.builder("rates.provider.budget.concurrency", budget, UpstreamBudget::availableConcurrency)
+            .description("Free upstream concurrency slots, -1 if unlimited")
+            .tag("provider", providerName)
+            .register(meterRegistry);
+        rejections.put(providerName, Counter.builder("rates.provider.budget.rejected")
+            .description("Upstream requests skipped because the provider budget was exhausted")
+            .tag("provider", providerName)
+            .register(meterRegistry));
+
+        log.info("Registered upstream budget for {}: capacity={}, refill={}/{}, max concurrent={}",
+            providerName, limit.capacity(), limit.refillTokens(), limit.refillPeriod(), limit.maxConcurrent());
+    }
+
+    /**
+     * Запросы провайдера {@code providerName} расходуют бюджет {@code budgetName}; если владелец бюджета
+     * еще не зарегистрирован, бюджет создается с переданным ограничением
+     */
+    public void share(String providerName, String budgetName, UpstreamRateLimit limit) {
+        register(budgetName, limit);
+        sharedBudgets.put(providerName, budgetName);
+        log.info("{} shares upstream budget of {}", providerName, budgetName);
+    }
+
+    /**
+     * Выполняет запрос, если у провайдера есть бюджет, и освобождает место по завершении запроса
+     */
+    public <T> Mono<T> guard(String providerName, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            String budgetName = budgetName(providerName);
+            UpstreamBudget budget = budgets.get(budgetName);
+            if (budget == null) {
+                return request.get();
+            }
+
+            UpstreamBudget.Permit permit = budget.tryAcquire();
+            if (permit == null) {
+                reject(budgetName);
+                return Mono.empty();
+            }
+            return request.get().doFinally(signal -> permit.release());
+        });
+    }
+
+    public <T> Flux<T> guardMany(String providerName, Supplier<Flux<T>> request) {
+        return Flux.defer(() -> {
+            String budgetName = budgetName(providerName);
+            UpstreamBudget budget = budgets.get(budgetName);
+            if (budget == null) {
+                return request.get();
+            }
+
+            UpstreamBudget.Permit permit = budget.tryAcquire();
+            if (permit == null) {
+                reject(budgetName);
+                return Flux.empty();
+            }
+            return request.get().doFinally(signal -> permit.release());
+        });
+    }
+
+    private String budgetName(String providerName) {
+        return sharedBudgets.getOrDefault(providerName, providerName);
+    }
+
+    private void reject(String budgetName) {
+        log.debug("Upstream budget of {} is exhausted, skipping it", budgetName);
+        Counter counter = rejections.get(budgetName);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.reactiverates.infrastructure.stream;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateStream;
+import com.reactiverates.infrastructure.config.RateStreamProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Общие потоки курсов по парам.
+ * <p>
+ * Для каждой пары, у которой есть подписчики, держится один {@link Sinks.Many}, который хранит только
+ * последний курс, и один фоновый запрос курса раз в {@code refresh-interval}. Поток пары также получает
+ * курсы, которые кэш загрузил от провайдеров по другим запросам ({@link #publish(ExchangeRate)}).
+ * Курс, отличающийся от предыдущего меньше чем на {@code epsilon}, не отправляется. Когда уходит
+ * последний подписчик пары, ее поток и фоновый запрос останавливаются.
+ * <p>
+ * Временные ошибки фонового запроса пропускаются до следующего интервала. Если же пара не поддерживается
+ * ({@link CurrencyNotFoundException}), запросы прекращаются и подписчики получают эту ошибку.
+ */
+@Component
+public class RateStreamHub implements RateStream {
+    private static final Logger log = LoggerFactory.getLogger(RateStreamHub.class);
+
+    private final RateStreamProperties properties;
+    private final BigDecimal epsilon;
+    private final Map<String, PairStream> streams = new ConcurrentHashMap<>();
+    private final Counter published;
+    private final Counter suppressed;
+
+    public RateStreamHub(RateStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.epsilon = BigDecimal.valueOf(properties.epsilon());
+
+        this.published = Counter.builder("rates.stream.updates")
+            .description("Rate updates pushed to stream subscribers")
+            .tag("result", "published")
+            .register(meterRegistry);
+        this.suppressed = Counter.builder("rates.stream.updates")
+            .description("Rate updates pushed to stream subscribers")
+            .tag("result", "suppressed")
+            .register(meterRegistry);
+        Gauge.builder("rates.stream.pairs", streams, Map::size)
+            .description("Currency pairs with active stream subscribers")
+            .register(meterRegistry);
+        Gauge.builder("rates.stream.subscribers", streams,
+                map -> map.values().stream().mapToInt(stream -> stream.subscribers).sum())
+            .description("Active rate stream subscriptions")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Хаб без подписчиков для провайдеров, которым поток курсов не нужен
+     */
+    public static RateStreamHub disabled() {
+        return new RateStreamHub(new RateStreamProperties(null, null, null, null), new SimpleMeterRegistry());
+    }
+
+    @Override
+    public Flux<ExchangeRate> subscribe(String fromCurrency, String toCurrency, Supplier<Mono<ExchangeRate>> refresh) {
+        String key = key(fromCurrency, toCurrency);
+        return Flux.defer(() -> {
+                PairStream stream = streams.compute(key, (k, existing) -> {
+                    PairStream pair = existing != null ? existing : new PairStream(k, refresh);
+                    pair.subscribers++;
+                    return pair;
+                });
+                return stream.sink.asFlux()
+                    .doFinally(signal -> release(key));
+            })
+            .onBackpressureLatest();
+    }
+
+    /**
+     * Передает подписчикам пары курс, загруженный от провайдера; без подписчиков ничего не делает
+     */
+    public void publish(ExchangeRate rate) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        PairStream stream = streams.get(key(rate.fromCurrency().code(), rate.toCurrency().code()));
+        if (stream != null) {
+            stream.offer(rate);
+        }
+    }
+
+    public void publishAll(Collection<ExchangeRate> rates) {
+        if (!streams.isEmpty()) {
+            rates.forEach(this::publish);
+        }
+    }
+
+    private void release(String key) {
+        streams.computeIfPresent(key, (k, stream) -> {
+            if (--stream.subscribers > 0) {
+                return stream;
+            }
+            stream.close();
+            return null;
+        });
+    }
+
+    private boolean changed(ExchangeRate previous, ExchangeRate next) {
+        BigDecimal delta = next.rate().subtract(previous.rate()).abs();
+        return delta.compareTo(previous.rate().multiply(epsilon)) > 0;
+    }
+
+    private static String key(String fromCurrency, String toCurrency) {
+        return fromCurrency + "->" + toCurrency;
+    }
+
+    /**
+     * Поток одной пары; счетчик подписчиков меняется только внутри {@code compute} карты потоков
+     */
+    private final class PairStream {
+        private final Sinks.Many<ExchangeRate> sink = Sinks.many().replay().latest();
+        private final Disposable refreshes;
+        private ExchangeRate last;
+        private int subscribers;
+
+        private PairStream(String key, Supplier<Mono<ExchangeRate>> refresh) {
+            this.refreshes = Flux.interval(Duration.ZERO, properties.refreshInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh.get()
+                    .onErrorResume(error -> !(error instanceof CurrencyNotFoundException), error -> {
+                        log.debug("Stream refresh of {} failed: {}", key, error.getMessage());
+                        return Mono.empty();
+                    }))
+                .subscribe(this::offer, this::fail);
+            log.debug("Opened rate stream for {}", key);
+        }
+
+        private synchronized void offer(ExchangeRate rate) {
+            if (last != null && !changed(last, rate)) {
+                suppressed.increment();
+                return;
+            }
+            last = rate;
+            sink.tryEmitNext(rate);
+            published.increment();
+        }
+
+        private synchronized void fail(Throwable error) {
+            log.debug("Closing rate stream of an unsupported pair: {}", error.getMessage());
+            sink.tryEmitError(error);
+        }
+
+        private synchronized void close() {
+            refreshes.dispose();
+            sink.tryEmitComplete();
+        }
+    }
+}
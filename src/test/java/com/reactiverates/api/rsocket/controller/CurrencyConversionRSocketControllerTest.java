@@ -0,0 +1,143 @@
+package com.reactiverates.api.rsocket.controller;
+
+import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.domain.model.ConversionRequest;
+import com.reactiverates.domain.model.ConversionResult;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.CurrencyConversionService;
+import com.reactiverates.infrastructure.security.JwtService;
+import io.rsocket.exceptions.RejectedSetupException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для CurrencyConversionRSocketController")
+class CurrencyConversionRSocketControllerTest {
+
+    @Mock
+    private CurrencyConversionService service;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private RSocketRequester requester;
+
+    private CurrencyConversionRSocketController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new CurrencyConversionRSocketController(service, jwtService,
+            Validation.buildDefaultValidatorFactory().getValidator(), 4, 1);
+    }
+
+    @Test
+    @DisplayName("🔐 Соединение с валидным токеном принимается, без токена — отклоняется")
+    void connect_whenTokenChecked_thenAcceptsOnlyValidToken() {
+        // Arrange
+        when(jwtService.validateToken("good")).thenReturn(true);
+        when(jwtService.extractUsername("good")).thenReturn("batch-job");
+
+        // Act & Assert
+        StepVerifier.create(controller.connect("Bearer good")).verifyComplete();
+        StepVerifier.create(controller.connect(null)).verifyError(RejectedSetupException.class);
+    }
+
+    @Test
+    @DisplayName("📦 Канал возвращает результаты в порядке запросов")
+    void convertBatch_whenResultsArriveOutOfOrder_thenPreservesRequestOrder() {
+        // Arrange
+        ConversionRequest slow = ConversionRequest.of("USD", "EUR", new BigDecimal("10"));
+        ConversionRequest fast = ConversionRequest.of("EUR", "USD", new BigDecimal("20"));
+        ConversionResult slowResult = result(slow, "0.9");
+        ConversionResult fastResult = result(fast, "1.1");
+        when(service.convertCurrency(slow)).thenReturn(Mono.just(slowResult).delayElement(Duration.ofMillis(50)));
+        when(service.convertCurrency(fast)).thenReturn(Mono.just(fastResult));
+
+        // Act & Assert
+        StepVerifier.create(controller.convertBatch(Flux.just(slow, fast)).map(CurrencyConversionRSocketController.BatchResult::result))
+            .expectNext(slowResult, fastResult)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка одного запроса возвращается элементом канала, и канал продолжает работу")
+    void convertBatch_whenOneRequestFails_thenEmitsErrorElementAndContinues() {
+        // Arrange
+        ConversionRequest invalid = ConversionRequest.of("usd", "EUR", new BigDecimal("-1"));
+        ConversionRequest unavailable = ConversionRequest.of("USD", "JPY", new BigDecimal("5"));
+        ConversionRequest valid = ConversionRequest.of("EUR", "USD", new BigDecimal("20"));
+        ConversionResult validResult = result(valid, "1.1");
+        when(service.convertCurrency(unavailable)).thenReturn(Mono.error(new ExternalApiException("api key abc expired")));
+        when(service.convertCurrency(valid)).thenReturn(Mono.just(validResult));
+
+        // Act & Assert
+        StepVerifier.create(controller.convertBatch(Flux.just(invalid, unavailable, valid)))
+            .assertNext(item -> {
+                assertThat(item.request()).isEqualTo(invalid);
+                assertThat(item.result()).isNull();
+                assertThat(item.errorCode()).isEqualTo("VALIDATION_001");
+            })
+            .assertNext(item -> {
+                assertThat(item.errorCode()).isEqualTo("EXT_API_001");
+                assertThat(item.error()).doesNotContain("api key");
+            })
+            .assertNext(item -> assertThat(item.result()).isEqualTo(validResult))
+            .verifyComplete();
+        verify(service, never()).convertCurrency(invalid);
+    }
+
+    @Test
+    @DisplayName("🔤 Некорректная пара не передается в сервис")
+    void getExchangeRate_whenPairInvalid_thenFailsWithoutLookup() {
+        // Arrange
+        CurrencyConversionRSocketController.PairRequest invalid = new CurrencyConversionRSocketController.PairRequest("usd", null);
+
+        // Act & Assert
+        StepVerifier.create(controller.getExchangeRate(invalid)).verifyError(IllegalArgumentException.class);
+        StepVerifier.create(controller.streamExchangeRate(invalid, requester)).verifyError(IllegalArgumentException.class);
+        verify(service, never()).getExchangeRate(anyString(), anyString());
+        verify(service, never()).streamExchangeRate(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("🚧 Потоки сверх лимита соединения отклоняются, а закрытый поток освобождает место")
+    void streamExchangeRate_whenConnectionLimitReached_thenRejectsUntilStreamCloses() {
+        // Arrange
+        CurrencyConversionRSocketController.PairRequest pair = new CurrencyConversionRSocketController.PairRequest("USD", "EUR");
+        when(service.streamExchangeRate("USD", "EUR")).thenReturn(Flux.never());
+
+        // Act & Assert
+        StepVerifier.create(controller.streamExchangeRate(pair, requester))
+            .then(() -> StepVerifier.create(controller.streamExchangeRate(pair, requester))
+                .verifyError(IllegalStateException.class))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        StepVerifier.create(controller.streamExchangeRate(pair, requester))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        verify(service, times(2)).streamExchangeRate("USD", "EUR");
+    }
+
+    private ConversionResult result(ConversionRequest request, String rate) {
+        ExchangeRate exchangeRate = ExchangeRate.of(request.fromCurrency(), request.toCurrency(), new BigDecimal(rate), "Test");
+        return ConversionResult.of(request, exchangeRate, request.amount().multiply(exchangeRate.rate()));
+    }
+}
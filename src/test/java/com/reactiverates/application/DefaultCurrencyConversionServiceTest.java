@@ -2,8 +2,14 @@ package com.reactiverates.application;
 
 import com.reactiverates.domain.model.ConversionRequest;
 import com.reactiverates.domain.model.ConversionResult;
+import com.reactiverates.domain.model.Currency;
 import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.model.RateSnapshot;
+import com.reactiverates.domain.service.PairPopularity;
+import com.reactiverates.domain.service.RateMatrix;
 import com.reactiverates.domain.service.RateProvider;
+import com.reactiverates.domain.service.RateSnapshots;
+import com.reactiverates.domain.service.RateStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,11 +17,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -27,6 +40,18 @@ class DefaultCurrencyConversionServiceTest {
     @Mock
     private RateProvider rateProvider;
 
+    @Mock
+    private RateMatrix rateMatrix;
+
+    @Mock
+    private PairPopularity pairPopularity;
+
+    @Mock
+    private RateSnapshots rateSnapshots;
+
+    @Mock
+    private RateStream rateStream;
+
     @InjectMocks
     private DefaultCurrencyConversionService conversionService;
 
@@ -39,6 +64,8 @@ class DefaultCurrencyConversionServiceTest {
         fromCurrency = "EUR";
         toCurrency = "USD";
         amount = new BigDecimal("100.00");
+        lenient().when(rateSnapshots.current()).thenReturn(RateSnapshot.EMPTY);
+        lenient().when(rateSnapshots.maxAge()).thenReturn(Duration.ofMinutes(3));
     }
 
     @Test
@@ -123,6 +150,7 @@ class DefaultCurrencyConversionServiceTest {
         StepVerifier.create(resultMono)
             .expectNext(true)
             .verifyComplete();
+        verifyNoInteractions(pairPopularity);
     }
     
     @Test
@@ -139,4 +167,88 @@ class DefaultCurrencyConversionServiceTest {
             .expectNext(false)
             .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("🧮 Курс, выводимый из матрицы, не запрашивается у провайдера")
+    void getExchangeRate_whenMatrixCanDeriveRate_thenSkipsProvider() {
+        // Arrange
+        ExchangeRate source = ExchangeRate.of(toCurrency, fromCurrency, new BigDecimal("0.8"), "TestProvider");
+        ExchangeRate derived = ExchangeRate.of(fromCurrency, toCurrency, new BigDecimal("1.25"), "TestProvider (inverse)");
+        when(rateMatrix.derive(fromCurrency, toCurrency)).thenReturn(Optional.of(
+            new RateMatrix.DerivedRate(derived, RateMatrix.Derivation.INVERSE, List.of(source))));
+
+        // Act
+        Mono<ExchangeRate> resultMono = conversionService.getExchangeRate(fromCurrency, toCurrency);
+
+        // Assert
+        StepVerifier.create(resultMono)
+            .expectNext(derived)
+            .verifyComplete();
+
+        verify(rateProvider, never()).getCurrentRate(any(), any());
+    }
+
+    @Test
+    @DisplayName("📸 Курс из снимка используется без обращения к провайдеру, в ответе номер снимка, спрос учитывается при подписке")
+    void convertCurrency_whenSnapshotHasRate_thenUsesSnapshotVersion() {
+        // Arrange
+        ConversionRequest request = ConversionRequest.of(fromCurrency, toCurrency, amount);
+        ExchangeRate snapshotRate = ExchangeRate.of(fromCurrency, toCurrency, new BigDecimal("1.08"), "TestProvider");
+        when(rateSnapshots.current()).thenReturn(new RateSnapshot(7, LocalDateTime.now(),
+            Map.of(fromCurrency, Map.of(toCurrency, snapshotRate))));
+
+        // Act
+        Mono<ConversionResult> resultMono = conversionService.convertCurrency(request);
+
+        // Assert
+        verifyNoInteractions(pairPopularity);
+        StepVerifier.create(resultMono)
+            .assertNext(result -> {
+                assertThat(result.exchangeRate()).isEqualTo(snapshotRate);
+                assertThat(result.convertedAmount()).isEqualByComparingTo("108.0000");
+                assertThat(result.snapshotVersion()).isEqualTo(7L);
+            })
+            .verifyComplete();
+
+        verify(rateProvider, never()).getCurrentRate(any(), any());
+        verifyNoInteractions(rateMatrix);
+        verify(pairPopularity, times(1)).record(fromCurrency, toCurrency);
+    }
+
+    @Test
+    @DisplayName("⌛ Курс снимка старше допустимого возраста не используется")
+    void getExchangeRate_whenSnapshotRateExpired_thenFallsBackToProvider() {
+        // Arrange
+        ExchangeRate expired = new ExchangeRate(Currency.of(fromCurrency), Currency.of(toCurrency), new BigDecimal("1.05"),
+            LocalDateTime.now().minusMinutes(10), "TestProvider");
+        ExchangeRate fresh = ExchangeRate.of(fromCurrency, toCurrency, new BigDecimal("1.08"), "TestProvider");
+        when(rateSnapshots.current()).thenReturn(new RateSnapshot(7, LocalDateTime.now().minusMinutes(10),
+            Map.of(fromCurrency, Map.of(toCurrency, expired))));
+        when(rateProvider.getCurrentRate(fromCurrency, toCurrency)).thenReturn(Mono.just(fresh));
+
+        // Act & Assert
+        StepVerifier.create(conversionService.getExchangeRate(fromCurrency, toCurrency))
+            .expectNext(fresh)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("📡 Подписка на поток учитывается в популярности один раз, обновления потока — нет")
+    @SuppressWarnings("unchecked")
+    void streamExchangeRate_whenStreamRefreshes_thenRecordsPopularityOnce() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of(fromCurrency, toCurrency, new BigDecimal("1.08"), "TestProvider");
+        when(rateProvider.getCurrentRate(fromCurrency, toCurrency)).thenReturn(Mono.just(rate));
+        when(rateStream.subscribe(eq(fromCurrency), eq(toCurrency), any())).thenAnswer(call -> {
+            Supplier<Mono<ExchangeRate>> refresh = call.getArgument(2);
+            return Flux.concat(refresh.get(), refresh.get(), refresh.get());
+        });
+
+        // Act & Assert
+        StepVerifier.create(conversionService.streamExchangeRate(fromCurrency, toCurrency))
+            .expectNext(rate, rate, rate)
+            .verifyComplete();
+
+        verify(pairPopularity, times(1)).record(fromCurrency, toCurrency);
+    }
+}
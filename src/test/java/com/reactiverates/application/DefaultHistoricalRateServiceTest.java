@@ -4,6 +4,9 @@ import com.reactiverates.domain.model.Currency;
 import com.reactiverates.domain.model.HistoricalExchangeRate;
 import com.reactiverates.domain.service.HistoricalRateProvider;
 import com.reactiverates.domain.service.HistoricalRateRepository;
+import com.reactiverates.domain.service.PairPopularity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
@@ -37,6 +41,12 @@ class DefaultHistoricalRateServiceTest {
     @Mock
     private HistoricalRateProvider provider;
 
+    @Mock
+    private PairPopularity pairPopularity;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private DefaultHistoricalRateService service;
 
@@ -0,0 +1,103 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для AdaptiveTtlPolicy")
+class AdaptiveTtlPolicyTest {
+
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    private static final Duration MIN_TTL = Duration.ofSeconds(30);
+    private static final Duration MAX_TTL = Duration.ofHours(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveTtlPolicy policy = new AdaptiveTtlPolicy(DEFAULT_TTL, MIN_TTL, MAX_TTL, 0.0005, 0.3, 3,
+        Map.of("usd/hkd", Duration.ofHours(2)), meterRegistry);
+
+    private final LocalDateTime start = LocalDateTime.now().minusHours(1);
+
+    @Test
+    @DisplayName("🆕 Пока замеров мало, используется TTL по умолчанию")
+    void ttl_whenNotEnoughSamples_thenReturnsDefault() {
+        // Arrange
+        policy.observe(rate(Currency.USD, Currency.EUR, "0.9200", 0));
+        policy.observe(rate(Currency.USD, Currency.EUR, "0.9300", 60));
+
+        // Act & Assert
+        assertThat(policy.ttl(rate(Currency.USD, Currency.EUR, "0.9300", 60))).isEqualTo(DEFAULT_TTL);
+    }
+
+    @Test
+    @DisplayName("🧊 Неизменный курс хранится до верхней границы TTL")
+    void ttl_whenRateStable_thenReturnsMaxTtl() {
+        // Arrange
+        for (int i = 0; i <= 4; i++) {
+            policy.observe(rate(Currency.USD, Currency.EUR, "0.9200", i * 60));
+        }
+
+        // Act & Assert
+        assertThat(policy.ttl(rate(Currency.USD, Currency.EUR, "0.9200", 240))).isEqualTo(MAX_TTL);
+    }
+
+    @Test
+    @DisplayName("🌪️ Волатильная пара хранится меньше стабильной, но не меньше нижней границы")
+    void ttl_whenRateVolatile_thenReturnsShorterTtl() {
+        // Arrange
+        String[] volatileRates = {"90.0", "91.0", "89.5", "92.0", "90.5"};
+        String[] calmRates = {"0.920000", "0.920100", "0.920000", "0.920100", "0.920000"};
+        for (int i = 0; i < volatileRates.length; i++) {
+            policy.observe(rate(Currency.USD, Currency.RUB, volatileRates[i], i * 60));
+            policy.observe(rate(Currency.USD, Currency.EUR, calmRates[i], i * 60));
+        }
+
+        // Act
+        Duration volatileTtl = policy.ttl(rate(Currency.USD, Currency.RUB, "90.5", 240));
+        Duration calmTtl = policy.ttl(rate(Currency.USD, Currency.EUR, "0.920000", 240));
+
+        // Assert
+        assertThat(volatileTtl).isEqualTo(MIN_TTL);
+        assertThat(calmTtl).isGreaterThan(volatileTtl).isLessThan(MAX_TTL);
+        assertThat(meterRegistry.get("rates.cache.ttl.effective").summary().count()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("📌 TTL пары из настроек не зависит от замеров и учитывается в наибольшем TTL")
+    void ttl_whenPairOverridden_thenReturnsConfiguredTtl() {
+        // Arrange
+        for (int i = 0; i <= 4; i++) {
+            policy.observe(rate(Currency.USD, Currency.of("HKD"), i % 2 == 0 ? "7.80" : "7.90", i * 60));
+        }
+
+        // Act & Assert
+        assertThat(policy.ttl(rate(Currency.USD, Currency.of("HKD"), "7.80", 240))).isEqualTo(Duration.ofHours(2));
+        assertThat(policy.maxTtl()).isEqualTo(Duration.ofHours(2));
+    }
+
+    @Test
+    @DisplayName("🔁 Повторная запись того же курса не считается новым замером")
+    void observe_whenSameRateWrittenTwice_thenCountedOnce() {
+        // Arrange
+        ExchangeRate rate = rate(Currency.USD, Currency.EUR, "0.92", 0);
+
+        // Act
+        policy.observe(rate);
+        policy.observe(rate);
+
+        // Assert
+        assertThat(meterRegistry.get("rates.cache.ttl.effective").summary().count()).isEqualTo(1);
+    }
+
+    private ExchangeRate rate(Currency from, Currency to, String value, long secondsAfterStart) {
+        return new ExchangeRate(from, to, new BigDecimal(value), start.plusSeconds(secondsAfterStart), "Test");
+    }
+}
@@ -0,0 +1,237 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
+import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateCache;
+import com.reactiverates.domain.service.RateMatrix;
+import com.reactiverates.domain.service.RateProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для CachedRateProvider")
+class CachedRateProviderTest {
+
+    @Mock
+    private RateProvider delegate;
+
+    @Mock
+    private RateCache cache;
+
+    @Mock
+    private RateMatrix rateMatrix;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachedRateProvider cachedProvider;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(delegate.getProviderName()).thenReturn("Delegate");
+        lenient().when(cache.getRate(any(), any())).thenReturn(Mono.empty());
+        lenient().when(cache.putRates(anyCollection())).thenReturn(Mono.empty());
+        lenient().when(cache.putTable(any(), anyCollection())).thenReturn(Mono.empty());
+
+        meterRegistry = new SimpleMeterRegistry();
+        cachedProvider = new CachedRateProvider(delegate, cache, rateMatrix,
+            RefreshAheadPolicy.disabled(Duration.ofMinutes(5)), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("🤝 Одновременные промахи по одной паре объединяются в один запрос")
+    void getCurrentRate_whenConcurrentMisses_thenSharesSingleUpstreamRequest() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Delegate");
+        Sinks.One<List<ExchangeRate>> upstream = Sinks.one();
+        when(delegate.getCurrentRates("USD", Set.of()))
+            .thenReturn(upstream.asMono().flatMapMany(Flux::fromIterable));
+
+        // Act
+        Mono<List<ExchangeRate>> concurrent = Flux.merge(
+                cachedProvider.getCurrentRate("USD", "EUR"),
+                cachedProvider.getCurrentRate("USD", "EUR"),
+                cachedProvider.getCurrentRate("USD", "EUR"))
+            .collectList();
+
+        // Assert
+        StepVerifier.create(concurrent)
+            .then(() -> upstream.tryEmitValue(List.of(rate)))
+            .assertNext(rates -> assertThat(rates).containsExactly(rate, rate, rate))
+            .verifyComplete();
+
+        verify(delegate, times(1)).getCurrentRates("USD", Set.of());
+        verify(delegate, never()).getCurrentRate(any(), any());
+        assertThat(meterRegistry.counter("rates.cache.coalesced.requests", "operation", "rate").count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("🔁 После завершения запроса следующий промах идет к провайдеру заново")
+    void getCurrentRate_whenPreviousFetchFailed_thenRetriesUpstream() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Delegate");
+        when(delegate.getCurrentRates("USD", Set.of())).thenReturn(Flux.empty());
+        when(delegate.getCurrentRate("USD", "EUR"))
+            .thenReturn(Mono.error(new IllegalStateException("boom")))
+            .thenReturn(Mono.just(rate));
+        when(cache.putRate(rate)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(cachedProvider.getCurrentRate("USD", "EUR"))
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(1));
+
+        StepVerifier.create(cachedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(rate)
+            .verifyComplete();
+
+        verify(delegate, times(2)).getCurrentRate("USD", "EUR");
+        assertThat(meterRegistry.timer("rates.cache.lookups",
+            "operation", "rate", "pair_class", "major", "outcome", "error").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("rates.cache.lookups",
+            "operation", "rate", "pair_class", "major", "outcome", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("🧱 Если таблица не загрузилась, курс пары отдельно не запрашивается")
+    void getCurrentRate_whenTableFetchFails_thenSkipsSinglePairFetch() {
+        // Arrange
+        when(delegate.getCurrentRates("USD", Set.of())).thenReturn(Flux.error(new ExternalApiException("down")));
+
+        // Act & Assert
+        StepVerifier.create(cachedProvider.getCurrentRate("USD", "EUR"))
+            .expectError(ExternalApiException.class)
+            .verify(Duration.ofSeconds(1));
+
+        verify(delegate, never()).getCurrentRate(any(), any());
+    }
+
+    @Test
+    @DisplayName("🔤 Неизвестная базовая валюта запоминается как неподдерживаемая пара, а не как сбой")
+    void getCurrentRate_whenTableRejectsBase_thenAnswersFromNegativeCacheAsUnsupported() {
+        // Arrange
+        NegativeRateCache negativeCache = new NegativeRateCache(true, Duration.ofMinutes(10), Duration.ofSeconds(5),
+            100, meterRegistry);
+        cachedProvider = new CachedRateProvider(delegate, cache, rateMatrix,
+            RefreshAheadPolicy.disabled(Duration.ofMinutes(5)), negativeCache, meterRegistry);
+        when(delegate.getCurrentRates("XYZ", Set.of())).thenReturn(Flux.error(new CurrencyNotFoundException("XYZ")));
+
+        // Act & Assert
+        StepVerifier.create(cachedProvider.getCurrentRate("XYZ", "EUR"))
+            .expectError(CurrencyNotFoundException.class)
+            .verify(Duration.ofSeconds(1));
+        StepVerifier.create(cachedProvider.getCurrentRate("XYZ", "EUR"))
+            .expectError(CurrencyNotFoundException.class)
+            .verify(Duration.ofSeconds(1));
+
+        verify(delegate, times(1)).getCurrentRates("XYZ", Set.of());
+        verify(delegate, never()).getCurrentRate(any(), any());
+        assertThat(meterRegistry.counter("rates.cache.negative.hits", "reason", "unsupported").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("🚫 Неподдерживаемая пара запоминается и следующий запрос не идет к провайдеру")
+    void getCurrentRate_whenPairIsUnsupported_thenAnswersFromNegativeCache() {
+        // Arrange
+        NegativeRateCache negativeCache = new NegativeRateCache(true, Duration.ofMinutes(10), Duration.ofSeconds(5),
+            100, meterRegistry);
+        cachedProvider = new CachedRateProvider(delegate, cache, rateMatrix,
+            RefreshAheadPolicy.disabled(Duration.ofMinutes(5)), negativeCache, meterRegistry);
+        when(delegate.getCurrentRates("USD", Set.of())).thenReturn(Flux.empty());
+        when(delegate.getCurrentRate("USD", "XXX")).thenReturn(Mono.error(new CurrencyNotFoundException("USD", "XXX")));
+
+        // Act & Assert
+        StepVerifier.create(cachedProvider.getCurrentRate("USD", "XXX"))
+            .expectError(CurrencyNotFoundException.class)
+            .verify(Duration.ofSeconds(1));
+        StepVerifier.create(cachedProvider.getCurrentRate("USD", "XXX"))
+            .expectError(CurrencyNotFoundException.class)
+            .verify(Duration.ofSeconds(1));
+
+        verify(delegate, times(1)).getCurrentRate("USD", "XXX");
+        assertThat(meterRegistry.counter("rates.cache.negative.hits", "reason", "unsupported").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("⏳ Курс старше soft TTL отдается из кэша и обновляется в фоне")
+    void getCurrentRate_whenCachedRateIsPastSoftTtl_thenServesItAndRefreshesInBackground() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(true, Duration.ofMinutes(5), Duration.ofMinutes(15), 0.0);
+        cachedProvider = new CachedRateProvider(delegate, cache, rateMatrix, policy, meterRegistry);
+
+        ExchangeRate stale = new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.91"),
+            LocalDateTime.now().minusMinutes(7), "Delegate");
+        ExchangeRate fresh = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Delegate");
+        Sinks.One<List<ExchangeRate>> upstream = Sinks.one();
+        when(cache.getRate("USD", "EUR")).thenReturn(Mono.just(stale));
+        when(delegate.getCurrentRates("USD", Set.of()))
+            .thenReturn(upstream.asMono().flatMapMany(Flux::fromIterable));
+
+        // Act & Assert
+        StepVerifier.create(cachedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(stale)
+            .verifyComplete();
+
+        StepVerifier.create(cachedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(stale)
+            .verifyComplete();
+
+        upstream.tryEmitValue(List.of(fresh));
+
+        verify(delegate, times(1)).getCurrentRates("USD", Set.of());
+        verify(cache).putTable("USD", List.of(fresh));
+    }
+
+    @Test
+    @DisplayName("🎲 Раннее обновление срабатывает до soft TTL с учетом времени запроса")
+    void shouldRefresh_whenCloseToSoftTtl_thenRefreshesEarlyProportionallyToLatency() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(true, Duration.ofMinutes(5), Duration.ofMinutes(15), 1.0, () -> 0.9);
+        ExchangeRate almostStale = new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.91"),
+            LocalDateTime.now().minusSeconds(290), "Delegate");
+
+        // Act & Assert
+        assertThat(policy.shouldRefresh(almostStale)).isFalse();
+
+        policy.recordFetchLatency(Duration.ofSeconds(5));
+        assertThat(policy.shouldRefresh(almostStale)).isTrue();
+        assertThat(policy.retention()).isEqualTo(Duration.ofMinutes(15));
+    }
+
+    @Test
+    @DisplayName("📏 Soft TTL считается от срока хранения конкретной записи")
+    void shouldRefresh_whenEntryTtlIsShort_thenSoftTtlScalesWithIt() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(true, Duration.ofMinutes(5), Duration.ofMinutes(15), 0.0,
+            RateTtlPolicy.fixed(Duration.ofMinutes(3)));
+        ExchangeRate twoMinutesOld = new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.91"),
+            LocalDateTime.now().minusMinutes(2), "Delegate");
+        ExchangeRate thirtySecondsOld = new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.91"),
+            LocalDateTime.now().minusSeconds(30), "Delegate");
+
+        // Act & Assert
+        assertThat(policy.shouldRefresh(twoMinutesOld)).isTrue();
+        assertThat(policy.shouldRefresh(thirtySecondsOld)).isFalse();
+    }
+}
@@ -0,0 +1,82 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reactiverates.domain.model.ExchangeRate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность попаданий в {@link CaffeineRateCache} по сравнению с прежней реализацией:
+ * строковый ключ, {@code Mono.fromCallable} и переход на {@code boundedElastic} на каждое обращение.
+ * <p>
+ * Запускается через {@link #main} с тестовым classpath; профилировщик GC показывает аллокации на попадание.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CaffeineRateCacheBenchmark {
+
+    private CaffeineRateCache cache;
+    private Cache<String, ExchangeRate> legacy;
+
+    @Setup
+    public void setUp() {
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Bench");
+        cache = new CaffeineRateCache(Duration.ofMinutes(5), 1000);
+        cache.putRate(rate).block();
+
+        legacy = Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofMinutes(5)).recordStats().build();
+        legacy.put("USD" + "->" + "EUR", rate);
+    }
+
+    @Benchmark
+    public ExchangeRate hit() {
+        return cache.getRate("USD", "EUR").block();
+    }
+
+    @Benchmark
+    public ExchangeRate legacyHit() {
+        return legacyGetRate("USD", "EUR").block();
+    }
+
+    private Mono<ExchangeRate> legacyGetRate(String fromCurrency, String toCurrency) {
+        return Mono.fromCallable(() -> {
+            ExchangeRate cachedRate = legacy.getIfPresent(fromCurrency + "->" + toCurrency);
+            return cachedRate != null && cachedRate.timestamp().isAfter(LocalDateTime.now().minusMinutes(5)) ? cachedRate : null;
+        })
+        .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CaffeineRateCacheBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
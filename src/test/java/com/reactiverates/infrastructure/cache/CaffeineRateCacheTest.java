@@ -0,0 +1,69 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для CaffeineRateCache")
+class CaffeineRateCacheTest {
+
+    private final CaffeineRateCache cache = new CaffeineRateCache(Duration.ofMinutes(5), 100);
+
+    @Test
+    @DisplayName("⚡ Попадание возвращает один и тот же готовый Mono без смены потока")
+    void getRate_whenHit_thenReturnsPrecomputedMonoOnCallerThread() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Test");
+        cache.putRate(rate).block();
+        String caller = Thread.currentThread().getName();
+
+        // Act & Assert
+        assertThat(cache.getRate("USD", "EUR")).isSameAs(cache.getRate("USD", "EUR"));
+        StepVerifier.create(cache.getRate("USD", "EUR")
+                .doOnNext(r -> assertThat(Thread.currentThread().getName()).isEqualTo(caller)))
+            .expectNext(rate)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("⏰ Курс старше TTL не отдается, удаляется и считается промахом")
+    void getRate_whenRateOlderThanTtl_thenReturnsEmpty() {
+        // Arrange
+        ExchangeRate old = new ExchangeRate(Currency.USD, Currency.GBP, new BigDecimal("0.79"),
+            LocalDateTime.now().minusMinutes(6), "Test");
+        cache.putRate(old).block();
+
+        // Act & Assert
+        StepVerifier.create(cache.getRate("USD", "GBP")).verifyComplete();
+        StepVerifier.create(cache.getStats())
+            .assertNext(stats -> {
+                assertThat(stats.estimatedSize()).isZero();
+                assertThat(stats.hitCount()).isZero();
+                assertThat(stats.missCount()).isEqualTo(1);
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("🔤 Пары с нестандартными кодами хранятся отдельно от упакованных")
+    void putRate_whenCodeNotPackable_thenStoredByRawKey() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("X1Y", "EUR", new BigDecimal("2.5"), "Test");
+        cache.putRates(List.of(rate, ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Test"))).block();
+
+        // Act & Assert
+        StepVerifier.create(cache.getRate("X1Y", "EUR")).expectNext(rate).verifyComplete();
+        cache.evict("X1Y", "EUR").block();
+        StepVerifier.create(cache.getRate("X1Y", "EUR")).verifyComplete();
+        StepVerifier.create(cache.getRate("USD", "EUR").hasElement()).expectNext(true).verifyComplete();
+    }
+}
@@ -0,0 +1,100 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateMatrix.DerivedRate;
+import com.reactiverates.domain.service.RateMatrix.Derivation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для DenseRateMatrix")
+class DenseRateMatrixTest {
+
+    private DenseRateMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new DenseRateMatrix(16, Duration.ofMinutes(5), List.of("USD", "EUR"));
+    }
+
+    @Test
+    @DisplayName("✅ Пара, известная напрямую, не выводится из матрицы")
+    void derive_whenDirectRateIsKnown_thenLeavesItToCache() {
+        // Arrange
+        matrix.update(ExchangeRate.of("USD", "EUR", new BigDecimal("0.9234"), "ProviderA"));
+        matrix.update(ExchangeRate.of("EUR", "USD", new BigDecimal("1.0829"), "ProviderA"));
+
+        // Act
+        Optional<DerivedRate> result = matrix.derive("USD", "EUR");
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("🔄 Обратный курс выводится из прямого")
+    void derive_whenOnlyOppositeRateIsKnown_thenReturnsInverse() {
+        // Arrange
+        matrix.update(ExchangeRate.of("EUR", "USD", new BigDecimal("1.25"), "ProviderA"));
+
+        // Act
+        Optional<DerivedRate> result = matrix.derive("USD", "EUR");
+
+        // Assert
+        assertThat(result).hasValueSatisfying(derived -> {
+            assertThat(derived.derivation()).isEqualTo(Derivation.INVERSE);
+            assertThat(derived.rate().rate()).isEqualByComparingTo("0.8");
+            assertThat(derived.sources()).extracting(rate -> rate.fromCurrency().code()).containsExactly("EUR");
+        });
+    }
+
+    @Test
+    @DisplayName("🔀 Кросс-курс выводится через опорную валюту с указанием источников")
+    void derive_whenBothLegsViaPivotAreFresh_thenReturnsCrossRate() {
+        // Arrange
+        matrix.update(ExchangeRate.of("EUR", "USD", new BigDecimal("1.1"), "ProviderA"));
+        matrix.update(ExchangeRate.of("USD", "GBP", new BigDecimal("0.8"), "ProviderB"));
+
+        // Act
+        Optional<DerivedRate> result = matrix.derive("EUR", "GBP");
+
+        // Assert
+        assertThat(result).hasValueSatisfying(derived -> {
+            assertThat(derived.derivation()).isEqualTo(Derivation.CROSS);
+            assertThat(derived.rate().rate()).isEqualByComparingTo("0.88");
+            assertThat(derived.rate().providerName()).isEqualTo("ProviderA + ProviderB (cross via USD)");
+            assertThat(derived.sources()).extracting(ExchangeRate::providerName).containsExactly("ProviderA", "ProviderB");
+        });
+    }
+
+    @Test
+    @DisplayName("⌛ Устаревшие исходные курсы не используются")
+    void derive_whenSourceRateIsStale_thenReturnsEmpty() {
+        // Arrange
+        LocalDateTime stale = LocalDateTime.now().minusMinutes(10);
+        matrix.update(new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.9"), stale, "ProviderA"));
+
+        // Act & Assert
+        assertThat(matrix.derive("USD", "EUR")).isEmpty();
+        assertThat(matrix.derive("EUR", "USD")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("❓ Неизвестная валюта не выводится")
+    void derive_whenCurrencyIsUnknown_thenReturnsEmpty() {
+        // Arrange
+        matrix.update(ExchangeRate.of("USD", "EUR", new BigDecimal("0.9"), "ProviderA"));
+
+        // Act & Assert
+        assertThat(matrix.derive("USD", "JPY")).isEmpty();
+    }
+}
@@ -0,0 +1,103 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение JSON-сериализатора курсов и {@link ExchangeRateRedisSerializer}: время кодирования
+ * и разбора, байты на запись ({@code bytesPerEntry}) и аллокации (профилировщик GC).
+ * <p>
+ * Запускается через {@link #main} с тестовым classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeRateCodecBenchmark {
+
+    private Jackson2JsonRedisSerializer<ExchangeRate> json;
+    private ExchangeRateRedisSerializer binary;
+    private ExchangeRate rate;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        json = new Jackson2JsonRedisSerializer<>(new ObjectMapper().registerModule(new JavaTimeModule()), ExchangeRate.class);
+        binary = new ExchangeRateRedisSerializer(json);
+        rate = new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.9213"), LocalDateTime.now(), "ExchangeRate-API.com");
+        jsonBytes = json.serialize(rate);
+        binaryBytes = binary.serialize(rate);
+    }
+
+    /**
+     * Размер записи выводится вспомогательным счетчиком рядом со временем операции
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EntrySize {
+        public long bytesPerEntry;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerEntry = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonEncode(EntrySize size) {
+        byte[] bytes = json.serialize(rate);
+        size.bytesPerEntry = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(EntrySize size) {
+        byte[] bytes = binary.serialize(rate);
+        size.bytesPerEntry = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public ExchangeRate jsonDecode() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public ExchangeRate binaryDecode() {
+        return binary.deserialize(binaryBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ExchangeRateCodecBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тесты для ExchangeRateRedisSerializer")
+class ExchangeRateRedisSerializerTest {
+
+    private final Jackson2JsonRedisSerializer<ExchangeRate> json =
+        new Jackson2JsonRedisSerializer<>(new ObjectMapper().registerModule(new JavaTimeModule()), ExchangeRate.class);
+    private final ExchangeRateRedisSerializer serializer = new ExchangeRateRedisSerializer(json);
+
+    private final LocalDateTime timestamp = LocalDateTime.of(2024, 5, 17, 10, 30, 15, 123_000_000);
+
+    @Test
+    @DisplayName("🔁 Курс восстанавливается без потерь и занимает меньше JSON")
+    void serialize_whenKnownProvider_thenRoundTripsCompactly() {
+        // Arrange
+        ExchangeRate rate = new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.92130"), timestamp, "UniRateAPI");
+
+        // Act
+        byte[] bytes = serializer.serialize(rate);
+
+        // Assert
+        assertThat(serializer.deserialize(bytes)).isEqualTo(rate);
+        assertThat(bytes[0]).isEqualTo(ExchangeRateRedisSerializer.VERSION);
+        assertThat(bytes.length).isLessThan(20).isLessThan(json.serialize(rate).length / 5);
+    }
+
+    @Test
+    @DisplayName("🗓️ Время следующего обновления у провайдера сохраняется")
+    void serialize_whenValidUntilKnown_thenRoundTrips() {
+        // Arrange
+        ExchangeRate rate = new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.92130"), timestamp,
+            "ExchangeRate-API.com", timestamp.plusHours(12));
+
+        // Act & Assert
+        assertThat(serializer.deserialize(serializer.serialize(rate))).isEqualTo(rate);
+    }
+
+    @Test
+    @DisplayName("🏷️ Неизвестный провайдер и нестандартный код валюты записываются строками")
+    void serialize_whenUnknownProviderAndCode_thenStoresInline() {
+        // Arrange
+        ExchangeRate rate = new ExchangeRate(Currency.of("X1Y"), Currency.of("JPY"), new BigDecimal("1234567890123456789012.5"),
+            timestamp, "Custom Provider");
+
+        // Act & Assert
+        assertThat(serializer.deserialize(serializer.serialize(rate))).isEqualTo(rate);
+    }
+
+    @Test
+    @DisplayName("📜 Значения, записанные в JSON, читаются через запасной сериализатор")
+    void deserialize_whenLegacyJson_thenUsesFallback() {
+        // Arrange
+        ExchangeRate rate = new ExchangeRate(Currency.GBP, Currency.USD, new BigDecimal("1.27"), timestamp, "ExchangeRate-API.com");
+
+        // Act & Assert
+        assertThat(serializer.deserialize(json.serialize(rate))).isEqualTo(rate);
+    }
+
+    @Test
+    @DisplayName("💥 Обрезанное значение приводит к SerializationException")
+    void deserialize_whenTruncated_thenThrowsSerializationException() {
+        // Arrange
+        byte[] bytes = serializer.serialize(new ExchangeRate(Currency.USD, Currency.RUB, new BigDecimal("91.5"), timestamp, null));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+
+        // Act & Assert
+        assertThatThrownBy(() -> serializer.deserialize(truncated)).isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для ProviderScheduleTtlPolicy")
+class ProviderScheduleTtlPolicyTest {
+
+    private final ProviderScheduleTtlPolicy policy =
+        new ProviderScheduleTtlPolicy(RateTtlPolicy.fixed(Duration.ofMinutes(5)), Duration.ofHours(24));
+
+    private final LocalDateTime fetchedAt = LocalDateTime.of(2024, 5, 17, 10, 30);
+
+    @Test
+    @DisplayName("🗓️ Курс хранится до объявленного провайдером обновления")
+    void ttl_whenValidUntilDeclared_thenExpiresAtIt() {
+        // Act & Assert
+        assertThat(policy.ttl(rate(fetchedAt.plusHours(13).plusMinutes(30)))).isEqualTo(Duration.ofMinutes(810));
+        assertThat(policy.ttl(rate(fetchedAt.plusSeconds(40)))).isEqualTo(Duration.ofSeconds(40));
+        assertThat(policy.maxTtl()).isEqualTo(Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("🧱 Срок провайдера ограничен сверху")
+    void ttl_whenValidUntilTooFar_thenCapped() {
+        // Act & Assert
+        assertThat(policy.ttl(rate(fetchedAt.plusDays(3)))).isEqualTo(Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("↩️ Без срока или с уже прошедшим сроком действует исходная политика")
+    void ttl_whenValidUntilMissingOrPassed_thenFallsBack() {
+        // Act & Assert
+        assertThat(policy.ttl(rate(null))).isEqualTo(Duration.ofMinutes(5));
+        assertThat(policy.ttl(rate(fetchedAt.minusMinutes(1)))).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private ExchangeRate rate(LocalDateTime validUntil) {
+        return new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.92"), fetchedAt, "ExchangeRate-API.com",
+            validUntil);
+    }
+}
@@ -0,0 +1,79 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тесты для RateCacheSnapshot")
+class RateCacheSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("💾 Снимок большого кэша записывается и читается без потерь")
+    void writeAndRead_whenManyEntries_thenRoundTrips() throws IOException {
+        // Arrange
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0);
+        List<ExchangeRate> rates = IntStream.range(0, 10_000)
+            .mapToObj(i -> new ExchangeRate(Currency.USD, Currency.of("Q" + (char) ('A' + i % 26) + (char) ('A' + i / 26 % 26)),
+                BigDecimal.valueOf(i + 1, 4), timestamp, i % 2 == 0 ? "UniRateAPI" : "Custom " + i))
+            .toList();
+        Path path = directory.resolve("nested/rates.snapshot");
+
+        // Act
+        RateCacheSnapshot.write(path, rates);
+
+        // Assert
+        assertThat(RateCacheSnapshot.read(path)).containsExactlyElementsOf(rates);
+        assertThat(Files.exists(path.resolveSibling("rates.snapshot.tmp"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("⏰ При загрузке в кэш курсы старше TTL отбрасываются")
+    void restore_whenSnapshotHasStaleRates_thenDiscardsThem() throws IOException {
+        // Arrange
+        ExchangeRate fresh = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Test");
+        ExchangeRate stale = new ExchangeRate(Currency.USD, Currency.GBP, new BigDecimal("0.79"),
+            LocalDateTime.now().minusHours(1), "Test");
+        Path path = directory.resolve("rates.snapshot");
+        RateCacheSnapshot.write(path, List.of(fresh, stale));
+        CaffeineRateCache cache = new CaffeineRateCache(Duration.ofMinutes(5), 100);
+
+        // Act
+        int restored = cache.restore(RateCacheSnapshot.read(path));
+
+        // Assert
+        assertThat(restored).isEqualTo(1);
+        assertThat(cache.entries()).extracting(rate -> rate.toCurrency().code()).containsExactly("EUR");
+    }
+
+    @Test
+    @DisplayName("💥 Обрезанный снимок приводит к IOException, отсутствующий читается как пустой")
+    void read_whenTruncatedOrMissing_thenFailsOrReturnsEmpty() throws IOException {
+        // Arrange
+        Path path = directory.resolve("rates.snapshot");
+        RateCacheSnapshot.write(path, List.of(ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Test")));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 4));
+
+        // Act & Assert
+        assertThatThrownBy(() -> RateCacheSnapshot.read(path)).isInstanceOf(IOException.class);
+        assertThat(RateCacheSnapshot.read(directory.resolve("missing.snapshot"))).isEmpty();
+    }
+}
@@ -0,0 +1,149 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.model.RateSnapshot;
+import com.reactiverates.domain.service.RateProvider;
+import com.reactiverates.infrastructure.config.RateSnapshotProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для RateSnapshotEngine")
+class RateSnapshotEngineTest {
+
+    @Mock
+    private RateProvider rateProvider;
+
+    private RateSnapshotEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new RateSnapshotEngine(rateProvider,
+            new RateSnapshotProperties(true, List.of("USD", "EUR"), Duration.ofMinutes(1), Duration.ofMinutes(5), 2),
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("📸 Каждое обновление публикует снимок со следующим номером")
+    void refresh_whenTablesFetched_thenPublishesNextVersion() {
+        // Arrange
+        when(rateProvider.getCurrentRates("USD", Set.of())).thenReturn(Flux.just(
+            rate("USD", "EUR", "0.8"), rate("USD", "GBP", "0.75")));
+        when(rateProvider.getCurrentRates("EUR", Set.of())).thenReturn(Flux.just(rate("EUR", "JPY", "160")));
+
+        // Act & Assert
+        assertThat(engine.current()).isSameAs(RateSnapshot.EMPTY);
+        StepVerifier.create(engine.refresh())
+            .assertNext(snapshot -> assertThat(snapshot.version()).isEqualTo(1))
+            .verifyComplete();
+        StepVerifier.create(engine.refresh())
+            .assertNext(snapshot -> assertThat(snapshot.version()).isEqualTo(2))
+            .verifyComplete();
+
+        RateSnapshot snapshot = engine.current();
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.find("USD", "GBP")).map(ExchangeRate::rate).contains(new BigDecimal("0.75"));
+        assertThat(snapshot.find("EUR", "USD")).map(ExchangeRate::rate).contains(new BigDecimal("1.25"));
+        assertThat(snapshot.find("EUR", "GBP")).map(ExchangeRate::rate).contains(new BigDecimal("0.9375"));
+        assertThat(snapshot.find("GBP", "CHF")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("🧱 Таблица, которую не удалось обновить, берется из прежнего снимка")
+    void refresh_whenBaseFails_thenKeepsPreviousTable() {
+        // Arrange
+        when(rateProvider.getCurrentRates("USD", Set.of()))
+            .thenReturn(Flux.just(rate("USD", "EUR", "0.8")))
+            .thenReturn(Flux.just(rate("USD", "EUR", "0.81")));
+        when(rateProvider.getCurrentRates("EUR", Set.of()))
+            .thenReturn(Flux.just(rate("EUR", "JPY", "160")))
+            .thenReturn(Flux.error(new ExternalApiException("timeout")));
+
+        // Act
+        engine.refresh().block();
+        RateSnapshot second = engine.refresh().block();
+
+        // Assert
+        assertThat(second.version()).isEqualTo(2);
+        assertThat(second.find("USD", "EUR")).map(ExchangeRate::rate).contains(new BigDecimal("0.81"));
+        assertThat(second.find("EUR", "JPY")).map(ExchangeRate::rate).contains(new BigDecimal("160"));
+    }
+
+    @Test
+    @DisplayName("🚫 Без единой обновленной таблицы снимок не заменяется")
+    void refresh_whenAllBasesFail_thenKeepsCurrentSnapshot() {
+        // Arrange
+        when(rateProvider.getCurrentRates("USD", Set.of())).thenReturn(Flux.error(new ExternalApiException("down")));
+        when(rateProvider.getCurrentRates("EUR", Set.of())).thenReturn(Flux.error(new ExternalApiException("down")));
+
+        // Act & Assert
+        StepVerifier.create(engine.refresh())
+            .expectNext(RateSnapshot.EMPTY)
+            .verifyComplete();
+        assertThat(engine.current().isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("🗑️ Если обновить ничего не удалось, устаревшие таблицы все равно убираются из снимка")
+    void refresh_whenAllBasesFailAndTablesExpired_thenPublishesSnapshotWithoutThem() {
+        // Arrange
+        ExchangeRate old = new ExchangeRate(Currency.of("USD"), Currency.of("EUR"), new BigDecimal("0.8"),
+            LocalDateTime.now().minusMinutes(10), "TestProvider");
+        when(rateProvider.getCurrentRates("USD", Set.of()))
+            .thenReturn(Flux.just(old))
+            .thenReturn(Flux.error(new ExternalApiException("down")));
+        when(rateProvider.getCurrentRates("EUR", Set.of()))
+            .thenReturn(Flux.just(rate("EUR", "JPY", "160")))
+            .thenReturn(Flux.error(new ExternalApiException("down")));
+        engine.refresh().block();
+
+        // Act
+        RateSnapshot next = engine.refresh().block();
+
+        // Assert
+        assertThat(next.version()).isEqualTo(2);
+        assertThat(next.tables()).containsOnlyKeys("EUR");
+        assertThat(next.find("USD", "EUR")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("🔀 Кросс-курс снимка берет ранний validUntil ног и называет обоих провайдеров")
+    void find_whenCrossRate_thenKeepsEarlierValidUntilAndBothProviders() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        ExchangeRate toEur = new ExchangeRate(Currency.USD, Currency.EUR, new BigDecimal("0.8"), now, "First",
+            now.plusMinutes(10));
+        ExchangeRate toGbp = new ExchangeRate(Currency.USD, Currency.GBP, new BigDecimal("0.75"), now, "Second",
+            now.plusMinutes(3));
+        RateSnapshot snapshot = new RateSnapshot(1, now, Map.of("USD", Map.of("EUR", toEur, "GBP", toGbp)));
+
+        // Act & Assert
+        assertThat(snapshot.find("EUR", "GBP")).hasValueSatisfying(cross -> {
+            assertThat(cross.validUntil()).isEqualTo(now.plusMinutes(3));
+            assertThat(cross.providerName()).isEqualTo("First + Second (cross via USD)");
+        });
+    }
+
+    private ExchangeRate rate(String from, String to, String value) {
+        return ExchangeRate.of(from, to, new BigDecimal(value), "TestProvider");
+    }
+}
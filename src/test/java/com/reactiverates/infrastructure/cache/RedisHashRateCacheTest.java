@@ -0,0 +1,155 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.model.Currency;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.infrastructure.config.RedisConfig.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для RedisHashRateCache")
+class RedisHashRateCacheTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ReactiveHashOperations<String, String, String> hashes;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> index;
+
+    private RedisHashRateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashes);
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(index);
+
+        cache = new RedisHashRateCache(redisTemplate,
+            new CacheProperties(Duration.ofMinutes(5), true, "rates:", true), Duration.ofMinutes(15));
+    }
+
+    @Test
+    @DisplayName("📦 Таблица базовой валюты заменяется одним скриптом с общими временем и провайдером")
+    @SuppressWarnings("unchecked")
+    void putTable_whenTableGiven_thenReplacesHashWithTableMetadata() {
+        // Arrange
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0);
+        List<ExchangeRate> table = List.of(
+            new ExchangeRate(Currency.of("USD"), Currency.of("EUR"),
+                new BigDecimal("0.92"), timestamp, "Test"),
+            new ExchangeRate(Currency.of("USD"), Currency.of("GBP"),
+                new BigDecimal("0.79"), timestamp, "Test"));
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("rates:table:USD")), anyList()))
+            .thenReturn(Flux.just(1L));
+        stubIndex();
+
+        // Act & Assert
+        StepVerifier.create(cache.putTable("USD", table)).verifyComplete();
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("rates:table:USD")), args.capture());
+        assertThat(args.getValue()).containsSubsequence("_provider", "Test")
+            .containsSubsequence("_ts", Long.toString(timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()))
+            .containsSubsequence("EUR", "0.92")
+            .containsSubsequence("GBP", "0.79");
+        verify(hashes, never()).putAll(any(), anyMap());
+    }
+
+    @Test
+    @DisplayName("🧩 Частичная запись не трогает служебные поля таблицы")
+    @SuppressWarnings("unchecked")
+    void putRates_whenPartialWrite_thenKeepsMetadataInEachField() {
+        // Arrange
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0);
+        String epochMillis = Long.toString(timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        List<ExchangeRate> rates = List.of(
+            new ExchangeRate(Currency.of("USD"), Currency.of("JPY"), new BigDecimal("149.5"), timestamp, "Other"));
+        when(hashes.putAll(eq("rates:table:USD"), anyMap())).thenReturn(Mono.just(true));
+        stubIndex();
+
+        // Act & Assert
+        StepVerifier.create(cache.putRates(rates)).verifyComplete();
+
+        ArgumentCaptor<Map<String, String>> fields = ArgumentCaptor.forClass(Map.class);
+        verify(hashes, times(1)).putAll(eq("rates:table:USD"), fields.capture());
+        assertThat(fields.getValue())
+            .containsOnlyKeys("JPY")
+            .containsEntry("JPY", "149.5|" + epochMillis + "|Other");
+    }
+
+    @Test
+    @DisplayName("🎯 Несколько пар одной базы читаются одним HMGET")
+    void getRates_whenSeveralTargets_thenReadsWithSingleMultiGet() {
+        // Arrange
+        String now = Long.toString(System.currentTimeMillis());
+        String single = "149.5|" + now + "|Other";
+        when(hashes.multiGet(eq("rates:table:USD"), any())).thenAnswer(call -> {
+            List<String> fields = call.getArgument(1);
+            Map<String, String> stored = Map.of("_ts", now, "_provider", "Test", "EUR", "0.92", "JPY", single);
+            return Mono.just(fields.stream().map(stored::get).toList());
+        });
+
+        // Act & Assert
+        StepVerifier.create(cache.getRates("USD", Set.of("EUR", "JPY", "CHF")).collectList())
+            .assertNext(rates -> {
+                assertThat(rates).extracting(rate -> rate.toCurrency().code()).containsExactlyInAnyOrder("EUR", "JPY");
+                assertThat(rates).filteredOn(rate -> rate.toCurrency().code().equals("JPY"))
+                    .singleElement()
+                    .satisfies(rate -> {
+                        assertThat(rate.rate()).isEqualByComparingTo("149.5");
+                        assertThat(rate.providerName()).isEqualTo("Other");
+                    });
+            })
+            .verifyComplete();
+
+        verify(hashes, times(1)).multiGet(eq("rates:table:USD"), any());
+    }
+
+    @Test
+    @DisplayName("⏰ Истекшая таблица не отдается из кэша")
+    void getRate_whenTableExpired_thenReturnsEmpty() {
+        // Arrange
+        String old = Long.toString(System.currentTimeMillis() - Duration.ofMinutes(20).toMillis());
+        when(hashes.multiGet(eq("rates:table:USD"), any())).thenReturn(Mono.just(Arrays.asList(old, "Test", null, "0.92")));
+
+        // Act & Assert
+        StepVerifier.create(cache.getRate("USD", "EUR")).verifyComplete();
+    }
+
+    private void stubIndex() {
+        when(redisTemplate.expire("rates:table:USD", Duration.ofMinutes(15))).thenReturn(Mono.just(true));
+        when(index.add(eq("rates:index"), eq("rates:table:USD"), anyDouble())).thenReturn(Mono.just(true));
+        when(index.removeRangeByScore(eq("rates:index"), any())).thenReturn(Mono.just(0L));
+    }
+}
@@ -0,0 +1,111 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.infrastructure.config.RedisConfig.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для RedisRateCache")
+class RedisRateCacheTest {
+
+    private static final String INDEX = "rates:index";
+
+    @Mock
+    private ReactiveRedisTemplate<String, ExchangeRate> redisTemplate;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> indexTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, ExchangeRate> valueOperations;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> index;
+
+    private RedisRateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(indexTemplate.opsForZSet()).thenReturn(index);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        cache = new RedisRateCache(redisTemplate, indexTemplate,
+            new CacheProperties(Duration.ofMinutes(5), true, "rates:", true), Duration.ofMinutes(15));
+    }
+
+    @Test
+    @DisplayName("🗂️ Запись курса добавляет ключ в индекс и вычищает истекшие")
+    void putRate_whenStored_thenIndexesKeyWithExpiry() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Test");
+        when(valueOperations.set("rates:USD->EUR", rate, Duration.ofMinutes(15))).thenReturn(Mono.just(true));
+        when(index.add(eq(INDEX), eq("rates:USD->EUR"), anyDouble())).thenReturn(Mono.just(true));
+        when(index.removeRangeByScore(eq(INDEX), any())).thenReturn(Mono.just(0L));
+
+        // Act & Assert
+        StepVerifier.create(cache.putRate(rate)).verifyComplete();
+
+        verify(index).add(eq(INDEX), eq("rates:USD->EUR"), anyDouble());
+        verify(index).removeRangeByScore(eq(INDEX), any());
+    }
+
+    @Test
+    @DisplayName("🧹 Очистка удаляет ключи пачками через UNLINK без KEYS")
+    @SuppressWarnings("unchecked")
+    void clearAll_whenIndexHasKeys_thenUnlinksInBatches() {
+        // Arrange
+        List<String> first = IntStream.range(0, 500).mapToObj(i -> "rates:K" + i).toList();
+        List<String> second = List.of("rates:USD->EUR", "rates:USD->GBP");
+        when(index.range(eq(INDEX), any(Range.class)))
+            .thenReturn(Flux.fromIterable(first), Flux.fromIterable(second), Flux.empty());
+        when(redisTemplate.unlink(any(String[].class))).thenAnswer(call -> Mono.just((long) call.getArguments().length));
+        when(index.remove(eq(INDEX), any(Object[].class))).thenReturn(Mono.just(1L));
+        when(indexTemplate.unlink(any(String[].class))).thenReturn(Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(cache.clearAll()).verifyComplete();
+
+        verify(index, times(3)).range(eq(INDEX), any(Range.class));
+        verify(redisTemplate, times(2)).unlink(any(String[].class));
+        verify(indexTemplate).unlink(INDEX);
+        verify(redisTemplate, never()).keys(any());
+    }
+
+    @Test
+    @DisplayName("📏 Размер кэша берется из индекса")
+    @SuppressWarnings("unchecked")
+    void getStats_whenCalled_thenCountsLiveIndexEntries() {
+        // Arrange
+        when(index.count(eq(INDEX), any(Range.class))).thenReturn(Mono.just(42L));
+
+        // Act & Assert
+        StepVerifier.create(cache.getStats())
+            .assertNext(stats -> assertThat(stats.estimatedSize()).isEqualTo(42L))
+            .verifyComplete();
+
+        verify(redisTemplate, never()).keys(any());
+    }
+}
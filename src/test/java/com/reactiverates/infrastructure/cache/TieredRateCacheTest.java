@@ -0,0 +1,135 @@
+package com.reactiverates.infrastructure.cache;
+
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для TieredRateCache")
+class TieredRateCacheTest {
+
+    private static final String CHANNEL = "rates:invalidations";
+
+    @Mock
+    private RateCache remote;
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    private final Sinks.Many<ReactiveSubscription.Message<String, String>> messages = Sinks.many().multicast().directBestEffort();
+
+    private CaffeineRateCache local;
+    private TieredRateCache cache;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() {
+        lenient().when(redisTemplate.listenToChannel(CHANNEL)).thenReturn((Flux) messages.asFlux());
+        lenient().when(redisTemplate.convertAndSend(eq(CHANNEL), anyString())).thenReturn(Mono.just(1L));
+        lenient().when(remote.putRate(any())).thenReturn(Mono.empty());
+        lenient().when(remote.evict(any(), any())).thenReturn(Mono.empty());
+
+        local = new CaffeineRateCache(Duration.ofMinutes(15), Duration.ofSeconds(30), 100);
+        cache = new TieredRateCache(local, remote, redisTemplate, CHANNEL).start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    @DisplayName("🔁 Промах L1 читается из L2 и копируется в L1")
+    void getRate_whenLocalMiss_thenReadsThroughRemoteAndPopulatesLocal() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Test");
+        when(remote.getRate("USD", "EUR")).thenReturn(Mono.just(rate));
+        when(remote.getStats()).thenReturn(Mono.just(new RateCache.CacheStats(1, 0, 0, 1, 1.0)));
+
+        // Act & Assert
+        StepVerifier.create(cache.getRate("USD", "EUR")).expectNext(rate).verifyComplete();
+        StepVerifier.create(cache.getRate("USD", "EUR")).expectNext(rate).verifyComplete();
+
+        verify(remote, times(1)).getRate("USD", "EUR");
+        StepVerifier.create(cache.getStats())
+            .assertNext(stats -> {
+                assertThat(stats.tiers().get("l1").hitCount()).isEqualTo(1);
+                assertThat(stats.tiers().get("l1").missCount()).isEqualTo(1);
+                assertThat(stats.tiers().get("l2").hitCount()).isEqualTo(1);
+                assertThat(stats.hitCount()).isEqualTo(2);
+                assertThat(stats.hitRate()).isEqualTo(1.0);
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("📣 Запись пишет в оба уровня и публикует инвалидацию")
+    void putRate_whenCalled_thenWritesBothTiersAndPublishesInvalidation() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "GBP", new BigDecimal("0.79"), "Test");
+
+        // Act
+        StepVerifier.create(cache.putRate(rate)).verifyComplete();
+
+        // Assert
+        verify(remote).putRate(rate);
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        assertThat(message.getValue()).endsWith("|EVICT|USD->GBP");
+        StepVerifier.create(local.getRate("USD", "GBP")).expectNext(rate).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("🧹 Инвалидация от другого экземпляра удаляет ключ из L1")
+    void invalidation_whenReceivedFromOtherInstance_thenEvictsLocalEntry() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "JPY", new BigDecimal("149.5"), "Test");
+        StepVerifier.create(local.putRate(rate)).verifyComplete();
+
+        // Act
+        messages.tryEmitNext(new ReactiveSubscription.ChannelMessage<>(CHANNEL, "other-instance|EVICT|USD->JPY,USD->CHF"));
+
+        // Assert
+        StepVerifier.create(local.getRate("USD", "JPY").hasElement().repeat().takeUntil(present -> !present).last())
+            .expectNext(false)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("🙈 Собственные сообщения об инвалидации игнорируются")
+    void invalidation_whenPublishedBySelf_thenKeepsLocalEntry() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "CHF", new BigDecimal("0.88"), "Test");
+        StepVerifier.create(cache.putRate(rate)).verifyComplete();
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+
+        // Act
+        messages.tryEmitNext(new ReactiveSubscription.ChannelMessage<>(CHANNEL, message.getValue()));
+
+        // Assert
+        StepVerifier.create(local.getRate("USD", "CHF")).expectNext(rate).verifyComplete();
+    }
+}
@@ -0,0 +1,301 @@
+package com.reactiverates.infrastructure.client;
+
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
+import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.domain.service.RateProvider;
+import com.reactiverates.infrastructure.config.HedgingProperties;
+import com.reactiverates.infrastructure.config.ProviderHealthProperties;
+import com.reactiverates.infrastructure.config.UpstreamRateLimit;
+import com.reactiverates.infrastructure.health.ProviderHealthRegistry;
+import com.reactiverates.infrastructure.ratelimit.UpstreamBudgetRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для ChainedRateProvider")
+class ChainedRateProviderTest {
+
+    @Mock
+    private RateProvider primary;
+
+    @Mock
+    private RateProvider secondary;
+
+    private ProviderHealthRegistry healthRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private UpstreamBudgetRegistry budgets;
+    private ChainedRateProvider chainedProvider;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(primary.getProviderName()).thenReturn("Primary");
+        lenient().when(primary.getPriority()).thenReturn(10);
+        lenient().when(secondary.getProviderName()).thenReturn("Secondary");
+        lenient().when(secondary.getPriority()).thenReturn(20);
+
+        healthRegistry = new ProviderHealthRegistry(new ProviderHealthProperties(false, null, null, 1, null, 0, null));
+        meterRegistry = new SimpleMeterRegistry();
+        budgets = new UpstreamBudgetRegistry(meterRegistry);
+        chainedProvider = new ChainedRateProvider(List.of(secondary, primary), healthRegistry,
+            new HedgingProperties(false, null, null, null, null), budgets, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("✅ Запрос курса не вызывает isAvailable() у провайдеров")
+    void getCurrentRate_whenPrimarySucceeds_thenDoesNotProbeAvailability() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Primary");
+        when(primary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(rate));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(rate)
+            .verifyComplete();
+
+        verify(primary, never()).isAvailable();
+        verify(secondary, never()).getCurrentRate(any(), any());
+        assertThat(healthRegistry.snapshot().get("Primary").status()).isEqualTo(ProviderHealthRegistry.Status.UP);
+    }
+
+    @Test
+    @DisplayName("⏭️ Провайдер, помеченный как недоступный, пропускается")
+    void getCurrentRate_whenPrimaryIsDown_thenSkipsIt() {
+        // Arrange
+        healthRegistry.recordFailure("Primary", "timeout");
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.93"), "Secondary");
+        when(secondary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(rate));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(rate)
+            .verifyComplete();
+
+        verify(primary, never()).getCurrentRate(any(), any());
+    }
+
+    @Test
+    @DisplayName("🔁 Ошибка реального запроса помечает провайдера недоступным")
+    void getCurrentRate_whenPrimaryFails_thenRecordsFailureAndFallsBack() {
+        // Arrange
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.93"), "Secondary");
+        when(primary.getCurrentRate("USD", "EUR")).thenReturn(Mono.error(new ExternalApiException("boom")));
+        when(secondary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(rate));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(rate)
+            .verifyComplete();
+
+        assertThat(healthRegistry.isUsable("Primary")).isFalse();
+        StepVerifier.create(chainedProvider.isAvailable())
+            .expectNext(true)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("🚫 Если пару не знает ни один провайдер, возвращается CurrencyNotFoundException без размыкания автоматов")
+    void getCurrentRate_whenAllProvidersRejectPair_thenReturnsCurrencyNotFound() {
+        // Arrange
+        when(primary.getCurrentRate("USD", "XXX")).thenReturn(Mono.error(new CurrencyNotFoundException("USD", "XXX")));
+        when(secondary.getCurrentRate("USD", "XXX")).thenReturn(Mono.error(new CurrencyNotFoundException("USD", "XXX")));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "XXX"))
+            .expectError(CurrencyNotFoundException.class)
+            .verify();
+
+        assertThat(healthRegistry.isUsable("Primary")).isTrue();
+        assertThat(healthRegistry.isUsable("Secondary")).isTrue();
+    }
+
+    @Test
+    @DisplayName("🆘 Если все провайдеры недоступны, пробуется вся цепочка")
+    void getCurrentRate_whenAllProvidersAreDown_thenTriesFullChain() {
+        // Arrange
+        healthRegistry.recordFailure("Primary", "timeout");
+        healthRegistry.recordFailure("Secondary", "timeout");
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Primary");
+        when(primary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(rate));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(rate)
+            .verifyComplete();
+
+        assertThat(healthRegistry.isUsable("Primary")).isTrue();
+    }
+
+    @Test
+    @DisplayName("🏁 Медленный основной провайдер хеджируется следующим, побеждает первый ответ")
+    void getCurrentRate_whenPrimaryIsSlow_thenHedgeWins() {
+        // Arrange
+        chainedProvider = new ChainedRateProvider(List.of(secondary, primary), healthRegistry,
+            new HedgingProperties(true, Duration.ofMillis(200), null, null, null), budgets, meterRegistry);
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.93"), "Secondary");
+        when(primary.getCurrentRate("USD", "EUR")).thenReturn(Mono.never());
+        when(secondary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(rate));
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(199))
+            .thenAwait(Duration.ofMillis(1))
+            .expectNext(rate)
+            .verifyComplete();
+
+        assertThat(meterRegistry.counter("rates.provider.hedged.requests").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("rates.provider.hedge.wins").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("⚡ Ошибка основного провайдера запускает следующий без ожидания порога")
+    void getCurrentRate_whenPrimaryFailsBeforeHedgeDelay_thenFallsBackImmediately() {
+        // Arrange
+        chainedProvider = new ChainedRateProvider(List.of(secondary, primary), healthRegistry,
+            new HedgingProperties(true, Duration.ofSeconds(5), null, null, null), budgets, meterRegistry);
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.93"), "Secondary");
+        when(primary.getCurrentRate("USD", "EUR")).thenReturn(Mono.error(new ExternalApiException("boom")));
+        when(secondary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(rate));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(rate)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        assertThat(meterRegistry.counter("rates.provider.hedged.requests").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("📊 Без фиксированной задержки хедж запускается по p95 основного провайдера в пределах min/max")
+    void getCurrentRate_whenHedgeDelayIsAdaptive_thenWaitsForClampedP95() {
+        assertHedgesAfter(new HedgingProperties(true, null, 0.95, Duration.ofMillis(50), Duration.ofSeconds(2)),
+            Duration.ofMillis(95));
+        assertHedgesAfter(new HedgingProperties(true, null, 0.95, Duration.ofMillis(200), Duration.ofSeconds(2)),
+            Duration.ofMillis(200));
+        assertHedgesAfter(new HedgingProperties(true, null, 0.95, Duration.ofMillis(10), Duration.ofMillis(60)),
+            Duration.ofMillis(60));
+    }
+
+    @Test
+    @DisplayName("🐢 Медленный провайдер в той же полосе приоритета перемещается в конец цепочки")
+    void getCurrentRate_whenPrimaryIsSlowerThanSecondary_thenSecondaryIsTriedFirst() {
+        // Arrange
+        healthRegistry.recordSuccess("Primary", Duration.ofSeconds(3));
+        healthRegistry.recordSuccess("Secondary", Duration.ofMillis(80));
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.93"), "Secondary");
+        when(secondary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(rate));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(rate)
+            .verifyComplete();
+
+        verify(primary, never()).getCurrentRate(any(), any());
+    }
+
+    @Test
+    @DisplayName("🪙 Провайдер с исчерпанной квотой пропускается без ожидания и без отметки об ошибке")
+    void getCurrentRate_whenPrimaryBudgetIsExhausted_thenRoutesToNextProvider() {
+        // Arrange
+        budgets.register("Primary", new UpstreamRateLimit(1, 1, Duration.ofDays(1), 0));
+        healthRegistry.recordSuccess("Secondary", Duration.ofSeconds(1));
+        ExchangeRate primaryRate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.92"), "Primary");
+        ExchangeRate secondaryRate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.93"), "Secondary");
+        when(primary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(primaryRate));
+        when(secondary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(secondaryRate));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(primaryRate)
+            .verifyComplete();
+
+        StepVerifier.create(chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectNext(secondaryRate)
+            .verifyComplete();
+
+        verify(primary, times(1)).getCurrentRate("USD", "EUR");
+        assertThat(healthRegistry.isUsable("Primary")).isTrue();
+        assertThat(meterRegistry.get("rates.provider.budget.rejected").tag("provider", "Primary").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("rates.provider.budget.tokens").tag("provider", "Primary").gauge().value())
+            .isLessThan(1.0);
+    }
+
+    @Test
+    @DisplayName("📉 Если таблицу не дал ни один провайдер из-за ошибок, возвращается ошибка, а не пустой поток")
+    void getCurrentRates_whenAllProvidersFail_thenFailsInsteadOfEmpty() {
+        // Arrange
+        when(primary.getCurrentRates("USD", Set.of())).thenReturn(Flux.error(new ExternalApiException("boom")));
+        when(secondary.getCurrentRates("USD", Set.of())).thenReturn(Flux.error(new ExternalApiException("boom")));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRates("USD", Set.of()))
+            .verifyError(ExternalApiException.class);
+    }
+
+    @Test
+    @DisplayName("📭 Провайдер без таблиц отвечает пустым потоком, и это не считается сбоем")
+    void getCurrentRates_whenProviderHasNoTable_thenCompletesEmpty() {
+        // Arrange
+        when(primary.getCurrentRates("USD", Set.of())).thenReturn(Flux.error(new ExternalApiException("boom")));
+        when(secondary.getCurrentRates("USD", Set.of())).thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRates("USD", Set.of()))
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("🔤 Если базовую валюту не знает ни один провайдер, возвращается CurrencyNotFoundException, а автоматы не размыкаются")
+    void getCurrentRates_whenAllProvidersRejectBase_thenFailsWithCurrencyNotFound() {
+        // Arrange
+        when(primary.getCurrentRates("XYZ", Set.of())).thenReturn(Flux.error(new CurrencyNotFoundException("XYZ")));
+        when(secondary.getCurrentRates("XYZ", Set.of())).thenReturn(Flux.error(new CurrencyNotFoundException("XYZ")));
+
+        // Act & Assert
+        StepVerifier.create(chainedProvider.getCurrentRates("XYZ", Set.of()))
+            .verifyError(CurrencyNotFoundException.class);
+        assertThat(healthRegistry.isUsable("Primary")).isTrue();
+        assertThat(healthRegistry.isUsable("Secondary")).isTrue();
+    }
+
+    /**
+     * Основной провайдер с p95 = 95 мс не отвечает; курс приходит от хеджа ровно через {@code expectedDelay}
+     */
+    private void assertHedgesAfter(HedgingProperties hedging, Duration expectedDelay) {
+        healthRegistry = new ProviderHealthRegistry(new ProviderHealthProperties(false, null, null, 1, null, 0, null));
+        for (int i = 1; i <= 100; i++) {
+            healthRegistry.recordSuccess("Primary", Duration.ofMillis(i));
+        }
+        healthRegistry.recordSuccess("Secondary", Duration.ofSeconds(5));
+        chainedProvider = new ChainedRateProvider(List.of(secondary, primary), healthRegistry, hedging, budgets, meterRegistry);
+        ExchangeRate rate = ExchangeRate.of("USD", "EUR", new BigDecimal("0.93"), "Secondary");
+        when(primary.getCurrentRate("USD", "EUR")).thenReturn(Mono.never());
+        when(secondary.getCurrentRate("USD", "EUR")).thenReturn(Mono.just(rate));
+
+        StepVerifier.withVirtualTime(() -> chainedProvider.getCurrentRate("USD", "EUR"))
+            .expectSubscription()
+            .expectNoEvent(expectedDelay.minusMillis(1))
+            .thenAwait(Duration.ofMillis(1))
+            .expectNext(rate)
+            .verifyComplete();
+    }
+}
@@ -0,0 +1,91 @@
+package com.reactiverates.infrastructure.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactiverates.infrastructure.client.dto.ExchangeRateApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение разбора ответа {@code /latest/{base}} через DTO и потокового {@link ExchangeRateTableDecoder}.
+ * <p>
+ * Запускается через {@link #main} с тестовым classpath. Профилировщик GC включен,
+ * поэтому в отчете есть {@code gc.alloc.rate.norm} — байты на один разобранный ответ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeRateDecodingBenchmark {
+    private static final int CURRENCIES = 162;
+
+    // Та же конфигурация, что у кодеков WebClient
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"result\":\"success\",\"documentation\":\"https://www.exchangerate-api.com/docs\",")
+            .append("\"time_last_update_unix\":1700000000,\"base_code\":\"USD\",\"conversion_rates\":{\"USD\":1");
+        for (int i = 1; i < CURRENCIES; i++) {
+            String code = i == CURRENCIES / 2 ? "EUR" : String.valueOf(new char[]{
+                (char) ('A' + i / 26 % 26), (char) ('A' + i % 26), 'X'});
+            json.append(",\"").append(code).append("\":").append(String.format(Locale.ROOT, "%.4f", 0.5 + i * 1.37));
+        }
+        body = json.append("}}").toString().getBytes();
+    }
+
+    @Benchmark
+    public BigDecimal dtoSingleTarget() throws IOException {
+        return objectMapper.readValue(body, ExchangeRateApiResponse.class).conversionRates().get("EUR");
+    }
+
+    @Benchmark
+    public double streamingSingleTarget() {
+        return ExchangeRateTableDecoder.decode(buffer(), Set.of("EUR")).rate("EUR");
+    }
+
+    @Benchmark
+    public int dtoFullTable() throws IOException {
+        return objectMapper.readValue(body, ExchangeRateApiResponse.class).conversionRates().size();
+    }
+
+    @Benchmark
+    public int streamingFullTable() {
+        return ExchangeRateTableDecoder.decode(buffer(), Set.of()).size();
+    }
+
+    private DataBuffer buffer() {
+        return DefaultDataBufferFactory.sharedInstance.wrap(body);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ExchangeRateDecodingBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.reactiverates.infrastructure.client;
+
+import com.reactiverates.domain.exception.ExternalApiException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тесты для ExchangeRateTableDecoder")
+class ExchangeRateTableDecoderTest {
+
+    private static final String SUCCESS_BODY = """
+        {"result":"success","documentation":"https://www.exchangerate-api.com/docs",
+         "time_last_update_unix":1700000000,"time_next_update_unix":1700086400,"base_code":"USD",
+         "conversion_rates":{"USD":1,"EUR":0.9213,"GBP":0.7931,"JPY":149.52,"CHF":0.8812}}
+        """;
+
+    @Test
+    @DisplayName("🎯 Извлекаются только запрошенные валюты")
+    void decode_whenTargetsGiven_thenExtractsOnlyTargets() {
+        // Act
+        ExchangeRateTableDecoder.RateTable table = ExchangeRateTableDecoder.decode(buffer(SUCCESS_BODY), Set.of("EUR", "JPY"));
+
+        // Assert
+        assertThat(table.baseCode()).isEqualTo("USD");
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.rate("EUR")).isEqualTo(0.9213);
+        assertThat(table.rate("JPY")).isEqualTo(149.52);
+        assertThat(table.rate("GBP")).isNaN();
+    }
+
+    @Test
+    @DisplayName("🗓️ Время следующего обновления таблицы берется из time_next_update_unix")
+    void decode_whenNextUpdateGiven_thenExposesIt() {
+        // Act
+        ExchangeRateTableDecoder.RateTable table = ExchangeRateTableDecoder.decode(buffer(SUCCESS_BODY), Set.of("EUR"));
+        ExchangeRateTableDecoder.RateTable withoutSchedule = ExchangeRateTableDecoder.decode(
+            buffer("{\"result\":\"success\",\"base_code\":\"USD\",\"conversion_rates\":{\"EUR\":0.92}}"), Set.of());
+
+        // Assert
+        assertThat(table.nextUpdate()).isEqualTo(Instant.ofEpochSecond(1700086400));
+        assertThat(withoutSchedule.nextUpdate()).isNull();
+    }
+
+    @Test
+    @DisplayName("📋 Пустой набор целевых валют возвращает всю таблицу")
+    void decode_whenTargetsEmpty_thenReturnsWholeTable() {
+        // Act
+        ExchangeRateTableDecoder.RateTable table = ExchangeRateTableDecoder.decode(buffer(SUCCESS_BODY), Set.of());
+
+        // Assert
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        table.forEach(rates::put);
+        assertThat(rates).containsExactly(
+            Map.entry("USD", new BigDecimal("1.0")),
+            Map.entry("EUR", new BigDecimal("0.9213")),
+            Map.entry("GBP", new BigDecimal("0.7931")),
+            Map.entry("JPY", new BigDecimal("149.52")),
+            Map.entry("CHF", new BigDecimal("0.8812")));
+    }
+
+    @Test
+    @DisplayName("🔢 Числа разбираются так же, как Double.parseDouble")
+    void decode_whenNumbersHaveVariousFormats_thenMatchesDoubleParse() {
+        // Arrange
+        String[] values = {"0", "3", "1.0", "0.000001234", "15732.5", "0.12345678901234567890", "1.5e-3", "-2.25", "9007199254740993"};
+        StringBuilder body = new StringBuilder("{\"result\":\"success\",\"conversion_rates\":{");
+        for (int i = 0; i < values.length; i++) {
+            body.append(i > 0 ? "," : "").append("\"C").append(i).append("\":").append(values[i]);
+        }
+        body.append("}}");
+
+        // Act
+        ExchangeRateTableDecoder.RateTable table = ExchangeRateTableDecoder.decode(buffer(body.toString()), Set.of());
+
+        // Assert
+        for (int i = 0; i < values.length; i++) {
+            assertThat(table.rate("C" + i)).as(values[i]).isEqualTo(Double.parseDouble(values[i]));
+        }
+    }
+
+    @Test
+    @DisplayName("❌ Ответ с ошибкой преобразуется в ExternalApiException")
+    void decode_whenResultIsError_thenThrowsExternalApiException() {
+        // Arrange
+        String body = "{\"result\":\"error\",\"error-type\":\"invalid-key\"}";
+
+        // Act & Assert
+        assertThatThrownBy(() -> ExchangeRateTableDecoder.decode(buffer(body), Set.of("EUR")))
+            .isInstanceOf(ExternalApiException.class)
+            .hasMessageContaining("invalid-key");
+    }
+
+    @Test
+    @DisplayName("💥 Некорректный JSON преобразуется в ExternalApiException")
+    void decode_whenBodyIsMalformed_thenThrowsExternalApiException() {
+        // Act & Assert
+        assertThatThrownBy(() -> ExchangeRateTableDecoder.decode(buffer("{\"result\":\"success\",\"conversion_rates\":{"), Set.of()))
+            .isInstanceOf(ExternalApiException.class);
+    }
+
+    private static DataBuffer buffer(String body) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,34 @@
+package com.reactiverates.infrastructure.client;
+
+import com.reactiverates.domain.exception.ExternalApiException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для UniRateApiClient")
+class UniRateApiClientTest {
+
+    @Test
+    @DisplayName("🔎 Неподдерживаемой считается пара только при 404 или 400 с ошибкой о неизвестной валюте")
+    void isUnsupportedPair_whenClientError_thenOnlyUnknownCurrencyCounts() {
+        // Arrange
+        WebClientResponseException notFound = response(404, "");
+        WebClientResponseException unknownCurrency = response(400, "{\"error\":\"Invalid currency code: XYZ\"}");
+        WebClientResponseException invalidKey = response(400, "{\"error\":\"Invalid API key\"}");
+
+        // Act & Assert
+        assertThat(UniRateApiClient.isUnsupportedPair(notFound)).isTrue();
+        assertThat(UniRateApiClient.isUnsupportedPair(unknownCurrency)).isTrue();
+        assertThat(UniRateApiClient.isUnsupportedPair(invalidKey)).isFalse();
+        assertThat(UniRateApiClient.isUnsupportedPair(new ExternalApiException("timeout"))).isFalse();
+    }
+
+    private WebClientResponseException response(int status, String body) {
+        return WebClientResponseException.create(status, "Error", null, body.getBytes(StandardCharsets.UTF_8),
+            StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,157 @@
+package com.reactiverates.infrastructure.client;
+
+import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.domain.model.HistoricalExchangeRate;
+import com.reactiverates.infrastructure.config.UniRateApiConfig;
+import com.reactiverates.infrastructure.ratelimit.UpstreamBudgetRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для UniRateHistoricalRateProvider")
+class UniRateHistoricalRateProviderTest {
+
+    private HttpServer server;
+    private final List<Map<String, String>> requests = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+
+    private UniRateHistoricalRateProvider provider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/historical/timeseries", this::handleTimeseries);
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        UniRateApiConfig config = new UniRateApiConfig(baseUrl, "test-key", Duration.ofSeconds(5), Duration.ofMillis(10),
+            20, null, 180, 3650, 4, null, null);
+        provider = new UniRateHistoricalRateProvider(WebClient.builder().baseUrl(baseUrl).build(), config,
+            new UpstreamBudgetRegistry(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("📅 Год истории по нескольким валютам загружается несколькими запросами по окнам")
+    void getHistoricalRatesForTargets_whenRangeExceedsWindow_thenSplitsIntoChunks() {
+        // Arrange
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 12, 31);
+        long weekdays = start.datesUntil(end.plusDays(1)).filter(this::isWeekday).count();
+
+        // Act & Assert
+        StepVerifier.create(provider.getHistoricalRatesForTargets("USD", Set.of("EUR", "GBP"), start, end).collectList())
+            .assertNext(rates -> {
+                assertThat(rates).hasSize((int) weekdays * 2);
+                assertThat(rates.get(0).date()).isEqualTo(LocalDate.of(2024, 1, 1));
+                assertThat(rates.get(rates.size() - 1).date()).isEqualTo(LocalDate.of(2024, 12, 31));
+                assertThat(rates).extracting(rate -> rate.toCurrency().code()).containsOnly("EUR", "GBP");
+            })
+            .verifyComplete();
+
+        assertThat(requests).hasSize(3);
+        assertThat(requests).extracting(query -> query.get("start_date"))
+            .containsExactlyInAnyOrder("2024-01-01", "2024-06-29", "2024-12-26");
+        assertThat(requests).allSatisfy(query -> {
+            assertThat(query.get("currencies")).isEqualTo("EUR,GBP");
+            assertThat(query.get("api_key")).isEqualTo("test-key");
+        });
+    }
+
+    @Test
+    @DisplayName("🧩 Разреженные даты группируются в окна без загрузки лишней истории")
+    void getHistoricalRatesForDates_whenDatesAreSparse_thenFetchesOnlyNeededWindows() {
+        // Arrange
+        Set<LocalDate> dates = Set.of(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), LocalDate.of(2024, 9, 2));
+
+        // Act & Assert
+        StepVerifier.create(provider.getHistoricalRatesForDates("USD", "EUR", dates).collectList())
+            .assertNext(rates -> assertThat(rates).extracting(HistoricalExchangeRate::date)
+                .containsExactly(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), LocalDate.of(2024, 9, 2)))
+            .verifyComplete();
+
+        assertThat(requests).extracting(query -> query.get("start_date") + ".." + query.get("end_date"))
+            .containsExactlyInAnyOrder("2024-01-02..2024-01-03", "2024-09-02..2024-09-02");
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка API преобразуется в ExternalApiException")
+    void getHistoricalRates_whenApiReturnsError_thenThrowsExternalApiException() {
+        // Arrange
+        status = 400;
+
+        // Act & Assert
+        StepVerifier.create(provider.getHistoricalRates("USD", "EUR", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+            .expectError(ExternalApiException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    private void handleTimeseries(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        requests.add(query);
+
+        String body;
+        if (status != 200) {
+            body = "{\"error\":\"bad request\"}";
+        } else {
+            LocalDate start = LocalDate.parse(query.get("start_date"));
+            LocalDate end = LocalDate.parse(query.get("end_date"));
+            List<String> currencies = List.of(query.get("currencies").split(","));
+            String data = start.datesUntil(end.plusDays(1))
+                .filter(this::isWeekday)
+                .map(date -> "\"" + date + "\":{" + currencies.stream()
+                    .map(currency -> "\"" + currency + "\":0.9")
+                    .collect(Collectors.joining(",")) + "}")
+                .collect(Collectors.joining(","));
+            body = "{\"start_date\":\"" + start + "\",\"end_date\":\"" + end + "\",\"base\":\""
+                + query.get("base") + "\",\"data\":{" + data + "}}";
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        for (String param : rawQuery.split("&")) {
+            String[] pair = param.split("=", 2);
+            query.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private boolean isWeekday(LocalDate date) {
+        return date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+    }
+}
@@ -0,0 +1,144 @@
+package com.reactiverates.infrastructure.health;
+
+import com.reactiverates.domain.exception.ExternalApiException;
+import com.reactiverates.infrastructure.config.ProviderHealthProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для ProviderHealthRegistry")
+class ProviderHealthRegistryTest {
+
+    private ProviderHealthRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ProviderHealthRegistry(
+            new ProviderHealthProperties(false, null, null, 2, Duration.ofMillis(50), 10, 0.5));
+    }
+
+    @Test
+    @DisplayName("🔌 Автомат размыкается после серии ошибок и пропускает пробный запрос после паузы")
+    void allowRequest_whenCircuitIsOpen_thenAllowsSingleTrialAfterOpenDuration() throws InterruptedException {
+        // Arrange
+        registry.recordFailure("Provider", "timeout");
+        registry.recordFailure("Provider", "timeout");
+
+        // Act & Assert
+        assertThat(registry.allowRequest("Provider")).isFalse();
+
+        Thread.sleep(60);
+        assertThat(registry.allowRequest("Provider")).isTrue();
+        assertThat(registry.allowRequest("Provider")).isFalse();
+        assertThat(registry.snapshot().get("Provider").status()).isEqualTo(ProviderHealthRegistry.Status.HALF_OPEN);
+
+        registry.recordSuccess("Provider", Duration.ofMillis(10));
+        assertThat(registry.allowRequest("Provider")).isTrue();
+        assertThat(registry.snapshot().get("Provider").status()).isEqualTo(ProviderHealthRegistry.Status.UP);
+    }
+
+    @Test
+    @DisplayName("💥 Ошибка пробного запроса снова размыкает автомат")
+    void recordFailure_whenTrialRequestFails_thenCircuitOpensAgain() throws InterruptedException {
+        // Arrange
+        registry.recordFailure("Provider", "timeout");
+        registry.recordFailure("Provider", "timeout");
+        Thread.sleep(60);
+        assertThat(registry.allowRequest("Provider")).isTrue();
+
+        // Act
+        registry.recordFailure("Provider", "still failing");
+
+        // Assert
+        assertThat(registry.snapshot().get("Provider").status()).isEqualTo(ProviderHealthRegistry.Status.DOWN);
+        assertThat(registry.allowRequest("Provider")).isFalse();
+    }
+
+    @Test
+    @DisplayName("🧮 Ранжирование не занимает пробный запрос разомкнутого автомата")
+    void rank_whenCircuitWaitsForTrial_thenKeepsTrialForRequest() throws InterruptedException {
+        // Arrange
+        registry.recordFailure("Provider", "timeout");
+        registry.recordFailure("Provider", "timeout");
+        Thread.sleep(60);
+
+        // Act
+        List<String> ranked = registry.rank(List.of("Provider"), name -> name, name -> 0);
+
+        // Assert
+        assertThat(ranked).containsExactly("Provider");
+        assertThat(registry.snapshot().get("Provider").status()).isEqualTo(ProviderHealthRegistry.Status.DOWN);
+        assertThat(registry.allowRequest("Provider")).isTrue();
+        assertThat(registry.canRequest("Provider")).isFalse();
+    }
+
+    @Test
+    @DisplayName("📊 Перцентиль задержки считается по успешным запросам провайдера")
+    void latencyPercentile_whenSuccessesRecorded_thenReturnsP95() {
+        // Arrange
+        for (int i = 1; i <= 100; i++) {
+            registry.recordSuccess("Primary", Duration.ofMillis(i));
+        }
+
+        // Act & Assert
+        assertThat(registry.latencyPercentile("Primary", 0.95)).contains(Duration.ofMillis(95));
+        assertThat(registry.latencyPercentile("Secondary", 0.95)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("📶 Провайдеры упорядочиваются по стоимости только внутри полосы приоритета")
+    void rank_whenProvidersHaveDifferentCosts_thenReordersWithinBandOnly() {
+        // Arrange
+        registry.recordSuccess("Fast", Duration.ofMillis(50));
+        registry.recordSuccess("Slow", Duration.ofMillis(500));
+        registry.recordSuccess("Flaky", Duration.ofMillis(50));
+        registry.recordFailure("Flaky", "timeout");
+        registry.recordSuccess("Backup", Duration.ofMillis(1));
+
+        List<String> providers = List.of("Slow", "Flaky", "Fast", "Backup");
+        List<Integer> priorities = List.of(10, 12, 15, 20);
+
+        // Act
+        List<String> ranked = registry.rank(providers, name -> name,
+            name -> priorities.get(providers.indexOf(name)));
+
+        // Assert
+        assertThat(ranked).containsExactly("Fast", "Flaky", "Slow", "Backup");
+        assertThat(registry.snapshot().get("Flaky").errorRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("🙈 В состоянии провайдера не сохраняется текст ошибки с URI запроса")
+    void recordFailure_whenWebClientError_thenKeepsOnlyClassAndStatus() {
+        // Arrange
+        WebClientResponseException error = new WebClientResponseException(403, "Forbidden", null, null, null);
+
+        // Act
+        registry.recordFailure("Provider", new ExternalApiException("GET /v6/secret-key/latest/USD failed", error));
+
+        // Assert
+        assertThat(registry.snapshot().get("Provider").lastError())
+            .isEqualTo("WebClientResponseException (HTTP 403)")
+            .doesNotContain("secret-key");
+    }
+
+    @Test
+    @DisplayName("🩺 Фоновая проверка нужна только недоступным и простаивающим провайдерам")
+    void needsProbe_whenProviderRecentlyServedTraffic_thenSkipsProbe() {
+        // Arrange
+        registry.recordSuccess("Active", Duration.ofMillis(10));
+        registry.recordFailure("Broken", "timeout");
+        registry.recordFailure("Broken", "timeout");
+
+        // Act & Assert
+        assertThat(registry.needsProbe("Active", Duration.ofMinutes(30))).isFalse();
+        assertThat(registry.needsProbe("Broken", Duration.ofMinutes(30))).isTrue();
+        assertThat(registry.needsProbe("Unknown", Duration.ofMinutes(30))).isTrue();
+    }
+}
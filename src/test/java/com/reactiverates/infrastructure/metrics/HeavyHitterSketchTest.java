@@ -0,0 +1,64 @@
+package com.reactiverates.infrastructure.metrics;
+
+import com.reactiverates.domain.service.PairPopularity.PairFrequency;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для HeavyHitterSketch")
+class HeavyHitterSketchTest {
+
+    @Test
+    @DisplayName("🔥 Самые частые пары попадают в список, несмотря на длинный хвост редких пар")
+    void topPairs_whenSkewedTraffic_thenReturnsHeavyHittersInOrder() {
+        // Arrange
+        HeavyHitterSketch sketch = new HeavyHitterSketch(1024, 4, 3, Duration.ofMinutes(1));
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            sketch.record("USD", "EUR");
+            if (i % 2 == 0) {
+                sketch.record("USD", "GBP");
+            }
+            if (i % 4 == 0) {
+                sketch.record("EUR", "JPY");
+            }
+            sketch.record("X" + i, "Y" + i);
+        }
+
+        // Assert
+        List<PairFrequency> top = sketch.topPairs(3);
+        assertThat(top).extracting(pair -> pair.fromCurrency() + "->" + pair.toCurrency())
+            .containsExactly("USD->EUR", "USD->GBP", "EUR->JPY");
+        assertThat(top.get(0).count()).isGreaterThanOrEqualTo(1000);
+        assertThat(sketch.estimate("USD", "GBP")).isGreaterThanOrEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("📉 Затухание делит счетчики пополам, частота считается по окну")
+    void decay_whenWindowElapsed_thenHalvesCountsAndEstimatesRate() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        HeavyHitterSketch sketch = new HeavyHitterSketch(256, 4, 10, Duration.ofSeconds(10), clock::get);
+        for (int i = 0; i < 100; i++) {
+            sketch.record("USD", "EUR");
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(sketch.isDecayDue()).isTrue();
+
+        // Act
+        sketch.decay();
+
+        // Assert
+        assertThat(sketch.isDecayDue()).isFalse();
+        assertThat(sketch.estimate("USD", "EUR")).isEqualTo(50);
+        assertThat(sketch.topPairs(10)).singleElement()
+            .satisfies(pair -> assertThat(pair.ratePerSecond()).isEqualTo(5.0));
+    }
+}
@@ -0,0 +1,44 @@
+package com.reactiverates.infrastructure.metrics;
+
+import com.reactiverates.domain.service.RateCache;
+import com.reactiverates.domain.service.RateCache.CacheStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для RateCacheMetrics")
+class RateCacheMetricsTest {
+
+    @Mock
+    private RateCache rateCache;
+
+    @Test
+    @DisplayName("📊 Статистика кэша и его уровней публикуется с тегом tier")
+    void update_whenTieredStats_thenPublishesTotalAndTiers() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateCacheMetrics metrics = new RateCacheMetrics(rateCache, Duration.ofSeconds(15));
+        metrics.bindTo(registry);
+        CacheStats l1 = new CacheStats(80, 20, 1, 50, 0.8);
+        CacheStats l2 = new CacheStats(15, 5, 0, 500, 0.75);
+
+        // Act
+        metrics.update(new CacheStats(95, 5, 1, 500, 0.95, Map.of("l1", l1, "l2", l2)));
+
+        // Assert
+        String cache = rateCache.getClass().getSimpleName();
+        assertThat(registry.get("rates.cache.hits").tags("cache", cache, "tier", "total").functionCounter().count())
+            .isEqualTo(95.0);
+        assertThat(registry.get("rates.cache.hit.ratio").tags("tier", "l1").gauge().value()).isEqualTo(0.8);
+        assertThat(registry.get("rates.cache.size").tags("tier", "l2").gauge().value()).isEqualTo(500.0);
+    }
+}
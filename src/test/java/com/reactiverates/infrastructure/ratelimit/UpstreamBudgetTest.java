@@ -0,0 +1,71 @@
+package com.reactiverates.infrastructure.ratelimit;
+
+import com.reactiverates.infrastructure.config.UpstreamRateLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для UpstreamBudget")
+class UpstreamBudgetTest {
+
+    @Test
+    @DisplayName("🪣 Квота расходуется и пополняется со временем")
+    void tryAcquire_whenTokensRunOut_thenRejectsUntilRefill() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        UpstreamBudget budget = new UpstreamBudget(new UpstreamRateLimit(2, 1, Duration.ofSeconds(10), 0), clock::get);
+
+        // Act & Assert
+        assertThat(budget.tryAcquire()).isNotNull();
+        assertThat(budget.tryAcquire()).isNotNull();
+        assertThat(budget.tryAcquire()).isNull();
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(budget.tryAcquire()).isNotNull();
+        assertThat(budget.tryAcquire()).isNull();
+    }
+
+    @Test
+    @DisplayName("🚦 Число одновременных запросов ограничено, а место освобождается один раз")
+    void tryAcquire_whenConcurrencyIsExhausted_thenRejectsUntilRelease() {
+        // Arrange
+        UpstreamBudget budget = new UpstreamBudget(new UpstreamRateLimit(0, 0, null, 1));
+
+        // Act
+        UpstreamBudget.Permit permit = budget.tryAcquire();
+
+        // Assert
+        assertThat(permit).isNotNull();
+        assertThat(budget.tryAcquire()).isNull();
+        assertThat(budget.availableConcurrency()).isZero();
+
+        permit.release();
+        permit.release();
+        assertThat(budget.availableConcurrency()).isEqualTo(1);
+        assertThat(budget.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("🤝 Провайдеры с общим ключом API расходуют один бюджет")
+    void share_whenProvidersUseOneKey_thenSpendOneBudget() {
+        // Arrange
+        UpstreamBudgetRegistry registry = new UpstreamBudgetRegistry(new SimpleMeterRegistry());
+        UpstreamRateLimit limit = new UpstreamRateLimit(1, 1, Duration.ofDays(1), 0);
+        registry.share("Timeseries", "Latest", limit);
+        registry.register("Latest", limit);
+
+        // Act & Assert
+        StepVerifier.create(registry.guard("Latest", () -> Mono.just("latest")))
+            .expectNext("latest")
+            .verifyComplete();
+        StepVerifier.create(registry.guard("Timeseries", () -> Mono.just("timeseries")))
+            .verifyComplete();
+    }
+}
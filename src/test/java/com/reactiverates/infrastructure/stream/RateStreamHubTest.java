@@ -0,0 +1,134 @@
+package com.reactiverates.infrastructure.stream;
+
+import com.reactiverates.domain.exception.CurrencyNotFoundException;
+import com.reactiverates.domain.model.ExchangeRate;
+import com.reactiverates.infrastructure.config.RateStreamProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты для RateStreamHub")
+class RateStreamHubTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new RateStreamHub(new RateStreamProperties(Duration.ofHours(1), 0.001, 10, null), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("📡 Подписчики одной пары разделяют один запрос курса")
+    void subscribe_whenManySubscribers_thenRefreshesOnce() {
+        // Arrange
+        AtomicInteger refreshes = new AtomicInteger();
+        Sinks.One<ExchangeRate> upstream = Sinks.one();
+        Supplier<Mono<ExchangeRate>> refresh = () -> {
+            refreshes.incrementAndGet();
+            return upstream.asMono();
+        };
+        ExchangeRate rate = rate("0.92");
+
+        // Act & Assert
+        StepVerifier.create(Flux.merge(
+                hub.subscribe("USD", "EUR", refresh).take(1),
+                hub.subscribe("USD", "EUR", refresh).take(1),
+                hub.subscribe("USD", "EUR", refresh).take(1)))
+            .then(() -> upstream.tryEmitValue(rate))
+            .expectNext(rate, rate, rate)
+            .verifyComplete();
+
+        assertThat(refreshes.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("🎚️ Изменения меньше допуска не отправляются")
+    void publish_whenChangeBelowEpsilon_thenSuppressed() {
+        // Arrange
+        ExchangeRate initial = rate("0.9200");
+        ExchangeRate changed = rate("0.9300");
+
+        // Act & Assert
+        StepVerifier.create(hub.subscribe("USD", "EUR", () -> Mono.just(initial)))
+            .expectNext(initial)
+            .then(() -> hub.publish(rate("0.92001")))
+            .then(() -> hub.publish(changed))
+            .expectNext(changed)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(meterRegistry.get("rates.stream.updates").tag("result", "suppressed").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("🧹 После ухода последнего подписчика поток пары закрывается")
+    void subscribe_whenLastSubscriberLeaves_thenStreamReleased() {
+        // Arrange
+        ExchangeRate rate = rate("0.92");
+
+        // Act
+        StepVerifier.create(hub.subscribe("USD", "EUR", () -> Mono.just(rate)))
+            .expectNext(rate)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        // Assert
+        assertThat(meterRegistry.get("rates.stream.pairs").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("🐢 Медленный подписчик получает только последний курс")
+    void subscribe_whenSubscriberIsSlow_thenConflatesToLatest() {
+        // Arrange
+        ExchangeRate latest = rate("0.95");
+
+        // Act & Assert
+        StepVerifier.create(hub.subscribe("USD", "EUR", Mono::empty), 0)
+            .then(() -> hub.publish(rate("0.91")))
+            .then(() -> hub.publish(rate("0.93")))
+            .then(() -> hub.publish(latest))
+            .thenRequest(1)
+            .expectNext(latest)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("🚫 Неподдерживаемая пара закрывает поток ошибкой и больше не запрашивается")
+    void subscribe_whenPairIsUnsupported_thenFailsSubscribersAndStopsRefreshing() {
+        // Arrange
+        AtomicInteger refreshes = new AtomicInteger();
+        Supplier<Mono<ExchangeRate>> refresh = () -> {
+            refreshes.incrementAndGet();
+            return Mono.error(new CurrencyNotFoundException("USD", "XXX"));
+        };
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new RateStreamHub(new RateStreamProperties(Duration.ofMillis(10), 0.001, 10, null), meterRegistry);
+
+        // Act & Assert
+        StepVerifier.create(hub.subscribe("USD", "XXX", refresh))
+            .verifyError(CurrencyNotFoundException.class);
+
+        assertThat(refreshes.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("rates.stream.pairs").gauge().value()).isZero();
+    }
+
+    private ExchangeRate rate(String value) {
+        return ExchangeRate.of("USD", "EUR", new BigDecimal(value), "TestProvider");
+    }
+}